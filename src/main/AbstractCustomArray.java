@@ -0,0 +1,1231 @@
+package main;
+
+import java.io.IOException;
+import java.io.ObjectInputStream;
+import java.io.ObjectOutputStream;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.Collections;
+import java.util.Comparator;
+import java.util.List;
+import java.util.Objects;
+import java.util.concurrent.ForkJoinPool;
+import java.util.function.Predicate;
+import java.util.stream.IntStream;
+
+/**
+ * Stores the elements of a list with gaps. This class contains the handling of the gaps, while
+ * the subclasses define how the elements are stored (the storage, for example an Object[] or a long[]).
+ * @author RalfK
+ *
+ * @param <E> the type of the elements
+ * @param <A> the type of the storage
+ */
+abstract class AbstractCustomArray<E, A> implements ArrayInterface<E>, Resortable{
+	public static final byte DEFAULT_MULTIPLIER = 2;
+	
+	/**
+	 * The default minimum length of the array, before the gaps are removed by multiple threads
+	 */
+	static final int PARALLEL_THRESHOLD = 1 << 22;
+	
+	private GapInterface gaps;
+	
+	/**
+	 * The minimum length of the array, before the gaps are removed by multiple threads. A quarter of it is
+	 * the minimum amount of arrayIndexes handled by a single thread
+	 */
+	private int parallelThreshold;
+	
+	/**
+	 * The storage of the elements, including the gaps
+	 */
+	A array;
+	
+	private int multiplier;
+	
+	/**
+	 * The arrayIndex, where the last Element is stored +1
+	 */
+	private int lastElementsIndex;
+	
+	/**
+	 * The first gap of the run of gaps moved by the last resortStep or -1
+	 */
+	private int runStart;
+	
+	/**
+	 * The amount of gaps in this run
+	 */
+	private int runLength;
+	
+	AbstractCustomArray(GapInterface gaps, int size, byte multiplier) {
+		this.gaps = gaps;
+		// the size is only a hint, it does not need to be supported
+		this.array = allocate(Math.min(size, maxCapacity()));
+		this.lastElementsIndex = 0;
+		this.runStart = -1;
+		// a single thread would only pay for splitting the work
+		this.parallelThreshold = ForkJoinPool.getCommonPoolParallelism() > 1 ? PARALLEL_THRESHOLD : Integer.MAX_VALUE;
+		setMultiplier(multiplier);
+	}
+	
+	/**
+	 * sets the minimum length of the array, before the gaps are removed by multiple threads. Small thresholds
+	 * are only useful to test the parallel removal, as it runs even if the common pool has a single thread
+	 * @param threshold the minimum length of the array
+	 */
+	void setParallelThreshold(int threshold) {
+		this.parallelThreshold = threshold;
+	}
+
+	/**
+	 * creates a new storage
+	 * @param length the amount of elements, which can be stored
+	 * @return the storage
+	 */
+	abstract A allocate(int length);
+	
+	/**
+	 * 
+	 * @return the greatest capacity a storage can have
+	 */
+	int maxCapacity() {
+		return Integer.MAX_VALUE;
+	}
+	
+	/**
+	 * calculates the capacity of an extended storage. It grows by the multiplier, but at least to the required capacity
+	 * @param required the capacity required at least
+	 * @return the new capacity, at most maxCapacity()
+	 * @throws OutOfMemoryError if the required capacity is greater than maxCapacity()
+	 */
+	final int grownCapacity(long required) {
+		if (required > maxCapacity()) {
+			throw new OutOfMemoryError("At most " + maxCapacity() + " elements can be stored, required: " + required);
+		}
+		
+		return (int) Math.min(maxCapacity(), Math.max(required, (long) capacity() * multiplier));
+	}
+	
+	/**
+	 * 
+	 * @return the amount of elements, which can be stored by the current storage
+	 */
+	abstract int capacity();
+	
+	/**
+	 * stores an element without any further checks
+	 * @param arrayIndex the index in the storage
+	 * @param element the element
+	 */
+	abstract void put(int arrayIndex, E element);
+	
+	/**
+	 * copies elements from a storage to another one (or the same) like System.arraycopy, which
+	 * is used by default. The intervals may overlap.
+	 * @param src the storage to copy from
+	 * @param srcPos the first index copied
+	 * @param dst the storage to copy to
+	 * @param dstPos the index the first element is copied to
+	 * @param length the amount of elements copied
+	 */
+	void copy(A src, int srcPos, A dst, int dstPos, int length) {
+		System.arraycopy(src, srcPos, dst, dstPos, length);
+	}
+	
+	/**
+	 * decides, if multiple threads may copy disjoint intervals of the storages at once. This is true for
+	 * System.arraycopy, storages using shared buffers to copy must return false
+	 * @return if copies may run in parallel
+	 */
+	boolean copiesConcurrently() {
+		return true;
+	}
+	
+	/**
+	 * copies elements of an Object array to the storage
+	 * @param arrayIndex the index the first element is copied to
+	 * @param elements the elements
+	 */
+	void putAll(int arrayIndex, Object[] elements) {
+		for (int i = 0; i < elements.length; i++) {
+			@SuppressWarnings("unchecked")
+			E element = (E) elements[i];
+			put(arrayIndex + i, element);
+		}
+	}
+	
+	/**
+	 * sorts an interval of the storage. By default the elements are copied to an Object array and back,
+	 * storages able to sort themselves override this
+	 * @param start the first index sorted
+	 * @param end the index behind the last one sorted
+	 * @param c the comparator or null to use the natural order of the elements
+	 */
+	void sort(int start, int end, Comparator<? super E> c) {
+		Object[] elements = new Object[end - start];
+		copyOut(start, elements, 0, elements.length);
+		
+		@SuppressWarnings("unchecked")
+		Comparator<Object> comparator = (Comparator<Object>) c;
+		Arrays.sort(elements, comparator);
+		
+		putAll(start, elements);
+	}
+	
+	/**
+	 * copies elements of the storage to an Object array
+	 * @param arrayIndex the first index copied
+	 * @param a the array to copy to
+	 * @param index the index the first element is copied to
+	 * @param length the amount of elements copied
+	 */
+	void copyOut(int arrayIndex, Object[] a, int index, int length) {
+		for (int i = 0; i < length; i++) {
+			a[index + i] = getElement(arrayIndex + i);
+		}
+	}
+	
+	/**
+	 * frees a storage, which is not used anymore. Storages on the heap do not need to do anything,
+	 * as they are collected.
+	 * @param storage the storage
+	 */
+	void free(A storage) {
+	}
+	
+	/**
+	 * replaces the storage by a new one and frees the old one
+	 * @param ne the new storage
+	 */
+	private void replace(A ne) {
+		A old = array;
+		array = ne;
+		
+		if (old != ne) {
+			free(old);
+		}
+	}
+	
+	/**
+	 * writes a single element to a stream. Storages of primitive values write them without boxing
+	 * @param out the stream
+	 * @param arrayIndex the index in the storage
+	 * @throws IOException if the stream can not be written
+	 */
+	void writeElement(ObjectOutputStream out, int arrayIndex) throws IOException {
+		out.writeObject(getElement(arrayIndex));
+	}
+	
+	/**
+	 * reads a single element written by writeElement and stores it
+	 * @param in the stream
+	 * @param arrayIndex the index in the storage
+	 * @throws IOException if the stream can not be read
+	 * @throws ClassNotFoundException if the class of the element is not found
+	 */
+	@SuppressWarnings("unchecked")
+	void readElement(ObjectInputStream in, int arrayIndex) throws IOException, ClassNotFoundException {
+		put(arrayIndex, (E) in.readObject());
+	}
+	
+	/**
+	 * removes the references of the elements in the interval, so they can be collected.
+	 * Storages of primitive values do not need to do anything.
+	 * @param start the first index (inclusive)
+	 * @param end the last index (exclusive)
+	 */
+	void release(int start, int end) {
+	}
+	
+	/**
+	 * searches an Element in the given interval of the storage
+	 * @param o the Element
+	 * @param start the first arrayIndex (inclusive)
+	 * @param end the last arrayIndex (exclusive)
+	 * @return the first arrayIndex of the Element or -1
+	 */
+	abstract int indexOf(Object o, int start, int end);
+	
+	/**
+	 * searches an Element in the given interval of the storage backwards
+	 * @param o the Element
+	 * @param start the first arrayIndex (inclusive)
+	 * @param end the last arrayIndex (exclusive)
+	 * @return the last arrayIndex of the Element or -1
+	 */
+	abstract int lastIndexOf(Object o, int start, int end);
+
+	@Override
+	public E getElement(int listIndex, int gaps) {
+		return getElement(listIndex + gaps);
+	}
+	
+	private boolean increaseLengthAndExpandIfRequired(int arrayIndex) {
+		if (isOutside(arrayIndex)) {
+			extend(arrayIndex);
+			lastElementsIndex++;
+			
+			return true;
+		}
+		
+		lastElementsIndex++;
+		return false;
+	}
+	
+	/**
+	 * moves a gap to the given position, so an element can be added there
+	 * @param listIndex the listIndex of the new element
+	 * @param gaps The amount of gaps before the element
+	 * @return the arrayIndex of the new element
+	 */
+	final int moveGapTo(int listIndex, int gaps) {
+		int arrayIndex = listIndex + gaps;
+		
+		// if the arrayIndex is a gap, we do not need to move elements
+		// as the arrayIndex is the listIndex with all its gaps (including the gap where we would insert the element)
+		// we use arrayIndex - 1 instead. This, however, only works with arrayIndex != 0, as 0 - 1 = -1, which is the same
+		// as the root element
+		if (arrayIndex != 0 & this.gaps.contains(arrayIndex - 1)) {
+			this.gaps.remove();
+			return arrayIndex - 1;
+		}
+		
+		// if the insertion is to the last position of the Array, we dont need to move anything
+		if (arrayIndex >= lastElementsIndex) {
+			return increaseLengthAndExpandIfRequired(lastElementsIndex) ? listIndex : arrayIndex;
+		}
+		
+		// if there are no gaps, we need to move to the last Position in the array (and eventually expand)
+		if (this.gaps.size() == 0) {
+			boolean increased = increaseLengthAndExpandIfRequired(lastElementsIndex + 1);
+			
+			arrayIndex = increased ? listIndex : arrayIndex;
+			
+			copy(array, arrayIndex, array, arrayIndex + 1, lastElementsIndex - arrayIndex);
+			
+			return arrayIndex;
+		}
+		
+		if (this.gaps.getElement() == -1 || (this.gaps.hasNext() && this.gaps.previewNext() - arrayIndex <= arrayIndex - this.gaps.getElement())) {
+			// if there are gaps, but there is no previous gap, we move the elements to the next gap
+			// if the next gap is closer than the previous, we move the items forward
+			
+			copy(array, arrayIndex, array, arrayIndex + 1, this.gaps.previewNext() - arrayIndex);
+			this.gaps.next();
+		}else {
+			// if there is a previous gap and it is closer than the next gap, we move the items backwards
+			// as we resolved a gap in front of the arrayIndex, it decreases
+			arrayIndex--;
+			copy(array, this.gaps.getElement() + 1, array, this.gaps.getElement(), arrayIndex - this.gaps.getElement());
+		}
+		
+		this.gaps.remove();
+		
+		return arrayIndex;
+	}
+
+	@Override
+	public void addElement(int listIndex, int gaps, E element) {
+		// moves a gap to the given position
+		// when we extend the array, we remove all gaps. 
+		// Therefore the arrayIndex will be same as the listIndex
+		int arrayIndex = moveGapTo(listIndex, gaps);
+		
+		// add the element
+		put(arrayIndex, element);
+	}
+
+	@Override
+	public void addElements(int arrayIndex, Object[] elements) {
+		int added = elements.length;
+		
+		// moving the cursor to the last gap in front of the arrayIndex. All gaps behind it are consumed
+		gaps.toGapPosition(arrayIndex - 1);
+		int gapsBefore = gaps.getIndex() + 1;
+		int[] gapsBehind = new int[gaps.size() - gapsBefore];
+		for (int i = 0; i < gapsBehind.length; i++) {
+			gapsBehind[i] = gaps.next();
+		}
+		
+		int elementsBehind = lastElementsIndex - arrayIndex - gapsBehind.length;
+		
+		// if the array is too small, it is extended once. This removes all gaps
+		if (arrayIndex + added + elementsBehind > capacity()) {
+			A ne = allocate(grownCapacity((long) lastElementsIndex - gaps.size() + added));
+			copyWithoutGaps(array, ne);
+			replace(ne);
+			
+			arrayIndex -= gapsBefore;
+			copy(array, arrayIndex, array, arrayIndex + added, elementsBehind);
+		}else {
+			moveBehind(arrayIndex, added, gapsBehind);
+		}
+		
+		// the hole is opened, a single copy adds the elements
+		putAll(arrayIndex, elements);
+		lastElementsIndex = arrayIndex + added + elementsBehind;
+	}
+	
+	/**
+	 * moves all elements behind the arrayIndex, so they are stored without gaps behind a hole of the given size
+	 * @param arrayIndex the arrayIndex of the hole
+	 * @param hole the size of the hole
+	 * @param gapsBehind all gaps behind the arrayIndex in ascending order. They are removed
+	 */
+	private void moveBehind(int arrayIndex, int hole, int[] gapsBehind) {
+		// the elements between two gaps are moved together by hole - (the gaps in front of them).
+		// Segments moved backwards are moved from the front, segments moved forwards from the back,
+		// so no segment overwrites another one, which was not moved yet
+		int forwards = Math.min(hole, gapsBehind.length);
+		
+		for (int i = forwards; i <= gapsBehind.length; i++) {
+			int start = i == 0 ? arrayIndex : gapsBehind[i - 1] + 1;
+			int end = i == gapsBehind.length ? lastElementsIndex : gapsBehind[i];
+			copy(array, start, array, start + hole - i, end - start);
+		}
+		
+		for (int i = forwards - 1; i >= 0; i--) {
+			int start = i == 0 ? arrayIndex : gapsBehind[i - 1] + 1;
+			int end = gapsBehind[i];
+			copy(array, start, array, start + hole - i, end - start);
+		}
+		
+		// if the array got shorter, the old references must be removed
+		int end = lastElementsIndex + hole - gapsBehind.length;
+		if (end < lastElementsIndex) {
+			release(end, lastElementsIndex);
+		}
+		
+		for (int i = gapsBehind.length - 1; i >= 0; i--) {
+			gaps.remove(gapsBehind[i]);
+		}
+	}
+
+	@Override
+	public E setElement(int arrayIndex, E element) {
+		// if the arrayIndex of the new element is beyond the lastElementsIndex, 
+		// it is not supported to add an element to this position
+		if (arrayIndex > lastElementsIndex) {
+			throw new IndexOutOfBoundsException();
+		}
+		
+		// tests, if the arrayLength must be extended
+		if (isOutside(arrayIndex)) {
+			extend(arrayIndex);
+		}
+		
+		// actually setting the element
+		E old = getElement(arrayIndex);
+		put(arrayIndex, element);
+		
+		// if the Element extends the array by 1, increase the lastElementIndex
+		lastElementsIndex = lastElementsIndex == arrayIndex ? lastElementsIndex + 1 : lastElementsIndex;
+		
+		return old;
+	}
+
+	@Override
+	public E setElement(int listIndex, int gaps, E element) {
+		return setElement(listIndex + gaps, element);
+	}
+
+	@Override
+	public E removeElement(int arrayIndex) {
+		// the element must be read before adding the gap, as adding a gap may trigger a resort
+		E old = getElement(arrayIndex);
+		removeSlot(arrayIndex);
+		
+		return old;
+	}
+	
+	/**
+	 * turns the given position into a gap. The element must be read before, as adding a gap may trigger a resort
+	 * @param arrayIndex The index in this Array (not the List)
+	 */
+	final void removeSlot(int arrayIndex) {
+		gaps.add(arrayIndex);
+		
+		// if this gap was the last element, we can make the list smaller
+		while (lastElementsIndex > 0 && gaps.contains(lastElementsIndex - 1)) {
+			gaps.remove();
+			lastElementsIndex--;
+		}
+	}
+
+	@Override
+	public E removeElement(int listIndex, int gaps) {
+		return removeElement(listIndex + gaps);
+	}
+
+	@Override
+	public E removeElement(E element) {
+		for (int i = 0; i < lastElementsIndex; i++) {
+			if (element == getElement(i)) {
+				return removeElement(i);
+			}
+		}
+		
+		return null;
+	}
+
+	@Override
+	public void removeLastElement(E element) {
+		for (int i = lastElementsIndex - 1; i >= 0; i--) {
+			if (element == getElement(i)) {
+				removeElement(i);
+				
+				return;
+			}
+		}
+	}
+
+	@Override
+	public void removeAllElement(E element) {
+		for (int i = 0; i < lastElementsIndex; i++) {
+			if (element == getElement(i)) {
+				removeElement(i);
+			}
+		}
+	}
+
+	@Override
+	public void removeElements(int startArrayIndex, int endArrayIndex) {
+		if (startArrayIndex >= endArrayIndex) {
+			return;
+		}
+		
+		// the removed elements must not be referenced anymore
+		release(startArrayIndex, endArrayIndex);
+		
+		if (endArrayIndex < lastElementsIndex) {
+			// the interval is stored as a single range of gaps
+			gaps.addRange(startArrayIndex, endArrayIndex);
+			return;
+		}
+		
+		// if the interval reaches the last element, we can make the list smaller instead.
+		// The gaps in the interval and in front of it are not required anymore
+		lastElementsIndex = startArrayIndex;
+		gaps.toGapPosition(endArrayIndex - 1);
+		while (gaps.getElement() >= 0 && gaps.getElement() >= lastElementsIndex - 1) {
+			if (gaps.getElement() == lastElementsIndex - 1) {
+				lastElementsIndex--;
+			}
+			
+			gaps.remove();
+		}
+	}
+
+	@Override
+	public void removeElements(int startListIndex, int gapsBeforeStart, int endListIndex, int gapsInIntervall) {
+		removeElements(startListIndex + gapsBeforeStart, endListIndex + gapsBeforeStart + gapsInIntervall);
+	}
+
+	@Override
+	public long[] markElements(Predicate<? super E> filter) {
+		// the gaps are marked first, as they are dropped together with the removed elements.
+		// The filter may move the cursor of the gaps, so they are not read while testing
+		long[] marked = new long[(lastElementsIndex >> 6) + 1];
+		gaps.toRoot();
+		while (gaps.hasNext()) {
+			int gap = gaps.next();
+			marked[gap >> 6] |= 1L << gap;
+		}
+		
+		boolean matched = false;
+		for (int arrayIndex = 0; arrayIndex < lastElementsIndex; arrayIndex++) {
+			if ((marked[arrayIndex >> 6] & (1L << arrayIndex)) == 0 && filter.test(getElement(arrayIndex))) {
+				marked[arrayIndex >> 6] |= 1L << arrayIndex;
+				matched = true;
+			}
+		}
+		
+		return matched ? marked : null;
+	}
+	
+	@Override
+	public void removeMarked(long[] marked) {
+		// the kept elements are moved to the front of the array, a run of them at once
+		int write = 0;
+		int read = 0;
+		while (read < lastElementsIndex) {
+			int start = read;
+			while (read < lastElementsIndex && (marked[read >> 6] & (1L << read)) == 0) {
+				read++;
+			}
+			
+			copy(array, start, array, write, read - start);
+			write += read - start;
+			
+			// skip the marked element or gap
+			read++;
+		}
+		
+		// the removed elements must not be referenced anymore
+		release(write, lastElementsIndex);
+		lastElementsIndex = write;
+		gaps.clear();
+	}
+	
+	@Override
+	public boolean merge(int[] removed, int[] insertAt, Object[] inserted) {
+		int oldSize = lastElementsIndex - gaps.size();
+		int newSize = oldSize - removed.length + inserted.length;
+		
+		// the runs of elements between the gaps and edits and the runs of new elements are collected first.
+		// A run of new elements stores the index of its first element in inserted as -1 - index
+		int maxRuns = gaps.size() + removed.length + 2 * inserted.length + 1;
+		int[] from = new int[maxRuns];
+		int[] to = new int[maxRuns];
+		int[] lengths = new int[maxRuns];
+		int runs = 0;
+		
+		gaps.toRoot();
+		int nextGap = gaps.hasNext() ? gaps.next() : Integer.MAX_VALUE;
+		int arrayIndex = 0;
+		int listIndex = 0;
+		int write = 0;
+		int r = 0;
+		int i = 0;
+		
+		while (true) {
+			// the new elements are put in front of the element at the listIndex
+			int first = i;
+			while (i < insertAt.length && insertAt[i] == listIndex) {
+				i++;
+			}
+			if (i > first) {
+				from[runs] = -1 - first;
+				to[runs] = write;
+				lengths[runs++] = i - first;
+				write += i - first;
+			}
+			
+			if (listIndex == oldSize) {
+				break;
+			}
+			
+			while (arrayIndex == nextGap) {
+				arrayIndex++;
+				nextGap = gaps.hasNext() ? gaps.next() : Integer.MAX_VALUE;
+			}
+			
+			if (r < removed.length && removed[r] == listIndex) {
+				r++;
+				arrayIndex++;
+				listIndex++;
+				continue;
+			}
+			
+			// the elements until the next gap or edit are moved at once
+			int nextEdit = Math.min(r < removed.length ? removed[r] : oldSize, i < insertAt.length ? insertAt[i] : oldSize);
+			int run = Math.min(nextGap - arrayIndex, nextEdit - listIndex);
+			from[runs] = arrayIndex;
+			to[runs] = write;
+			lengths[runs++] = run;
+			
+			arrayIndex += run;
+			listIndex += run;
+			write += run;
+		}
+		
+		// the new storage is extended like by extend(), if the elements do not fit into the current capacity.
+		// Otherwise they are moved in place: the runs moving to the front are moved from the front to the back,
+		// afterwards the runs moving to the back from the back to the front. So no run overwrites elements,
+		// which were not moved yet
+		A old = array;
+		boolean inPlace = newSize <= capacity();
+		if (!inPlace) {
+			array = allocate(grownCapacity(newSize));
+		}
+		
+		for (int run = 0; run < runs; run++) {
+			if (from[run] >= 0 && (!inPlace || to[run] <= from[run])) {
+				copy(old, from[run], array, to[run], lengths[run]);
+			}
+		}
+		
+		for (int run = runs - 1; run >= 0; run--) {
+			if (from[run] < 0) {
+				for (int element = 0; element < lengths[run]; element++) {
+					@SuppressWarnings("unchecked")
+					E e = (E) inserted[-1 - from[run] + element];
+					put(to[run] + element, e);
+				}
+			}else if (inPlace && to[run] > from[run]) {
+				copy(old, from[run], array, to[run], lengths[run]);
+			}
+		}
+		
+		if (!inPlace) {
+			free(old);
+		}else if (newSize < lastElementsIndex) {
+			// the elements behind the new end must not be referenced anymore
+			release(newSize, lastElementsIndex);
+		}
+		lastElementsIndex = newSize;
+		gaps.clear();
+		
+		return true;
+	}
+	
+	@Override
+	public void sortElements(Comparator<? super E> c) {
+		if (gaps.size() != 0) {
+			throw new IllegalStateException("The array must be resorted before sorting the elements");
+		}
+		
+		sort(0, lastElementsIndex, c);
+	}
+	
+	@Override
+	public void resort() {
+		// sorting is same as copying all elements without gaps to the same array
+		copyWithoutGaps(array, array);
+	}
+
+	/**
+	 * calculates the length of the run of consecutive gaps starting at the first gap.
+	 * The run of the last resortStep is used as hint, so it usually does not need to be counted again.
+	 * Moves the cursor to the last gap of the run.
+	 * @param start the first gap
+	 * @return the amount of gaps in the run
+	 */
+	private int runLength(int start) {
+		int length = 1;
+		
+		// the last run is still valid, if all arrayIndexes of it are gaps
+		if (start == runStart) {
+			gaps.toGapPosition(start + runLength - 1);
+			
+			if (gaps.getIndex() == runLength - 1) {
+				length = runLength;
+			}else {
+				gaps.toRoot();
+				gaps.next();
+			}
+		}
+		
+		while (gaps.hasNext() && gaps.previewNext() == start + length) {
+			gaps.next();
+			length++;
+		}
+		
+		return length;
+	}
+	
+	@Override
+	public boolean resortStep(int budget) {
+		while (budget > 0 && gaps.size() != 0) {
+			// the first run of consecutive gaps and the elements behind it (until the next gap)
+			gaps.toRoot();
+			int start = gaps.next();
+			int length = runLength(start);
+			int end = start + length;
+			int segmentEnd = gaps.hasNext() ? gaps.previewNext() : lastElementsIndex;
+			int moved = Math.min(budget, segmentEnd - end);
+			
+			// the elements are moved in front of the run, therefore the run moves behind them.
+			// If the run is longer than the amount of elements moved, only a part of the gaps changes
+			copy(array, end, array, start, moved);
+			
+			for (int gap = start; gap < start + Math.min(moved, length); gap++) {
+				gaps.remove(gap);
+			}
+			for (int gap = Math.max(end, start + moved); gap < end + moved; gap++) {
+				gaps.add(gap);
+			}
+			
+			runStart = start + moved;
+			runLength = length;
+			budget -= moved;
+			
+			// if the run reached the end of the array, the gaps can be dropped
+			if (end + moved == lastElementsIndex) {
+				for (int gap = runStart; gap < lastElementsIndex; gap++) {
+					gaps.remove(gap);
+				}
+				release(runStart, lastElementsIndex);
+				
+				lastElementsIndex = runStart;
+				runStart = -1;
+			}
+		}
+		
+		return gaps.size() == 0;
+	}
+
+	@Override
+	public void setMultiplier(byte m) {
+		if (m < 2) {
+			throw new IllegalArgumentException("The multiplier must be greater than 1, actual: " + m);
+		}
+		
+		this.multiplier = m;
+	}
+	
+	@Override
+	public byte getMultiplier() {
+		return (byte) multiplier;
+	}
+	
+	private boolean isOutside(int arrayIndex) {
+		return arrayIndex >= capacity();
+	}
+	
+	/**
+	 * extends the array, so the arrayIndex fits into it
+	 * @param arrayIndex the arrayIndex that must be inside the array afterwards
+	 */
+	private void extend(int arrayIndex) {
+		// creating a new array with increased size. However, the size can only be maxCapacity() at maximum
+		// a small array (after trim() or deserialization) might not grow enough by the multiplier alone
+		A ne = allocate(grownCapacity(arrayIndex + 1L));
+		
+		// copy the old array to the new. We use this process to remove gaps
+		copyWithoutGaps(array, ne);
+		
+		// replace the old array by the new
+		replace(ne);
+	}
+	
+	@Override
+	public void trim() {
+		// creating a new array with the required size
+		A ne = allocate(lastElementsIndex - gaps.size());
+				
+		// copy the old array to the new. We use this process to remove gaps
+		copyWithoutGaps(array, ne);
+				
+		// replace the old array by the new
+		replace(ne);
+	}
+	
+	private void copyWithoutGaps(A old, A ne) {
+		// large arrays with multiple gaps are split into blocks, which are moved by multiple threads
+		if (lastElementsIndex >= parallelThreshold && gaps.size() > 1 && copiesConcurrently()) {
+			copyWithoutGapsInParallel(old, ne);
+			return;
+		}
+		
+		// moving the cursor to the first Position
+		gaps.toRoot();
+		
+		// we dont need to move anything, if there are no gaps and the new array is the same as the old one
+		if (old == ne && !gaps.hasNext()) {
+			return;
+		}
+		
+		// if the old object is the same as the first, we dont need to move the Elements before the first gap
+		int start, gapsSoFar;
+		if (old == ne) {
+			start = gaps.next() + 1;
+			gapsSoFar = 1;
+		}else {
+			start = 0;
+			gapsSoFar = 0;
+		}
+		
+		
+		// we need to move Elements as long as there are further gaps
+		while (gaps.hasNext()) {
+			int nextGap = gaps.next();
+			copy(old, start, ne, start - gapsSoFar, nextGap - start);
+			gapsSoFar++;
+			start = nextGap + 1;
+		}
+		
+		// There might be elements after the last gap, which need to be moved as well		
+		copy(old, start, ne, start - gapsSoFar, lastElementsIndex - start);
+		
+		lastElementsIndex -= gaps.size();
+		gaps.clear();
+	}
+
+	/**
+	 * copies the array without gaps like copyWithoutGaps, but the array is split into blocks of arrayIndexes,
+	 * which are moved in parallel by the common ForkJoinPool. The gaps in front of a block are counted
+	 * by a binary search, so every block knows where to move its elements.
+	 * 
+	 * When the array is resorted in place, the first elements of a block are moved into the previous block,
+	 * which may not have read them yet. Therefore they are put aside and moved after all blocks are finished.
+	 * All other elements stay inside their block, as the elements are only moved to the front.
+	 * @param old the storage to copy from
+	 * @param ne the storage to copy to (may be the same)
+	 */
+	private void copyWithoutGapsInParallel(A old, A ne) {
+		int[] gapIndexes = new int[gaps.size()];
+		gaps.toRoot();
+		for (int i = 0; gaps.hasNext(); i++) {
+			gapIndexes[i] = gaps.next();
+		}
+		
+		int blocks = (int) Math.max(1, Math.min(ForkJoinPool.getCommonPoolParallelism() * 4L, lastElementsIndex / Math.max(1, parallelThreshold >> 2)));
+		int[] starts = new int[blocks + 1];
+		int[] gapsBefore = new int[blocks + 1];
+		
+		for (int b = 0; b <= blocks; b++) {
+			starts[b] = (int) ((long) lastElementsIndex * b / blocks);
+			
+			// the position of the start in the gaps is the amount of gaps in front of it
+			int position = Arrays.binarySearch(gapIndexes, starts[b]);
+			gapsBefore[b] = position >= 0 ? position : -position - 1;
+		}
+		
+		List<A> heads = new ArrayList<>(Collections.nCopies(blocks, null));
+		IntStream.range(0, blocks).parallel().forEach(b -> heads.set(b, copyBlock(old, ne, gapIndexes,
+				starts[b], starts[b + 1], gapsBefore[b], gapsBefore[b + 1])));
+		
+		// the blocks are finished, so the elements put aside do not overwrite anything, which was not moved yet
+		for (int b = 0; b < blocks; b++) {
+			A head = heads.get(b);
+			
+			if (head != null) {
+				copy(head, 0, ne, starts[b] - gapsBefore[b], headLength(old, ne, starts[b], starts[b + 1], gapsBefore[b], gapsBefore[b + 1]));
+				free(head);
+			}
+		}
+		
+		lastElementsIndex -= gapIndexes.length;
+		gaps.clear();
+	}
+	
+	/**
+	 * 
+	 * @return the amount of elements of a block put aside by copyBlock
+	 */
+	private int headLength(A old, A ne, int start, int end, int firstGap, int endGap) {
+		// only a resort in place moves elements into the previous block
+		return old == ne ? Math.min(firstGap, end - start - (endGap - firstGap)) : 0;
+	}
+	
+	/**
+	 * moves the elements of a block of arrayIndexes to the front. Only the storage inside the block is changed
+	 * @param old the storage to copy from
+	 * @param ne the storage to copy to (may be the same)
+	 * @param gapIndexes all gaps in ascending order
+	 * @param start the first arrayIndex of the block
+	 * @param end the arrayIndex behind the block
+	 * @param firstGap the index of the first gap of the block in gapIndexes (the amount of gaps in front of it)
+	 * @param endGap the index of the first gap behind the block in gapIndexes
+	 * @return the elements moved into the previous block or null, if there are none
+	 */
+	private A copyBlock(A old, A ne, int[] gapIndexes, int start, int end, int firstGap, int endGap) {
+		int head = headLength(old, ne, start, end, firstGap, endGap);
+		A aside = head > 0 ? allocate(head) : null;
+		int target = start - firstGap;
+		int moved = 0;
+		int from = start;
+		
+		for (int g = firstGap; g <= endGap; g++) {
+			int to = g < endGap ? gapIndexes[g] : end;
+			int length = to - from;
+			int asideLength = Math.max(0, Math.min(length, head - moved));
+			
+			if (asideLength > 0) {
+				copy(old, from, aside, moved, asideLength);
+			}
+			
+			// elements in front of the first gap do not need to be moved in place
+			int dst = target + moved + asideLength;
+			if (length > asideLength && (old != ne || dst != from + asideLength)) {
+				copy(old, from + asideLength, ne, dst, length - asideLength);
+			}
+			
+			moved += length;
+			from = to + 1;
+		}
+		
+		return aside;
+	}
+
+	@Override
+	public int length() {
+		return lastElementsIndex;
+	}
+	
+	/**
+	 * sets the arrayIndex, where the last element is stored +1, when the storage was filled without this array
+	 * @param length the arrayIndex of the last element +1
+	 */
+	public final void setLength(int length) {
+		lastElementsIndex = length;
+	}
+	
+	/**
+	 * 
+	 * @return the gaps of this array
+	 */
+	public final GapInterface gaps() {
+		return gaps;
+	}
+	
+	/**
+	 * replaces the storage of an empty array, if it can not store the given amount of elements
+	 * @param count the amount of elements
+	 */
+	public final void reserve(int count) {
+		if (count > capacity()) {
+			replace(allocate(count));
+		}
+	}
+	
+	public void clear() {
+		release(0, lastElementsIndex);
+		lastElementsIndex = 0;
+	}
+
+	@Override
+	public int indexOf(Object o) {
+		// we search the intervals between the gaps. The gaps in front of an interval
+		// are the difference between the arrayIndex and the listIndex
+		gaps.toRoot();
+		int start = 0;
+		int gapsSoFar = 0;
+		
+		while (gaps.hasNext()) {
+			int gap = gaps.next();
+			int found = indexOf(o, start, gap);
+			
+			if (found >= 0) {
+				return found - gapsSoFar;
+			}
+			
+			gapsSoFar++;
+			start = gap + 1;
+		}
+		
+		int found = indexOf(o, start, lastElementsIndex);
+		return found >= 0 ? found - gapsSoFar : -1;
+	}
+	
+	@Override
+	public int lastIndexOf(Object o) {
+		// we search the intervals between the gaps from the last to the first one
+		gaps.toGapPosition(lastElementsIndex);
+		int end = lastElementsIndex;
+		
+		while (true) {
+			int gap = gaps.getElement();
+			int found = lastIndexOf(o, gap + 1, end);
+			
+			if (found >= 0) {
+				// the index of the gap in front of the interval + 1 is the amount of gaps in front of the interval
+				return found - gaps.getIndex() - 1;
+			}
+			
+			if (!gaps.hasPrevious()) {
+				return -1;
+			}
+			
+			end = gap;
+			gaps.previous();
+		}
+	}
+	
+	/**
+	 * copies all elements without gaps into a new storage. The array itself does not change
+	 * @return the new storage
+	 */
+	final A copyElements() {
+		A ne = allocate(lastElementsIndex - gaps.size());
+		
+		gaps.toRoot();
+		int start = 0;
+		int gapsSoFar = 0;
+		
+		while (gaps.hasNext()) {
+			int gap = gaps.next();
+			copy(array, start, ne, start - gapsSoFar, gap - start);
+			gapsSoFar++;
+			start = gap + 1;
+		}
+		
+		copy(array, start, ne, start - gapsSoFar, lastElementsIndex - start);
+		return ne;
+	}
+	
+	@Override
+	public void copy(Object[] a, int index) {
+		Objects.checkFromIndexSize(index, lastElementsIndex - gaps.size(), a.length);
+		
+		// the intervals between the gaps are copied, the array itself does not change
+		gaps.toRoot();
+		int start = 0;
+		int gapsSoFar = 0;
+		
+		while (gaps.hasNext()) {
+			int gap = gaps.next();
+			copyOut(start, a, index + start - gapsSoFar, gap - start);
+			gapsSoFar++;
+			start = gap + 1;
+		}
+		
+		copyOut(start, a, index + start - gapsSoFar, lastElementsIndex - start);
+	}
+	
+	@Override
+	public int peekIndexOf(Object o) {
+		int size = lastElementsIndex - gaps.size();
+		int listIndex = 0;
+		
+		while (listIndex < size) {
+			int start = gaps.size() == 0 ? listIndex : gaps.peekArrayIndex(listIndex);
+			int end = peekIntervalEnd(listIndex, start);
+			int found = indexOf(o, start, end);
+			
+			if (found >= 0) {
+				return listIndex + found - start;
+			}
+			
+			listIndex += end - start;
+		}
+		
+		return -1;
+	}
+	
+	@Override
+	public int peekLastIndexOf(Object o) {
+		int listIndex = lastElementsIndex - gaps.size() - 1;
+		
+		while (listIndex >= 0) {
+			int last = gaps.size() == 0 ? listIndex : gaps.peekArrayIndex(listIndex);
+			int start = peekIntervalStart(listIndex, last);
+			int found = lastIndexOf(o, start, last + 1);
+			
+			if (found >= 0) {
+				return listIndex - (last - found);
+			}
+			
+			listIndex -= last + 1 - start;
+		}
+		
+		return -1;
+	}
+	
+	@Override
+	public void peekCopy(Object[] a, int index) {
+		int size = lastElementsIndex - gaps.size();
+		Objects.checkFromIndexSize(index, size, a.length);
+		int listIndex = 0;
+		
+		while (listIndex < size) {
+			int start = gaps.size() == 0 ? listIndex : gaps.peekArrayIndex(listIndex);
+			int end = peekIntervalEnd(listIndex, start);
+			
+			copyOut(start, a, index + listIndex, end - start);
+			listIndex += end - start;
+		}
+	}
+	
+	/**
+	 * finds the end of the interval between two gaps, which contains the given element, without moving the cursor of the gaps.
+	 * All elements of the interval have the same amount of gaps in front of them, so the first element behind it is searched binary
+	 * @param listIndex the listIndex of the element
+	 * @param arrayIndex the arrayIndex of the element
+	 * @return the arrayIndex behind the last element of the interval
+	 */
+	private int peekIntervalEnd(int listIndex, int arrayIndex) {
+		int gapsBefore = arrayIndex - listIndex;
+		int low = listIndex + 1;
+		int high = lastElementsIndex - gaps.size();
+		
+		while (gaps.size() != 0 && low < high) {
+			int mid = (low + high) >>> 1;
+			
+			if (gaps.peekArrayIndex(mid) - mid == gapsBefore) {
+				low = mid + 1;
+			}else {
+				high = mid;
+			}
+		}
+		
+		return gaps.size() == 0 ? lastElementsIndex : low + gapsBefore;
+	}
+	
+	/**
+	 * finds the start of the interval between two gaps, which contains the given element, without moving the cursor of the gaps
+	 * @param listIndex the listIndex of the element
+	 * @param arrayIndex the arrayIndex of the element
+	 * @return the arrayIndex of the first element of the interval
+	 */
+	private int peekIntervalStart(int listIndex, int arrayIndex) {
+		int gapsBefore = arrayIndex - listIndex;
+		int low = 0;
+		int high = listIndex;
+		
+		while (gaps.size() != 0 && low < high) {
+			int mid = (low + high) >>> 1;
+			
+			if (gaps.peekArrayIndex(mid) - mid == gapsBefore) {
+				high = mid;
+			}else {
+				low = mid + 1;
+			}
+		}
+		
+		return gaps.size() == 0 ? 0 : low + gapsBefore;
+	}
+	
+	@Override
+	public void writeElements(ObjectOutputStream out) throws IOException {
+		// the elements between the gaps are written, the array itself does not change
+		gaps.toRoot();
+		int start = 0;
+		
+		while (gaps.hasNext()) {
+			int gap = gaps.next();
+			
+			for (int i = start; i < gap; i++) {
+				writeElement(out, i);
+			}
+			
+			start = gap + 1;
+		}
+		
+		for (int i = start; i < lastElementsIndex; i++) {
+			writeElement(out, i);
+		}
+	}
+	
+	@Override
+	public void readElements(ObjectInputStream in, int count) throws IOException, ClassNotFoundException {
+		if (count > capacity()) {
+			replace(allocate(count));
+		}
+		
+		for (int i = 0; i < count; i++) {
+			readElement(in, i);
+		}
+		
+		lastElementsIndex = count;
+	}
+	
+	@Override
+	public void copyFrom(ArrayInterface<E> source) {
+		@SuppressWarnings("unchecked")
+		AbstractCustomArray<E, A> other = (AbstractCustomArray<E, A>) source;
+		int count = other.lastElementsIndex - other.gaps.size();
+		
+		if (count > capacity()) {
+			replace(allocate(count));
+		}
+		
+		// the intervals between the gaps of the other array are copied to the front of this one
+		other.gaps.toRoot();
+		int start = 0;
+		int gapsSoFar = 0;
+		
+		while (other.gaps.hasNext()) {
+			int gap = other.gaps.next();
+			copy(other.array, start, array, start - gapsSoFar, gap - start);
+			gapsSoFar++;
+			start = gap + 1;
+		}
+		
+		copy(other.array, start, array, start - gapsSoFar, other.lastElementsIndex - start);
+		lastElementsIndex = count;
+	}
+}
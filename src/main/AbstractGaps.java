@@ -0,0 +1,58 @@
+package main;
+
+/**
+ * Base class of all gap implementations. It informs the list about added gaps,
+ * so the list can decide if a resort is required.
+ * @author RalfK
+ *
+ */
+abstract class AbstractGaps implements GapInterface {
+	/**
+	 * Informed when a gap was added, to test if a resort is required
+	 */
+	private Resortable onGapAdded;
+	
+	/**
+	 * Creates the base of a gap implementation
+	 * @param onGapAdded Informed when a gap was added, to test if a resort is required
+	 */
+	protected AbstractGaps(Resortable onGapAdded) {
+		this.onGapAdded = onGapAdded;
+	}
+	
+	/**
+	 * informs that a gap was added. This may trigger a resort
+	 */
+	protected void testResort() {
+		onGapAdded.resort();
+	}
+	
+	/**
+	 * searches the next gap without changing the gaps. However, the cursor will be moved.
+	 * @param arrayIndex the arrayIndex to start the search at
+	 * @return the smallest gap greater or equal to the given arrayIndex or Integer.MAX_VALUE, if there is none
+	 */
+	public int nextGap(int arrayIndex) {
+		toGapPosition(arrayIndex - 1);
+		return hasNext() ? previewNext() : Integer.MAX_VALUE;
+	}
+	
+	/**
+	 * searches the previous gap without changing the gaps. However, the cursor will be moved.
+	 * @param arrayIndex the arrayIndex to start the search at
+	 * @return the greatest gap smaller or equal to the given arrayIndex or -1, if there is none
+	 */
+	public int previousGap(int arrayIndex) {
+		if (arrayIndex < 0) {
+			return -1;
+		}
+		
+		toGapPosition(arrayIndex);
+		return getElement();
+	}
+	
+	@Override
+	public int getGapCount(int listIndex) {
+		return getArrayIndex(listIndex) - listIndex;
+	}
+}
@@ -0,0 +1,87 @@
+package main;
+
+import java.io.IOException;
+import java.nio.channels.ReadableByteChannel;
+import java.nio.channels.WritableByteChannel;
+import java.util.Objects;
+import java.util.function.Function;
+
+/**
+ * A MultiGappedList storing its elements in an array of primitive values. It behaves like a
+ * MultiGappedList of the boxed elements with the same gaps and resorts, but the elements are not boxed.
+ * Null is not supported, it is rejected before the list is changed.
+ * @author RalfK
+ *
+ * @param <E> The type of the boxed elements
+ * @param <A> The type of the array storing the elements
+ */
+abstract class AbstractMultiGappedPrimitiveList<E, A extends ArrayInterface<E> & ChannelArray> extends MultiGappedList<E> {
+	private static final long serialVersionUID = 3318154216373092582L;
+	
+	/**
+	 * Creates a list storing its elements in the array created by the given factory
+	 * @param resortPolicy Decides when the list gets resorted
+	 * @param gapStrategy Defines how the gaps are stored
+	 * @param arrayFactory creates the array using the given gaps
+	 */
+	AbstractMultiGappedPrimitiveList(ResortPolicy resortPolicy, GapStrategy gapStrategy, Function<GapInterface, ? extends A> arrayFactory) {
+		super(resortPolicy, gapStrategy, gaps -> arrayFactory.apply(gaps));
+	}
+	
+	/**
+	 *
+	 * @return the type of the elements in the ChannelFormat
+	 */
+	abstract int channelType();
+	
+	/**
+	 *
+	 * @return the array storing the elements
+	 */
+	@SuppressWarnings("unchecked")
+	final A elements() {
+		return (A) getArray();
+	}
+	
+	/**
+	 *
+	 * @return the array storing the elements, which is not shared with a snapshot and can be modified
+	 */
+	@SuppressWarnings("unchecked")
+	final A mutableElements() {
+		return (A) getMutableArray();
+	}
+	
+	/**
+	 * a primitive array can not store null. Unboxing it would fail after the slot was opened
+	 */
+	@Override
+	final void checkElement(Object element) {
+		Objects.requireNonNull(element, "Null is not supported");
+	}
+	
+	/**
+	 * writes the elements to a channel in a binary format: a versioned header followed by the elements
+	 * in little endian byte order. The elements are written from the array directly, without creating an
+	 * array of them first
+	 * @param channel the channel, which must be blocking
+	 * @throws IOException if the channel can not be written
+	 */
+	public void writeTo(WritableByteChannel channel) throws IOException {
+		ChannelFormat.writeHeader(channel, channelType(), size());
+		elements().writeTo(channel);
+	}
+	
+	/**
+	 * replaces the elements of the list by the ones read from a channel, which were written by writeTo
+	 * @param channel the channel, which must be blocking
+	 * @throws IOException if the channel can not be read or does not contain the elements of this type
+	 */
+	public void readFrom(ReadableByteChannel channel) throws IOException {
+		int count = ChannelFormat.readHeader(channel, channelType());
+		
+		clear();
+		elements().readFrom(channel, count);
+		resized(count);
+	}
+}
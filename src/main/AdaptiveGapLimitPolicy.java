@@ -0,0 +1,127 @@
+package main;
+
+/**
+ * Resorts the list, when it contains more than a gap limit, which adapts to the workload.
+ * The policy samples the reads and modifications in windows. If a window was
+ * dominated by modifications, more gaps are supported, as gaps make adding and removing cheaper.
+ * If it was dominated by reads, less gaps are supported, as gaps make reading more expensive.
+ * The limit always stays within the given bounds. Adding or removing an element at an index is
+ * only counted as a modification, not as a read.
+ * @author RalfK
+ *
+ */
+public final class AdaptiveGapLimitPolicy implements ResortPolicy {
+	private static final long serialVersionUID = 5809085595763522657L;
+	
+	/**
+	 * The amount of reads and modifications per window
+	 */
+	private static final int WINDOW = 1024;
+
+	/**
+	 * One kind of access dominates a window, if it was used this many times more often than the other
+	 */
+	private static final int DOMINANCE = 2;
+
+	/**
+	 * The smallest gap limit chosen
+	 */
+	private final int minGaps;
+
+	/**
+	 * The greatest gap limit chosen
+	 */
+	private final int maxGaps;
+
+	/**
+	 * The current gap limit
+	 */
+	private int gapLimit;
+
+	/**
+	 * The reads in the current window
+	 */
+	private int reads;
+
+	/**
+	 * The modifications in the current window
+	 */
+	private int modifications;
+
+	/**
+	 * Creates a policy starting at the default gap limit (limited by the given bounds)
+	 * @param minGaps The smallest gap limit chosen. Only accepts positive values.
+	 * @param maxGaps The greatest gap limit chosen. Must not be smaller than minGaps.
+	 */
+	public AdaptiveGapLimitPolicy(int minGaps, int maxGaps) {
+		if (minGaps <= 0 || maxGaps < minGaps) {
+			throw new IllegalArgumentException("Invalid bounds: " + minGaps + " - " + maxGaps);
+		}
+
+		this.minGaps = minGaps;
+		this.maxGaps = maxGaps;
+		this.gapLimit = Math.max(minGaps, Math.min(maxGaps, MultiGappedList.DEFAULT_GAPS_SUPPORTED));
+	}
+
+	@Override
+	public boolean isResortRequired(int size, int gaps) {
+		return gaps > gapLimit;
+	}
+
+	@Override
+	public void onRead(int count) {
+		// a bulk read may be larger than the window
+		reads = (int) Math.min(Integer.MAX_VALUE, (long) reads + count);
+		testWindow();
+	}
+
+	@Override
+	public void onModification() {
+		modifications++;
+		testWindow();
+	}
+
+	/**
+	 * adapts the gap limit, when the current window is full
+	 */
+	private void testWindow() {
+		if (reads + modifications < WINDOW) {
+			return;
+		}
+
+		if (modifications > reads * DOMINANCE) {
+			// write heavy, the limit may be doubled
+			gapLimit = (int) Math.min(maxGaps, gapLimit * 2L);
+		}else if (reads > modifications * DOMINANCE) {
+			// read heavy, the limit is halved
+			gapLimit = Math.max(minGaps, gapLimit / 2);
+		}
+
+		reads = 0;
+		modifications = 0;
+	}
+
+	/**
+	 *
+	 * @return the gap limit currently chosen
+	 */
+	public int getGapLimit() {
+		return gapLimit;
+	}
+
+	/**
+	 *
+	 * @return the smallest gap limit chosen
+	 */
+	public int getMinGaps() {
+		return minGaps;
+	}
+
+	/**
+	 *
+	 * @return the greatest gap limit chosen
+	 */
+	public int getMaxGaps() {
+		return maxGaps;
+	}
+}
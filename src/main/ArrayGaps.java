@@ -0,0 +1,296 @@
+package main;
+
+import java.util.Arrays;
+import java.util.NoSuchElementException;
+
+/**
+ * Stores the gaps sorted in a primitive int array. The cursor is an index in this array.
+ * There are no Nodes and no boxed Integers, therefore neither reading nor adding or removing
+ * a gap allocates memory (except when the array needs to grow, which only happens, until
+ * the array fits the gap limit). Translating a listIndex to an arrayIndex is a binary search
+ * and needs O(log gaps).
+ * @author RalfK
+ *
+ */
+final class ArrayGaps extends AbstractGaps {
+	/**
+	 * The initial length of the array storing the gaps
+	 */
+	private static final int DEFAULT_CAPACITY = 16;
+
+	/**
+	 * The gaps in ascending order. Only the first size values are valid.
+	 */
+	private int[] gaps;
+
+	/**
+	 * The amount of gaps stored
+	 */
+	private int size;
+
+	/**
+	 * The index of the cursor (-1 is the root position, like in the CustomLinkedList)
+	 */
+	private int cursor;
+
+	/**
+	 * Creates an Object of ArrayGaps to store the indexes of gaps
+	 * @param onGapAdded Informed when a gap was added, to test if a resort is required
+	 */
+	public ArrayGaps(Resortable onGapAdded) {
+		super(onGapAdded);
+		this.gaps = new int[DEFAULT_CAPACITY];
+		this.size = 0;
+		this.cursor = -1;
+	}
+
+	/**
+	 * searches the index of the greatest gap smaller or equal to the given gap
+	 * @param gap the gap
+	 * @return the index or -1, if all gaps are greater
+	 */
+	private int floorIndex(int gap) {
+		int low = 0;
+		int high = size - 1;
+
+		while (low <= high) {
+			int mid = (low + high) >>> 1;
+
+			if (gaps[mid] <= gap) {
+				low = mid + 1;
+			}else {
+				high = mid - 1;
+			}
+		}
+
+		return high;
+	}
+
+	/**
+	 * 
+	 * @param index the index of a gap or -1 for the root
+	 * @return the amount of elements in front of the gap
+	 */
+	private int elementsBefore(int index) {
+		return index < 0 ? 0 : gaps[index] - index;
+	}
+
+	@Override
+	public int getArrayIndex(int listIndex) {
+		// gaps[i] - i is the amount of elements in front of the gap i. This value never decreases,
+		// therefore we can search the last gap in front of the element binary.
+		// Consecutive accesses are usually close to each other, so we start at the cursor (the last
+		// position translated or modified) and double the distance until the element is enclosed
+		int low, high, step = 1;
+
+		if (elementsBefore(cursor) <= listIndex) {
+			low = cursor + 1;
+			high = cursor + 1;
+			while (high < size && gaps[high] - high <= listIndex) {
+				low = high + 1;
+				high += step;
+				step <<= 1;
+			}
+			high = Math.min(high, size) - 1;
+		}else {
+			low = cursor;
+			high = cursor - 1;
+			while (low > 0 && gaps[low - 1] - (low - 1) > listIndex) {
+				high = low - 2;
+				low -= step;
+				step <<= 1;
+			}
+			low = Math.max(low, 0);
+		}
+
+		while (low <= high) {
+			int mid = (low + high) >>> 1;
+
+			if (gaps[mid] - mid <= listIndex) {
+				low = mid + 1;
+			}else {
+				high = mid - 1;
+			}
+		}
+
+		// low is the amount of gaps in front of the element, the cursor moves to the last of them
+		cursor = low - 1;
+		return listIndex + low;
+	}
+
+	@Override
+	public int peekArrayIndex(int listIndex) {
+		// the same binary search, but over all gaps instead of starting at the cursor
+		int low = 0;
+		int high = size - 1;
+
+		while (low <= high) {
+			int mid = (low + high) >>> 1;
+
+			if (gaps[mid] - mid <= listIndex) {
+				low = mid + 1;
+			}else {
+				high = mid - 1;
+			}
+		}
+
+		return listIndex + low;
+	}
+
+	@Override
+	public void toGapPosition(int gap) {
+		cursor = floorIndex(gap);
+	}
+
+	@Override
+	public int getElement() {
+		return cursor < 0 ? -1 : gaps[cursor];
+	}
+
+	@Override
+	public void add(int gap) {
+		// moves the cursor to the position where the element would be added
+		toGapPosition(gap);
+
+		// if the element is already contained, do nothing
+		if (gap == getElement()) {
+			return;
+		}
+
+		if (size == gaps.length) {
+			gaps = Arrays.copyOf(gaps, gaps.length * 2);
+		}
+
+		// add the gap behind the cursor. The cursor stays at the previous gap
+		System.arraycopy(gaps, cursor + 1, gaps, cursor + 2, size - cursor - 1);
+		gaps[cursor + 1] = gap;
+		size++;
+
+		// inform the list, it may trigger a resort
+		testResort();
+	}
+
+	@Override
+	public void addRange(int start, int end) {
+		if (start >= end) {
+			return;
+		}
+		
+		// the gaps already contained in the interval are replaced by the whole interval
+		int first = floorIndex(start - 1) + 1;
+		int last = floorIndex(end - 1) + 1;
+		int added = end - start - (last - first);
+		
+		if (size + added > gaps.length) {
+			gaps = Arrays.copyOf(gaps, Math.max(gaps.length * 2, size + added));
+		}
+		
+		System.arraycopy(gaps, last, gaps, first + end - start, size - last);
+		for (int i = 0; i < end - start; i++) {
+			gaps[first + i] = start + i;
+		}
+		size += added;
+		
+		// the cursor moves to the last gap of the interval
+		cursor = first + end - start - 1;
+		
+		// inform the list once, it may trigger a resort
+		if (added != 0) {
+			testResort();
+		}
+	}
+
+	@Override
+	public void remove(int gap) {
+		toGapPosition(gap);
+		if (getElement() == gap) {
+			remove();
+		}
+	}
+
+	@Override
+	public void remove() {
+		if (cursor < 0) {
+			return;
+		}
+
+		// the cursor moves to the previous gap
+		System.arraycopy(gaps, cursor + 1, gaps, cursor, size - cursor - 1);
+		size--;
+		cursor--;
+	}
+
+	@Override
+	public int getIndex() {
+		return cursor;
+	}
+
+	@Override
+	public boolean hasNext() {
+		return cursor + 1 < size;
+	}
+
+	@Override
+	public int next() {
+		if (!hasNext()) {
+			throw new NoSuchElementException();
+		}
+
+		return gaps[++cursor];
+	}
+
+	@Override
+	public boolean hasPrevious() {
+		return cursor >= 0;
+	}
+
+	@Override
+	public int previous() {
+		if (!hasPrevious()) {
+			throw new NoSuchElementException();
+		}
+
+		cursor--;
+		return getElement();
+	}
+
+	@Override
+	public void toRoot() {
+		cursor = -1;
+	}
+
+	@Override
+	public int size() {
+		return size;
+	}
+
+	@Override
+	public void clear() {
+		size = 0;
+		cursor = -1;
+	}
+
+	@Override
+	public boolean contains(int gap) {
+		toGapPosition(gap);
+		return getElement() == gap;
+	}
+
+	@Override
+	public int previewNext() {
+		if (!hasNext()) {
+			throw new NoSuchElementException();
+		}
+
+		return gaps[cursor + 1];
+	}
+
+	@Override
+	public int previewPrevious() {
+		if (!hasPrevious()) {
+			throw new NoSuchElementException();
+		}
+
+		return cursor == 0 ? -1 : gaps[cursor - 1];
+	}
+}
@@ -1,5 +1,11 @@
 package main;
 
+import java.io.IOException;
+import java.io.ObjectInputStream;
+import java.io.ObjectOutputStream;
+import java.util.Comparator;
+import java.util.function.Predicate;
+
 /**
  * This array should store the elements of a list with gaps
  * @author RalfK
@@ -30,6 +36,13 @@ interface ArrayInterface<E> extends Resortable{
 	 */
 	void addElement(int listIndex, int gaps, E element);
 	
+	/**
+	 * adds multiple Elements at once. All gaps behind the position are consumed
+	 * @param arrayIndex The index in this Array directly behind the element in front of the new elements
+	 * @param elements the Elements
+	 */
+	void addElements(int arrayIndex, Object[] elements);
+	
 	/**
 	 * sets an Element to the given position
 	 * @param arrayIndex The index in this Array (not the List)
@@ -92,11 +105,50 @@ interface ArrayInterface<E> extends Resortable{
 	 */
 	void removeElements(int startListIndex, int gapsBeforeStart, int endListIndex, int gapsInIntervall);
 	
+	/**
+	 * Tests all Elements with the filter, without changing the array. Therefore the filter may read the list.
+	 * @param filter returns true for the Elements to be removed
+	 * @return a bitmap of the arrayIndexes of the matching Elements and the gaps, or null if no Element matches
+	 */
+	long[] markElements(Predicate<? super E> filter);
+	
+	/**
+	 * Removes the Elements and gaps marked by markElements in a single pass.
+	 * @param marked the bitmap returned by markElements
+	 */
+	void removeMarked(long[] marked);
+	
+	/**
+	 * Removes and inserts multiple Elements in a single pass. All Elements are moved without gaps, in place if
+	 * they fit into the storage, otherwise into a new one. Every Element is moved at most once. All indexes refer
+	 * to the listIndexes before the merge
+	 * @param removed the listIndexes of the removed Elements in ascending order
+	 * @param insertAt the listIndexes, in front of which the new Elements are inserted, in ascending order
+	 * (the size of the list to append them)
+	 * @param inserted the new Elements in the order of insertAt
+	 * @return false, if the array can not be merged. Then nothing was changed
+	 */
+	boolean merge(int[] removed, int[] insertAt, Object[] inserted);
+	
+	/**
+	 * Sorts the Elements of the array, which must not contain gaps
+	 * @param c the comparator or null to use the natural order of the Elements
+	 */
+	void sortElements(Comparator<? super E> c);
+	
 	/**
 	 * Trims the array to its actual size to save storage
 	 */
 	void trim();
 	
+	/**
+	 * Does a part of a resort. The first gaps are moved behind the next elements, until they
+	 * reach the end of the array and can be dropped. The array is consistent after every step.
+	 * @param budget the maximum amount of elements to be moved
+	 * @return if the array does not contain gaps anymore
+	 */
+	boolean resortStep(int budget);
+	
 	/**
 	 * when the array gets extended, what is the multiplier?
 	 * oldSize * multiplier = new size
@@ -109,6 +161,12 @@ interface ArrayInterface<E> extends Resortable{
 	 */
 	void setMultiplier(byte m);
 	
+	/**
+	 * 
+	 * @return the multiplier used to extend the array
+	 */
+	byte getMultiplier();
+	
 	/**
 	 * returns the last Element in the Array +1 (NOT THE LENGTH OF THE ARRAY)
 	 * @return the lastElementIndex
@@ -121,7 +179,69 @@ interface ArrayInterface<E> extends Resortable{
 	void clear();
 	
 	/**
-	 * must copy the array. If the array still contains gaps, skip them
+	 * copies all Elements into the given array, skipping the gaps. The arrangement of the array does not change
+	 * @param a the array to copy to
+	 * @param index the index the first Element is copied to
+	 */
+	void copy(Object[] a, int index);
+	
+	/**
+	 * searches the first appearance of an Element, skipping the gaps
+	 * @param o the Element
+	 * @return the listIndex of the Element or -1, if it is not contained
+	 */
+	int indexOf(Object o);
+	
+	/**
+	 * searches the last appearance of an Element, skipping the gaps
+	 * @param o the Element
+	 * @return the listIndex of the Element or -1, if it is not contained
+	 */
+	int lastIndexOf(Object o);
+	
+	/**
+	 * searches the first appearance of an Element like indexOf, but without moving the cursor of the gaps.
+	 * Multiple threads may search at once, while the array is not modified
+	 * @param o the Element
+	 * @return the listIndex of the Element or -1, if it is not contained
+	 */
+	int peekIndexOf(Object o);
+	
+	/**
+	 * searches the last appearance of an Element like lastIndexOf, but without moving the cursor of the gaps
+	 * @param o the Element
+	 * @return the listIndex of the Element or -1, if it is not contained
+	 */
+	int peekLastIndexOf(Object o);
+	
+	/**
+	 * copies all Elements like copy, but without moving the cursor of the gaps
+	 * @param a the array to copy to
+	 * @param index the index the first element is copied to
+	 * @throws IndexOutOfBoundsException if the elements do not fit into the array behind the index
+	 */
+	void peekCopy(Object[] a, int index);
+	
+	/**
+	 * writes all Elements to a stream, skipping the gaps
+	 * @param out the stream
+	 * @throws IOException if the stream can not be written
+	 */
+	void writeElements(ObjectOutputStream out) throws IOException;
+	
+	/**
+	 * reads Elements written by writeElements into an empty array. The array is extended, if it is too small
+	 * @param in the stream
+	 * @param count the amount of Elements
+	 * @throws IOException if the stream can not be read
+	 * @throws ClassNotFoundException if the class of an Element is not found
+	 */
+	void readElements(ObjectInputStream in, int count) throws IOException, ClassNotFoundException;
+	
+	/**
+	 * copies all Elements of another array of the same type into this empty array, skipping the gaps.
+	 * The other array does not change (except the cursor of its gaps)
+	 * @param source the other array
 	 */
-	void copy(Object[] a);
+	void copyFrom(ArrayInterface<E> source);
 }
@@ -0,0 +1,447 @@
+package main;
+
+import java.util.Arrays;
+import java.util.NoSuchElementException;
+
+/**
+ * Stores the gaps as a bitmap over the slots of the array. Every slot needs a single bit,
+ * which is set, if the slot is a gap. The bits are grouped into blocks of 512 slots and
+ * the amount of gaps per block is stored in a Fenwick tree. Therefore the rank of a slot
+ * (the gaps in front of it) and the arrayIndex of a listIndex are found in O(log blocks)
+ * plus a few popcounts, independent of the amount of gaps.
+ * Use this implementation, if a lot of elements are removed.
+ * @author RalfK
+ *
+ */
+final class BitmapGaps extends AbstractGaps {
+	/**
+	 * The amount of words (longs) per block
+	 */
+	private static final int WORDS_PER_BLOCK = 8;
+
+	/**
+	 * log2 of the amount of slots per block
+	 */
+	private static final int BLOCK_SHIFT = 9;
+
+	/**
+	 * The amount of slots per block
+	 */
+	private static final int BLOCK_SLOTS = 1 << BLOCK_SHIFT;
+
+	/**
+	 * The bitmap. The bit i of words[j] is set, if the slot j * 64 + i is a gap.
+	 */
+	private long[] words;
+
+	/**
+	 * The Fenwick tree of the amount of gaps per block (the index 0 is unused)
+	 */
+	private int[] tree;
+
+	/**
+	 * The amount of gaps stored
+	 */
+	private int size;
+
+	/**
+	 * The index of the cursor (-1 is the root position, like in the CustomLinkedList)
+	 */
+	private int cursorIndex;
+
+	/**
+	 * The gap the cursor is currently at (-1 is the root position)
+	 */
+	private int cursorValue;
+
+	/**
+	 * Creates an Object of BitmapGaps to store the indexes of gaps
+	 * @param onGapAdded Informed when a gap was added, to test if a resort is required
+	 */
+	public BitmapGaps(Resortable onGapAdded) {
+		super(onGapAdded);
+		this.words = new long[WORDS_PER_BLOCK];
+		this.tree = new int[2];
+		this.size = 0;
+		toRoot();
+	}
+
+	private int blocks() {
+		return tree.length - 1;
+	}
+
+	/**
+	 * extends the bitmap, so it is able to store the given gap
+	 * @param gap the gap to be stored
+	 */
+	private void ensureCapacity(int gap) {
+		int requiredBlocks = (gap >>> BLOCK_SHIFT) + 1;
+
+		if (requiredBlocks <= blocks()) {
+			return;
+		}
+
+		int blocks = Math.max(requiredBlocks, blocks() * 2);
+		words = Arrays.copyOf(words, blocks * WORDS_PER_BLOCK);
+
+		// rebuilding the Fenwick tree in linear time
+		tree = new int[blocks + 1];
+		for (int block = 0; block < blocks; block++) {
+			for (int word = block * WORDS_PER_BLOCK; word < (block + 1) * WORDS_PER_BLOCK; word++) {
+				tree[block + 1] += Long.bitCount(words[word]);
+			}
+		}
+		for (int i = 1; i <= blocks; i++) {
+			int parent = i + (i & -i);
+			if (parent <= blocks) {
+				tree[parent] += tree[i];
+			}
+		}
+	}
+
+	/**
+	 * changes the amount of gaps of a block
+	 * @param block the block
+	 * @param delta the change
+	 */
+	private void updateBlock(int block, int delta) {
+		for (int i = block + 1; i <= blocks(); i += i & -i) {
+			tree[i] += delta;
+		}
+	}
+
+	/**
+	 *
+	 * @param block the block
+	 * @return the amount of gaps in all blocks in front of the given block
+	 */
+	private int gapsBeforeBlock(int block) {
+		int gaps = 0;
+
+		for (int i = block; i > 0; i -= i & -i) {
+			gaps += tree[i];
+		}
+
+		return gaps;
+	}
+
+	/**
+	 *
+	 * @param arrayIndex the arrayIndex
+	 * @return the amount of gaps smaller than the given arrayIndex
+	 */
+	private int gapsBefore(int arrayIndex) {
+		if (arrayIndex <= 0) {
+			return 0;
+		}
+
+		if (arrayIndex >= blocks() << BLOCK_SHIFT) {
+			return size;
+		}
+
+		int word = arrayIndex >>> 6;
+		int gaps = gapsBeforeBlock(arrayIndex >>> BLOCK_SHIFT);
+
+		for (int i = word & -WORDS_PER_BLOCK; i < word; i++) {
+			gaps += Long.bitCount(words[i]);
+		}
+
+		return gaps + Long.bitCount(words[word] & ((1L << arrayIndex) - 1));
+	}
+
+	/**
+	 * returns the position of a set bit in a word
+	 * @param word the word
+	 * @param n the index of the bit (0 is the lowest set bit)
+	 * @return the position of the bit in the word
+	 */
+	private static int selectInWord(long word, int n) {
+		for (int i = 0; i < n; i++) {
+			word &= word - 1;
+		}
+
+		return Long.numberOfTrailingZeros(word);
+	}
+
+	/**
+	 * returns the gap with the given index
+	 * @param index the index of the gap (0 is the smallest gap)
+	 * @return the gap
+	 */
+	private int select(int index) {
+		// searching the block by descending the Fenwick tree
+		int block = 0;
+		for (int step = Integer.highestOneBit(blocks()); step > 0; step >>>= 1) {
+			if (block + step <= blocks() && tree[block + step] <= index) {
+				block += step;
+				index -= tree[block];
+			}
+		}
+
+		// searching the word in the block
+		int word = block * WORDS_PER_BLOCK;
+		while (Long.bitCount(words[word]) <= index) {
+			index -= Long.bitCount(words[word]);
+			word++;
+		}
+
+		return (word << 6) + selectInWord(words[word], index);
+	}
+
+	/**
+	 *
+	 * @param arrayIndex the arrayIndex
+	 * @return the smallest gap greater than the given arrayIndex in the same word or -1
+	 */
+	private int nextInWord(int arrayIndex) {
+		int word = arrayIndex >>> 6;
+		int bit = arrayIndex & 63;
+
+		if (bit == 63 || word >= words.length) {
+			return -1;
+		}
+
+		long rest = words[word] & (-1L << (bit + 1));
+		return rest == 0 ? -1 : (word << 6) + Long.numberOfTrailingZeros(rest);
+	}
+
+	/**
+	 *
+	 * @param arrayIndex the arrayIndex
+	 * @return the greatest gap smaller than the given arrayIndex in the same word or -1
+	 */
+	private int previousInWord(int arrayIndex) {
+		int word = arrayIndex >>> 6;
+		long rest = words[word] & ((1L << arrayIndex) - 1);
+
+		return rest == 0 ? -1 : (word << 6) + 63 - Long.numberOfLeadingZeros(rest);
+	}
+
+	private boolean isGap(int arrayIndex) {
+		return arrayIndex >= 0 && arrayIndex >>> 6 < words.length && (words[arrayIndex >>> 6] & (1L << arrayIndex)) != 0;
+	}
+
+	@Override
+	public int getArrayIndex(int listIndex) {
+		// the translation does not need the cursor
+		return peekArrayIndex(listIndex);
+	}
+
+	@Override
+	public int peekArrayIndex(int listIndex) {
+		// searching the block by descending the Fenwick tree. A block contains BLOCK_SLOTS - gaps elements
+		int block = 0;
+		int remaining = listIndex;
+		for (int step = Integer.highestOneBit(blocks()); step > 0; step >>>= 1) {
+			if (block + step <= blocks()) {
+				int elements = (step << BLOCK_SHIFT) - tree[block + step];
+
+				if (elements <= remaining) {
+					block += step;
+					remaining -= elements;
+				}
+			}
+		}
+
+		// the element is behind the bitmap, therefore all gaps are in front of it
+		if (block == blocks()) {
+			return listIndex + size;
+		}
+
+		// searching the word in the block
+		int word = block * WORDS_PER_BLOCK;
+		while (64 - Long.bitCount(words[word]) <= remaining) {
+			remaining -= 64 - Long.bitCount(words[word]);
+			word++;
+		}
+
+		// the elements are the bits, which are not set
+		return (word << 6) + selectInWord(~words[word], remaining);
+	}
+
+	@Override
+	public void toGapPosition(int gap) {
+		if (gap < 0) {
+			toRoot();
+			return;
+		}
+
+		cursorIndex = gapsBefore(gap + 1) - 1;
+
+		if (cursorIndex < 0) {
+			cursorValue = -1;
+		}else if (isGap(gap)) {
+			cursorValue = gap;
+		}else if (gap >>> 6 < words.length && previousInWord(gap) >= 0) {
+			cursorValue = previousInWord(gap);
+		}else {
+			cursorValue = select(cursorIndex);
+		}
+	}
+
+	@Override
+	public int getElement() {
+		return cursorValue;
+	}
+
+	@Override
+	public void add(int gap) {
+		// moves the cursor to the position where the element would be added
+		toGapPosition(gap);
+
+		// if the element is already contained, do nothing
+		if (gap == cursorValue) {
+			return;
+		}
+
+		// add the gap. The cursor stays at the previous gap
+		ensureCapacity(gap);
+		words[gap >>> 6] |= 1L << gap;
+		updateBlock(gap >>> BLOCK_SHIFT, 1);
+		size++;
+
+		// inform the list, it may trigger a resort
+		testResort();
+	}
+
+	@Override
+	public void addRange(int start, int end) {
+		if (start >= end) {
+			return;
+		}
+		
+		ensureCapacity(end - 1);
+		
+		// setting whole words at once. The new gaps of a block are counted, so the Fenwick tree is updated once per block
+		int added = 0;
+		int blockAdded = 0;
+		for (int word = start >>> 6; word <= (end - 1) >>> 6; word++) {
+			int from = Math.max(start, word << 6);
+			int to = Math.min(end, (word + 1) << 6);
+			long mask = (-1L >>> (64 - (to - from))) << from;
+			
+			blockAdded += Long.bitCount(mask & ~words[word]);
+			words[word] |= mask;
+			
+			if (word % WORDS_PER_BLOCK == WORDS_PER_BLOCK - 1 || word == (end - 1) >>> 6) {
+				updateBlock(word / WORDS_PER_BLOCK, blockAdded);
+				added += blockAdded;
+				blockAdded = 0;
+			}
+		}
+		size += added;
+		
+		// the cursor moves to the last gap of the interval
+		toGapPosition(end - 1);
+		
+		// inform the list once, it may trigger a resort
+		if (added != 0) {
+			testResort();
+		}
+	}
+
+	@Override
+	public void remove(int gap) {
+		toGapPosition(gap);
+		if (cursorValue == gap) {
+			remove();
+		}
+	}
+
+	@Override
+	public void remove() {
+		if (cursorIndex < 0) {
+			return;
+		}
+
+		int gap = cursorValue;
+		words[gap >>> 6] &= ~(1L << gap);
+		updateBlock(gap >>> BLOCK_SHIFT, -1);
+		size--;
+
+		// the cursor moves to the previous gap
+		previous();
+	}
+
+	@Override
+	public int getIndex() {
+		return cursorIndex;
+	}
+
+	@Override
+	public boolean hasNext() {
+		return cursorIndex + 1 < size;
+	}
+
+	@Override
+	public int next() {
+		cursorValue = previewNext();
+		cursorIndex++;
+
+		return cursorValue;
+	}
+
+	@Override
+	public boolean hasPrevious() {
+		return cursorIndex >= 0;
+	}
+
+	@Override
+	public int previous() {
+		cursorValue = previewPrevious();
+		cursorIndex--;
+
+		return cursorValue;
+	}
+
+	@Override
+	public void toRoot() {
+		cursorIndex = -1;
+		cursorValue = -1;
+	}
+
+	@Override
+	public int size() {
+		return size;
+	}
+
+	@Override
+	public void clear() {
+		Arrays.fill(words, 0);
+		Arrays.fill(tree, 0);
+		size = 0;
+		toRoot();
+	}
+
+	@Override
+	public boolean contains(int gap) {
+		toGapPosition(gap);
+		return cursorValue == gap;
+	}
+
+	@Override
+	public int previewNext() {
+		if (!hasNext()) {
+			throw new NoSuchElementException();
+		}
+
+		// the next gap is usually in the same word, otherwise we need to search it
+		int next = cursorIndex < 0 ? -1 : nextInWord(cursorValue);
+		return next >= 0 ? next : select(cursorIndex + 1);
+	}
+
+	@Override
+	public int previewPrevious() {
+		if (!hasPrevious()) {
+			throw new NoSuchElementException();
+		}
+
+		if (cursorIndex == 0) {
+			return -1;
+		}
+
+		// the previous gap is usually in the same word, otherwise we need to search it
+		int previous = previousInWord(cursorValue);
+		return previous >= 0 ? previous : select(cursorIndex - 1);
+	}
+}
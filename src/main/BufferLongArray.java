@@ -0,0 +1,466 @@
+package main;
+
+import java.io.IOException;
+import java.io.ObjectInputStream;
+import java.io.ObjectOutputStream;
+import java.lang.reflect.Field;
+import java.lang.reflect.Method;
+import java.nio.ByteBuffer;
+import java.nio.ByteOrder;
+import java.nio.LongBuffer;
+import java.util.Arrays;
+import java.util.Comparator;
+
+/**
+ * Stores the elements of a list with gaps in ByteBuffers of long values. The subclasses define, where
+ * the memory of the buffers comes from (for example outside of the heap or a file). Moving the elements
+ * around the gaps are bulk copies of memory. As a ByteBuffer is addressed by an int, the storage is split
+ * into segments of 2^segmentShift elements. An arrayIndex is the index of its segment and the offset in it,
+ * so as many elements as in a long[] can be stored. Null is not supported.
+ * @author RalfK
+ *
+ */
+abstract class BufferLongArray extends AbstractCustomArray<Long, ByteBuffer[]> implements LongArrayInterface {
+	/**
+	 * The default amount of elements of a segment as a power of two. A segment has 1 GiB, the largest
+	 * power of two a ByteBuffer can address
+	 */
+	static final int SEGMENT_SHIFT = 27;
+	
+	/**
+	 * The size of the buffer used to move overlapping intervals in bytes
+	 */
+	private static final int STAGING_SIZE = 8192;
+	
+	/**
+	 * The Unsafe and its method invokeCleaner, which frees the memory of a direct buffer immediately.
+	 * Java 11 has no public API for it: a direct or mapped buffer is only freed by its own cleaner, after
+	 * the collector found it unreachable. As the elements are not on the heap, the heap hardly fills and
+	 * gigabytes of memory (or the mapping of a file) would stay reserved for an unknown time. A
+	 * java.lang.ref.Cleaner would not help, as it also runs only after a collection.
+	 * If the runtime does not support it, they are null and the memory is freed, when the buffer is collected.
+	 */
+	private static final Object UNSAFE;
+	private static final Method INVOKE_CLEANER;
+	
+	static {
+		Object unsafe = null;
+		Method invokeCleaner = null;
+		
+		try {
+			Class<?> unsafeClass = Class.forName("sun.misc.Unsafe");
+			Field theUnsafe = unsafeClass.getDeclaredField("theUnsafe");
+			theUnsafe.setAccessible(true);
+			unsafe = theUnsafe.get(null);
+			invokeCleaner = unsafeClass.getMethod("invokeCleaner", ByteBuffer.class);
+		}catch (ReflectiveOperationException | RuntimeException e) {
+			unsafe = null;
+			invokeCleaner = null;
+		}
+		
+		UNSAFE = unsafe;
+		INVOKE_CLEANER = invokeCleaner;
+	}
+	
+	/**
+	 * The amount of elements of a segment as a power of two
+	 */
+	final int segmentShift;
+	
+	/**
+	 * The offset of an arrayIndex in its segment
+	 */
+	private final int segmentMask;
+	
+	/**
+	 * The buffer used to move overlapping intervals
+	 */
+	private byte[] staging;
+	
+	/**
+	 *
+	 * @param gaps the gaps of the array
+	 * @param size the initial capacity
+	 * @param multiplier the multiplier used to extend the storage
+	 * @param segmentShift the amount of elements of a segment as a power of two, at most SEGMENT_SHIFT
+	 */
+	BufferLongArray(GapInterface gaps, int size, byte multiplier, int segmentShift) {
+		// the superclass allocates the storage, before the segments are known. It is replaced
+		super(gaps, 0, multiplier);
+		this.segmentShift = segmentShift;
+		this.segmentMask = (1 << segmentShift) - 1;
+		this.array = allocate(size);
+	}
+	
+	/**
+	 *
+	 * @param length the capacity of a storage
+	 * @return the size of the storage in bytes
+	 */
+	static long bytes(int length) {
+		return (long) length * Long.BYTES;
+	}
+	
+	/**
+	 *
+	 * @param length the capacity of a storage
+	 * @return the amount of elements of every segment of the storage. All segments but the last one are full
+	 */
+	final int[] segmentLengths(int length) {
+		int[] lengths = new int[(int) (((long) length + segmentMask) >>> segmentShift)];
+		
+		for (int i = 0; i < lengths.length; i++) {
+			lengths[i] = Math.min(segmentMask + 1, length - (i << segmentShift));
+		}
+		
+		return lengths;
+	}
+	
+	/**
+	 *
+	 * @param arrayIndex the index in this Array
+	 * @return the position of the element in its segment
+	 */
+	private int offset(int arrayIndex) {
+		return (arrayIndex & segmentMask) * Long.BYTES;
+	}
+	
+	/**
+	 *
+	 * @param arrayIndex the index in this Array
+	 * @return the amount of elements from the arrayIndex to the end of its segment
+	 */
+	private int segmentRemaining(int arrayIndex) {
+		return segmentMask + 1 - (arrayIndex & segmentMask);
+	}
+	
+	/**
+	 *
+	 * @param storage the segments
+	 * @param arrayIndex the index in the storage
+	 * @return the element
+	 */
+	private long load(ByteBuffer[] storage, int arrayIndex) {
+		return storage[arrayIndex >>> segmentShift].getLong(offset(arrayIndex));
+	}
+	
+	/**
+	 *
+	 * @param storage the segments
+	 * @param arrayIndex the index in the storage
+	 * @param element the element
+	 */
+	private void store(ByteBuffer[] storage, int arrayIndex, long element) {
+		storage[arrayIndex >>> segmentShift].putLong(offset(arrayIndex), element);
+	}
+	
+	/**
+	 * frees the memory of direct buffers immediately, if the runtime supports it. Otherwise it is freed,
+	 * when the buffers are collected. The buffers must not be accessed anymore
+	 * @param storage the segments, not duplicates or slices of them
+	 */
+	static void freeDirect(ByteBuffer[] storage) {
+		if (INVOKE_CLEANER == null) {
+			return;
+		}
+		
+		for (ByteBuffer buffer : storage) {
+			if (!buffer.isDirect()) {
+				continue;
+			}
+			
+			try {
+				INVOKE_CLEANER.invoke(UNSAFE, buffer);
+			}catch (ReflectiveOperationException e) {
+				// the memory is freed, when the buffers are collected
+				return;
+			}
+		}
+	}
+	
+	/**
+	 * decides, if two storages may share their memory. In this case moving elements from one to the other
+	 * must not overwrite elements, which were not moved yet
+	 * @param src the storage copied from
+	 * @param dst the storage copied to
+	 * @return if the storages may overlap
+	 */
+	boolean mayOverlap(ByteBuffer[] src, ByteBuffer[] dst) {
+		return src == dst;
+	}
+	
+	@Override
+	public Long getElement(int arrayIndex) {
+		return load(array, arrayIndex);
+	}
+	
+	@Override
+	public long getLong(int arrayIndex) {
+		return load(array, arrayIndex);
+	}
+	
+	@Override
+	public long setLong(int arrayIndex, long element) {
+		if (arrayIndex >= length()) {
+			throw new IndexOutOfBoundsException();
+		}
+		
+		long old = load(array, arrayIndex);
+		store(array, arrayIndex, element);
+		
+		return old;
+	}
+	
+	@Override
+	public void addLong(int listIndex, int gaps, long element) {
+		// moving the gap may replace the storage, so it must be done before accessing the storage
+		int arrayIndex = moveGapTo(listIndex, gaps);
+		store(array, arrayIndex, element);
+	}
+	
+	@Override
+	public long removeLong(int arrayIndex) {
+		long old = load(array, arrayIndex);
+		removeSlot(arrayIndex);
+		
+		return old;
+	}
+	
+	@Override
+	public long[] toLongArray() {
+		GapInterface gaps = gaps();
+		long[] a = new long[length() - gaps.size()];
+		LongBuffer[] longs = new LongBuffer[array.length];
+		
+		// the intervals between the gaps are copied, the buffers themselves do not change
+		gaps.toRoot();
+		int start = 0;
+		int gapsSoFar = 0;
+		
+		while (gaps.hasNext()) {
+			int gap = gaps.next();
+			get(longs, start, a, start - gapsSoFar, gap - start);
+			gapsSoFar++;
+			start = gap + 1;
+		}
+		
+		get(longs, start, a, start - gapsSoFar, length() - start);
+		return a;
+	}
+	
+	/**
+	 * copies an interval of the storage into a long[], segment by segment
+	 * @param longs the views of the segments, which are created, when they are used the first time
+	 * @param start the first arrayIndex
+	 * @param a the array copied to
+	 * @param index the index of the first element in a
+	 * @param length the amount of elements
+	 */
+	private void get(LongBuffer[] longs, int start, long[] a, int index, int length) {
+		while (length > 0) {
+			int segment = start >>> segmentShift;
+			int count = Math.min(length, segmentRemaining(start));
+			
+			// a duplicate does not keep the byte order
+			if (longs[segment] == null) {
+				longs[segment] = array[segment].duplicate().order(array[segment].order()).asLongBuffer();
+			}
+			
+			longs[segment].position(start & segmentMask);
+			longs[segment].get(a, index, count);
+			start += count;
+			index += count;
+			length -= count;
+		}
+	}
+	
+	@Override
+	int capacity() {
+		if (array.length == 0) {
+			return 0;
+		}
+		
+		return ((array.length - 1) << segmentShift) + array[array.length - 1].capacity() / Long.BYTES;
+	}
+	
+	@Override
+	void put(int arrayIndex, Long element) {
+		store(array, arrayIndex, element);
+	}
+	
+	@Override
+	void copy(ByteBuffer[] src, int srcPos, ByteBuffer[] dst, int dstPos, int length) {
+		if (length <= 0) {
+			return;
+		}
+		
+		// storages, which do not overlap, only need a bulk copy for every piece inside a segment of both
+		if (!mayOverlap(src, dst)) {
+			while (length > 0) {
+				int count = Math.min(length, Math.min(segmentRemaining(srcPos), segmentRemaining(dstPos)));
+				
+				// duplicates are used, so the positions of the buffers never change
+				ByteBuffer from = src[srcPos >>> segmentShift].duplicate();
+				ByteBuffer to = dst[dstPos >>> segmentShift].duplicate();
+				from.limit(offset(srcPos) + count * Long.BYTES).position(offset(srcPos));
+				to.position(offset(dstPos));
+				to.put(from);
+				
+				srcPos += count;
+				dstPos += count;
+				length -= count;
+			}
+			
+			return;
+		}
+		
+		// a bulk copy is not guaranteed to support overlapping intervals. Therefore the interval is moved
+		// in chunks. Moving backwards starts with the first chunk, moving forwards with the last one,
+		// so no chunk overwrites elements, which were not moved yet
+		if (staging == null) {
+			staging = new byte[STAGING_SIZE];
+		}
+		
+		int chunkLength = STAGING_SIZE / Long.BYTES;
+		for (int done = 0; done < length; done += chunkLength) {
+			int chunk = Math.min(chunkLength, length - done);
+			int offset = dstPos < srcPos ? done : length - done - chunk;
+			
+			transfer(src, srcPos + offset, chunk, false);
+			transfer(dst, dstPos + offset, chunk, true);
+		}
+	}
+	
+	/**
+	 * moves an interval of the storage from or to the staging buffer, segment by segment
+	 * @param storage the segments
+	 * @param start the first arrayIndex
+	 * @param length the amount of elements, at most the size of the staging buffer
+	 * @param toStorage if the staging buffer is copied to the storage, otherwise the storage is copied to it
+	 */
+	private void transfer(ByteBuffer[] storage, int start, int length, boolean toStorage) {
+		int done = 0;
+		
+		while (done < length) {
+			int count = Math.min(length - done, segmentRemaining(start + done));
+			
+			// duplicates are used, so the positions of the buffers never change
+			ByteBuffer segment = storage[(start + done) >>> segmentShift].duplicate();
+			segment.position(offset(start + done));
+			
+			if (toStorage) {
+				segment.put(staging, done * Long.BYTES, count * Long.BYTES);
+			}else {
+				segment.get(staging, done * Long.BYTES, count * Long.BYTES);
+			}
+			
+			done += count;
+		}
+	}
+	
+	@Override
+	void sort(int start, int end, Comparator<? super Long> c) {
+		if (c != null) {
+			super.sort(start, end, c);
+			return;
+		}
+		
+		// the natural order is the order of the primitive values, which are sorted without boxing them
+		long[] elements = new long[end - start];
+		for (int i = start; i < end; i++) {
+			elements[i - start] = load(array, i);
+		}
+		
+		Arrays.sort(elements);
+		
+		for (int i = start; i < end; i++) {
+			store(array, i, elements[i - start]);
+		}
+	}
+	
+	@Override
+	boolean copiesConcurrently() {
+		// overlapping intervals are moved through the staging buffer of the array
+		return false;
+	}
+	
+	@Override
+	void writeElement(ObjectOutputStream out, int arrayIndex) throws IOException {
+		out.writeLong(load(array, arrayIndex));
+	}
+	
+	@Override
+	void readElement(ObjectInputStream in, int arrayIndex) throws IOException {
+		store(array, arrayIndex, in.readLong());
+	}
+	
+	@Override
+	public int elementBytes() {
+		return Long.BYTES;
+	}
+	
+	@Override
+	public ByteBuffer view(int start, int end) {
+		// a view can only cover a single segment
+		if (start == end || start >>> segmentShift != (end - 1) >>> segmentShift) {
+			return null;
+		}
+		
+		// the bytes of the storage can only be used, if they are in the order of the channel
+		ByteBuffer segment = array[start >>> segmentShift];
+		if (segment.order() != ByteOrder.LITTLE_ENDIAN) {
+			return null;
+		}
+		
+		ByteBuffer view = segment.duplicate();
+		view.limit(offset(end - 1) + Long.BYTES).position(offset(start));
+		
+		return view;
+	}
+	
+	@Override
+	public void getBytes(int start, int end, ByteBuffer bytes) {
+		for (int i = start; i < end; i++) {
+			bytes.putLong(load(array, i));
+		}
+	}
+	
+	@Override
+	public void putBytes(int start, int end, ByteBuffer bytes) {
+		for (int i = start; i < end; i++) {
+			store(array, i, bytes.getLong());
+		}
+	}
+	
+	@Override
+	int indexOf(Object o, int start, int end) {
+		if (!(o instanceof Long)) {
+			return -1;
+		}
+		
+		long value = (Long) o;
+		for (int i = start; i < end; i++) {
+			if (load(array, i) == value) {
+				return i;
+			}
+		}
+		
+		return -1;
+	}
+	
+	@Override
+	int lastIndexOf(Object o, int start, int end) {
+		if (!(o instanceof Long)) {
+			return -1;
+		}
+		
+		long value = (Long) o;
+		for (int i = end - 1; i >= start; i--) {
+			if (load(array, i) == value) {
+				return i;
+			}
+		}
+		
+		return -1;
+	}
+}
@@ -0,0 +1,179 @@
+package main;
+
+import java.io.IOException;
+import java.nio.ByteBuffer;
+import java.nio.ByteOrder;
+import java.nio.channels.ReadableByteChannel;
+import java.nio.channels.WritableByteChannel;
+
+/**
+ * An array of primitive values, which writes its elements to channels in the ChannelFormat.
+ * The elements are written without the gaps in little endian byte order.
+ * @author RalfK
+ *
+ */
+interface ChannelArray {
+	/**
+	 * The size of the buffer used to convert elements written to or read from a channel in bytes
+	 */
+	int CHANNEL_BUFFER_SIZE = 1 << 16;
+	
+	/**
+	 * The maximum amount of buffers written by a single gathering write
+	 */
+	int GATHERING_BUFFERS = 64;
+	
+	/**
+	 *
+	 * @return the size of an element in bytes
+	 */
+	int elementBytes();
+	
+	/**
+	 * provides the elements of the interval in little endian byte order without copying them
+	 * @param start the first index (inclusive)
+	 * @param end the last index (exclusive)
+	 * @return a view of the storage positioned at the first element or null, if the storage does not support it
+	 */
+	default ByteBuffer view(int start, int end) {
+		return null;
+	}
+	
+	/**
+	 * copies the elements of the interval to the buffer in little endian byte order, starting at its position
+	 * @param start the first index (inclusive)
+	 * @param end the last index (exclusive)
+	 * @param bytes the buffer, its position is moved behind the elements
+	 */
+	void getBytes(int start, int end, ByteBuffer bytes);
+	
+	/**
+	 * stores the elements of the interval from the buffer in little endian byte order, starting at its position
+	 * @param start the first index (inclusive)
+	 * @param end the last index (exclusive)
+	 * @param bytes the buffer, its position is moved behind the elements
+	 */
+	void putBytes(int start, int end, ByteBuffer bytes);
+	
+	/**
+	 *
+	 * @return the gaps of this array
+	 */
+	GapInterface gaps();
+	
+	/**
+	 *
+	 * @return the arrayIndex of the last element +1
+	 */
+	int length();
+	
+	/**
+	 * sets the arrayIndex, where the last element is stored +1, when the storage was filled without this array
+	 * @param length the arrayIndex of the last element +1
+	 */
+	void setLength(int length);
+	
+	/**
+	 * replaces the storage of an empty array, if it can not store the given amount of elements
+	 * @param count the amount of elements
+	 */
+	void reserve(int count);
+	
+	/**
+	 * writes all elements without the gaps to a channel in little endian byte order. The runs of elements
+	 * between the gaps are written directly from the storage, if it provides views of itself. Otherwise they
+	 * are copied into a small buffer. Multiple runs are written by a single gathering write
+	 * @param channel the channel
+	 * @throws IOException if the channel can not be written
+	 */
+	default void writeTo(WritableByteChannel channel) throws IOException {
+		int width = elementBytes();
+		int piece = CHANNEL_BUFFER_SIZE / width;
+		ByteBuffer staging = null;
+		ByteBuffer[] buffers = new ByteBuffer[GATHERING_BUFFERS];
+		int count = 0;
+		
+		GapInterface gaps = gaps();
+		int length = length();
+		gaps.toRoot();
+		int start = 0;
+		
+		while (start < length) {
+			int end = gaps.hasNext() ? gaps.next() : length;
+			ByteBuffer run = start < end ? view(start, end) : null;
+			
+			if (run != null) {
+				if (count == buffers.length) {
+					ChannelFormat.write(channel, buffers, count);
+					count = 0;
+					
+					if (staging != null) {
+						staging.clear();
+					}
+				}
+				
+				buffers[count++] = run;
+			}else {
+				for (int from = start; from < end; from += piece) {
+					int to = Math.min(end, from + piece);
+					
+					// the copies written before must not be overwritten, therefore they are written, when the buffer is full
+					if (count == buffers.length || staging != null && staging.remaining() < (to - from) * width) {
+						ChannelFormat.write(channel, buffers, count);
+						count = 0;
+						
+						if (staging != null) {
+							staging.clear();
+						}
+					}
+					if (staging == null) {
+						staging = ByteBuffer.allocateDirect(piece * width);
+					}
+					
+					ByteBuffer bytes = staging.slice().order(ByteOrder.LITTLE_ENDIAN);
+					getBytes(from, to, bytes);
+					bytes.flip();
+					staging.position(staging.position() + bytes.limit());
+					buffers[count++] = bytes;
+				}
+			}
+			
+			start = end + 1;
+		}
+		
+		ChannelFormat.write(channel, buffers, count);
+	}
+	
+	/**
+	 * reads elements written by writeTo into an empty array. The elements are read directly into the storage,
+	 * if it provides views of itself. Otherwise they are read into a small buffer first
+	 * @param channel the channel
+	 * @param count the amount of elements
+	 * @throws IOException if the channel can not be read
+	 */
+	default void readFrom(ReadableByteChannel channel, int count) throws IOException {
+		reserve(count);
+		
+		ByteBuffer storage = view(0, count);
+		
+		if (storage != null) {
+			ChannelFormat.readFully(channel, storage);
+		}else {
+			int width = elementBytes();
+			int piece = CHANNEL_BUFFER_SIZE / width;
+			ByteBuffer staging = ByteBuffer.allocateDirect(Math.min(count, piece) * width).order(ByteOrder.LITTLE_ENDIAN);
+			
+			for (int from = 0; from < count; from += piece) {
+				int to = Math.min(count, from + piece);
+				
+				staging.clear();
+				staging.limit((to - from) * width);
+				ChannelFormat.readFully(channel, staging);
+				staging.flip();
+				putBytes(from, to, staging);
+			}
+		}
+		
+		setLength(count);
+	}
+}
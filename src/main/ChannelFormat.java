@@ -0,0 +1,168 @@
+package main;
+
+import java.io.EOFException;
+import java.io.IOException;
+import java.nio.ByteBuffer;
+import java.nio.ByteOrder;
+import java.nio.channels.GatheringByteChannel;
+import java.nio.channels.ReadableByteChannel;
+import java.nio.channels.SeekableByteChannel;
+import java.nio.channels.WritableByteChannel;
+
+/**
+ * The binary format used to write primitive lists to channels. It consists of a header (the magic, the version,
+ * the type of the elements and their amount) followed by the elements in little endian byte order.
+ * Lists of the same type of elements can read the format independent of how they store the elements.
+ * The channels are expected to be blocking.
+ * @author RalfK
+ *
+ */
+final class ChannelFormat {
+	/**
+	 * Identifies the format ("MGLB")
+	 */
+	static final int MAGIC = 0x4D474C42;
+
+	/**
+	 * The version of the format
+	 */
+	static final int VERSION = 1;
+
+	/**
+	 * The size of the header in bytes
+	 */
+	static final int HEADER_SIZE = 16;
+
+	/**
+	 * The types of the elements (like the descriptors of the jvm)
+	 */
+	static final int INT = 'I';
+	static final int LONG = 'J';
+	static final int DOUBLE = 'D';
+
+	/**
+	 * The greatest amount of elements, which is read. An array on the heap can not be much larger
+	 */
+	static final int MAX_COUNT = Integer.MAX_VALUE - 8;
+
+	private ChannelFormat() {
+	}
+
+	/**
+	 * writes the header
+	 * @param channel the channel
+	 * @param type the type of the elements
+	 * @param count the amount of elements
+	 * @throws IOException if the channel can not be written
+	 */
+	static void writeHeader(WritableByteChannel channel, int type, int count) throws IOException {
+		ByteBuffer header = ByteBuffer.allocate(HEADER_SIZE).order(ByteOrder.LITTLE_ENDIAN);
+		header.putInt(MAGIC).putInt(VERSION).putInt(type).putInt(count);
+		header.flip();
+
+		while (header.hasRemaining()) {
+			channel.write(header);
+		}
+	}
+
+	/**
+	 *
+	 * @param type the type of the elements
+	 * @return the size of an element in bytes
+	 */
+	static int width(int type) {
+		return type == INT ? Integer.BYTES : Long.BYTES;
+	}
+
+	/**
+	 * reads and validates the header. The amount of elements is checked, before the list reserves memory for them:
+	 * it must not be greater than MAX_COUNT and a seekable channel must contain all of them
+	 * @param channel the channel
+	 * @param type the expected type of the elements
+	 * @return the amount of elements
+	 * @throws IOException if the channel can not be read or does not contain the expected format
+	 */
+	static int readHeader(ReadableByteChannel channel, int type) throws IOException {
+		ByteBuffer header = ByteBuffer.allocate(HEADER_SIZE).order(ByteOrder.LITTLE_ENDIAN);
+		readFully(channel, header);
+		header.flip();
+
+		if (header.getInt() != MAGIC) {
+			throw new IOException("The channel does not contain a MultiGappedList");
+		}
+
+		int version = header.getInt();
+		if (version != VERSION) {
+			throw new IOException("Unsupported version: " + version);
+		}
+
+		int actualType = header.getInt();
+		if (actualType != type) {
+			throw new IOException("The elements are of the type " + (char) actualType + ", not " + (char) type);
+		}
+
+		int count = header.getInt();
+		if (count < 0) {
+			throw new IOException("The amount of elements is negative: " + count);
+		}
+		if (count > MAX_COUNT) {
+			throw new IOException("The amount of elements is too large: " + count);
+		}
+
+		if (channel instanceof SeekableByteChannel) {
+			SeekableByteChannel seekable = (SeekableByteChannel) channel;
+			long remaining = seekable.size() - seekable.position();
+
+			if (remaining < (long) count * width(type)) {
+				throw new IOException("The channel ends before the " + count + " elements, remaining bytes: " + remaining);
+			}
+		}
+
+		return count;
+	}
+
+	/**
+	 * writes the buffers completely. Gathering channels write multiple buffers at once
+	 * @param channel the channel
+	 * @param buffers the buffers
+	 * @param length the amount of buffers written, starting with the first one
+	 * @throws IOException if the channel can not be written
+	 */
+	static void write(WritableByteChannel channel, ByteBuffer[] buffers, int length) throws IOException {
+		if (channel instanceof GatheringByteChannel) {
+			GatheringByteChannel gathering = (GatheringByteChannel) channel;
+			int first = 0;
+
+			while (first < length) {
+				gathering.write(buffers, first, length - first);
+
+				// the buffers written completely are skipped
+				while (first < length && !buffers[first].hasRemaining()) {
+					first++;
+				}
+			}
+
+			return;
+		}
+
+		for (int i = 0; i < length; i++) {
+			while (buffers[i].hasRemaining()) {
+				channel.write(buffers[i]);
+			}
+		}
+	}
+
+	/**
+	 * reads from the channel, until the buffer is full
+	 * @param channel the channel
+	 * @param buffer the buffer
+	 * @throws IOException if the channel can not be read or ends before
+	 */
+	static void readFully(ReadableByteChannel channel, ByteBuffer buffer) throws IOException {
+		while (buffer.hasRemaining()) {
+			if (channel.read(buffer) < 0) {
+				throw new EOFException();
+			}
+		}
+	}
+}
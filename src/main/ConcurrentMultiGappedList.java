@@ -0,0 +1,384 @@
+package main;
+
+import java.util.AbstractList;
+import java.util.Arrays;
+import java.util.Collection;
+import java.util.Collections;
+import java.util.Comparator;
+import java.util.Iterator;
+import java.util.List;
+import java.util.ListIterator;
+import java.util.RandomAccess;
+import java.util.concurrent.locks.StampedLock;
+import java.util.function.Predicate;
+import java.util.function.UnaryOperator;
+
+/**
+ * A thread-safe MultiGappedList. Reading elements by index scales with the amount of threads, as a read does
+ * not change anything (not even the cursor of the gaps). It is done optimistically with a StampedLock and only
+ * repeated with the read lock, if the list was modified during the read.
+ *
+ * Searching (indexOf, contains) and copying do not move the cursor of the gaps either, therefore they take the read lock.
+ * All other operations take the write lock, including the resorts and extensions of the array caused by them.
+ * Structural modifications are counted in modCount, so subList() views fail fast like the ones of other lists.
+ * Iterators work on a copy of the list taken under the read lock and do not support modifications.
+ * Filters and operators passed to the list must not access it.
+ *
+ * Reads do not inform the resort policy, therefore the list is only resorted by modifications or resort().
+ * @author RalfK
+ *
+ * @param <E> the type of the elements
+ */
+public class ConcurrentMultiGappedList<E> extends AbstractList<E> implements RandomAccess, Resortable {
+	/**
+	 * The list storing the elements. It is only accessed while holding the lock
+	 */
+	private final MultiGappedList<E> list;
+
+	private final StampedLock lock;
+
+	public ConcurrentMultiGappedList() {
+		this(MultiGappedList.DEFAULT_LENGTH);
+	}
+
+	public ConcurrentMultiGappedList(int length) {
+		this(length, ResortPolicy.gapLimit(MultiGappedList.DEFAULT_GAPS_SUPPORTED), MultiGappedList.DEFAULT_GAP_STRATEGY);
+	}
+
+	public ConcurrentMultiGappedList(int length, ResortPolicy resortPolicy, GapStrategy gapStrategy) {
+		this.list = new MultiGappedList<>(length, resortPolicy, gapStrategy);
+		this.lock = new StampedLock();
+	}
+
+	@Override
+	public E get(int index) {
+		long stamp = lock.tryOptimisticRead();
+
+		if (stamp != 0) {
+			try {
+				E element = list.peek(index);
+
+				if (lock.validate(stamp)) {
+					return element;
+				}
+			}catch (RuntimeException e) {
+				// if the list was not modified, the exception is valid (for example an invalid index).
+				// Otherwise the list was read in an inconsistent state and the read is repeated
+				if (lock.validate(stamp)) {
+					throw e;
+				}
+			}
+		}
+
+		stamp = lock.readLock();
+		try {
+			return list.peek(index);
+		}finally {
+			lock.unlockRead(stamp);
+		}
+	}
+
+	@Override
+	public int size() {
+		long stamp = lock.tryOptimisticRead();
+		int size = list.size();
+
+		if (lock.validate(stamp)) {
+			return size;
+		}
+
+		stamp = lock.readLock();
+		try {
+			return list.size();
+		}finally {
+			lock.unlockRead(stamp);
+		}
+	}
+
+	@Override
+	public boolean isEmpty() {
+		return size() == 0;
+	}
+
+	@Override
+	public E set(int index, E element) {
+		long stamp = lock.writeLock();
+		try {
+			return list.set(index, element);
+		}finally {
+			lock.unlockWrite(stamp);
+		}
+	}
+
+	@Override
+	public boolean add(E element) {
+		long stamp = lock.writeLock();
+		try {
+			list.add(element);
+			modCount++;
+			return true;
+		}finally {
+			lock.unlockWrite(stamp);
+		}
+	}
+
+	@Override
+	public void add(int index, E element) {
+		long stamp = lock.writeLock();
+		try {
+			list.add(index, element);
+			modCount++;
+		}finally {
+			lock.unlockWrite(stamp);
+		}
+	}
+
+	@Override
+	public boolean addAll(Collection<? extends E> c) {
+		// the collection is copied before locking, as it may be this list
+		Collection<? extends E> elements = snapshot(c);
+
+		long stamp = lock.writeLock();
+		try {
+			boolean added = list.addAll(elements);
+			if (added) {
+				modCount++;
+			}
+			return added;
+		}finally {
+			lock.unlockWrite(stamp);
+		}
+	}
+
+	@Override
+	public boolean addAll(int index, Collection<? extends E> c) {
+		Collection<? extends E> elements = snapshot(c);
+
+		long stamp = lock.writeLock();
+		try {
+			boolean added = list.addAll(index, elements);
+			if (added) {
+				modCount++;
+			}
+			return added;
+		}finally {
+			lock.unlockWrite(stamp);
+		}
+	}
+
+	@Override
+	public E remove(int index) {
+		long stamp = lock.writeLock();
+		try {
+			E removed = list.remove(index);
+			modCount++;
+			return removed;
+		}finally {
+			lock.unlockWrite(stamp);
+		}
+	}
+
+	@Override
+	public boolean remove(Object o) {
+		long stamp = lock.writeLock();
+		try {
+			boolean removed = list.remove(o);
+			if (removed) {
+				modCount++;
+			}
+			return removed;
+		}finally {
+			lock.unlockWrite(stamp);
+		}
+	}
+
+	@Override
+	protected void removeRange(int fromIndex, int toIndex) {
+		long stamp = lock.writeLock();
+		try {
+			list.removeRange(fromIndex, toIndex);
+			modCount++;
+		}finally {
+			lock.unlockWrite(stamp);
+		}
+	}
+
+	@Override
+	public boolean removeAll(Collection<?> c) {
+		Collection<?> elements = snapshot(c);
+
+		long stamp = lock.writeLock();
+		try {
+			boolean removed = list.removeAll(elements);
+			if (removed) {
+				modCount++;
+			}
+			return removed;
+		}finally {
+			lock.unlockWrite(stamp);
+		}
+	}
+
+	@Override
+	public boolean retainAll(Collection<?> c) {
+		Collection<?> elements = snapshot(c);
+
+		long stamp = lock.writeLock();
+		try {
+			boolean removed = list.retainAll(elements);
+			if (removed) {
+				modCount++;
+			}
+			return removed;
+		}finally {
+			lock.unlockWrite(stamp);
+		}
+	}
+
+	@Override
+	public boolean removeIf(Predicate<? super E> filter) {
+		long stamp = lock.writeLock();
+		try {
+			boolean removed = list.removeIf(filter);
+			if (removed) {
+				modCount++;
+			}
+			return removed;
+		}finally {
+			lock.unlockWrite(stamp);
+		}
+	}
+
+	@Override
+	public void replaceAll(UnaryOperator<E> operator) {
+		long stamp = lock.writeLock();
+		try {
+			list.replaceAll(operator);
+			modCount++;
+		}finally {
+			lock.unlockWrite(stamp);
+		}
+	}
+
+	@Override
+	public void sort(Comparator<? super E> c) {
+		long stamp = lock.writeLock();
+		try {
+			list.sort(c);
+			modCount++;
+		}finally {
+			lock.unlockWrite(stamp);
+		}
+	}
+
+	@Override
+	public void clear() {
+		long stamp = lock.writeLock();
+		try {
+			list.clear();
+			modCount++;
+		}finally {
+			lock.unlockWrite(stamp);
+		}
+	}
+
+	@Override
+	public int indexOf(Object o) {
+		long stamp = lock.readLock();
+		try {
+			return list.peekIndexOf(o);
+		}finally {
+			lock.unlockRead(stamp);
+		}
+	}
+
+	@Override
+	public int lastIndexOf(Object o) {
+		long stamp = lock.readLock();
+		try {
+			return list.peekLastIndexOf(o);
+		}finally {
+			lock.unlockRead(stamp);
+		}
+	}
+
+	@Override
+	public boolean contains(Object o) {
+		return indexOf(o) >= 0;
+	}
+
+	@Override
+	public Object[] toArray() {
+		long stamp = lock.readLock();
+		try {
+			return list.peekToArray(new Object[list.size()]);
+		}finally {
+			lock.unlockRead(stamp);
+		}
+	}
+
+	@Override
+	public <T> T[] toArray(T[] a) {
+		long stamp = lock.readLock();
+		try {
+			return list.peekToArray(a);
+		}finally {
+			lock.unlockRead(stamp);
+		}
+	}
+
+	@Override
+	public Iterator<E> iterator() {
+		return listIterator(0);
+	}
+
+	@Override
+	public ListIterator<E> listIterator(int index) {
+		// the iterator works on a copy, so it neither blocks nor sees modifications. Unlike a snapshot, the copy
+		// is taken under the read lock and the array is not shared, so the next modification does not copy it
+		Object[] elements = toArray();
+		
+		@SuppressWarnings("unchecked")
+		List<E> copy = (List<E>) Arrays.asList(elements);
+		return Collections.unmodifiableList(copy).listIterator(index);
+	}
+
+	/**
+	 * Returns an immutable view of the current state of the list in O(1). The list copies its array by the next
+	 * modification, so reading the snapshot never blocks and never sees modifications
+	 * @return the snapshot
+	 */
+	public List<E> snapshot() {
+		long stamp = lock.writeLock();
+		try {
+			return list.snapshot();
+		}finally {
+			lock.unlockWrite(stamp);
+		}
+	}
+
+	@Override
+	public void resort() {
+		long stamp = lock.writeLock();
+		try {
+			list.resort();
+		}finally {
+			lock.unlockWrite(stamp);
+		}
+	}
+
+	/**
+	 * copies a collection, if it is this list. Otherwise accessing it while holding the lock would block forever
+	 * @param c the collection
+	 * @return the collection or a copy of it
+	 */
+	private <T> Collection<T> snapshot(Collection<T> c) {
+		if (c != this) {
+			return c;
+		}
+
+		@SuppressWarnings("unchecked")
+		T[] elements = (T[]) toArray();
+		return Arrays.asList(elements);
+	}
+}
@@ -0,0 +1,149 @@
+package main;
+
+import java.io.IOException;
+import java.io.ObjectInputStream;
+import java.io.ObjectOutputStream;
+import java.nio.ByteBuffer;
+import java.util.Arrays;
+import java.util.Comparator;
+
+/**
+ * Stores the elements of a list with gaps in a primitive double array. The elements are not boxed,
+ * which saves the memory of the boxes and a pointer chase for every read. Null is not supported.
+ * @author RalfK
+ *
+ */
+final class CustomDoubleArray extends AbstractCustomArray<Double, double[]> implements DoubleArrayInterface {
+	
+	public CustomDoubleArray(GapInterface gaps, int size, byte multiplier) {
+		super(gaps, size, multiplier);
+	}
+	
+	@Override
+	public Double getElement(int arrayIndex) {
+		return array[arrayIndex];
+	}
+	
+	@Override
+	public double getDouble(int arrayIndex) {
+		return array[arrayIndex];
+	}
+	
+	@Override
+	public double setDouble(int arrayIndex, double element) {
+		if (arrayIndex >= length()) {
+			throw new IndexOutOfBoundsException();
+		}
+		
+		double old = array[arrayIndex];
+		array[arrayIndex] = element;
+		
+		return old;
+	}
+	
+	@Override
+	public void addDouble(int listIndex, int gaps, double element) {
+		// moving the gap may replace the array, so it must be done before accessing the array
+		int arrayIndex = moveGapTo(listIndex, gaps);
+		array[arrayIndex] = element;
+	}
+	
+	@Override
+	public double removeDouble(int arrayIndex) {
+		double old = array[arrayIndex];
+		removeSlot(arrayIndex);
+		
+		return old;
+	}
+	
+	@Override
+	public double[] toDoubleArray() {
+		return copyElements();
+	}
+	
+	@Override
+	double[] allocate(int length) {
+		return new double[length];
+	}
+	
+	@Override
+	int capacity() {
+		return array.length;
+	}
+	
+	@Override
+	void put(int arrayIndex, Double element) {
+		array[arrayIndex] = element;
+	}
+	
+	@Override
+	void writeElement(ObjectOutputStream out, int arrayIndex) throws IOException {
+		out.writeDouble(array[arrayIndex]);
+	}
+	
+	@Override
+	void readElement(ObjectInputStream in, int arrayIndex) throws IOException {
+		array[arrayIndex] = in.readDouble();
+	}
+	
+	@Override
+	public int elementBytes() {
+		return Double.BYTES;
+	}
+	
+	@Override
+	public void getBytes(int start, int end, ByteBuffer bytes) {
+		bytes.asDoubleBuffer().put(array, start, end - start);
+		bytes.position(bytes.position() + (end - start) * Double.BYTES);
+	}
+	
+	@Override
+	public void putBytes(int start, int end, ByteBuffer bytes) {
+		bytes.asDoubleBuffer().get(array, start, end - start);
+		bytes.position(bytes.position() + (end - start) * Double.BYTES);
+	}
+	
+	@Override
+	int indexOf(Object o, int start, int end) {
+		if (!(o instanceof Double)) {
+			return -1;
+		}
+		
+		// Double.equals compares the bits, so NaN is found and 0.0 differs from -0.0
+		long bits = Double.doubleToLongBits((Double) o);
+		for (int i = start; i < end; i++) {
+			if (Double.doubleToLongBits(array[i]) == bits) {
+				return i;
+			}
+		}
+		
+		return -1;
+	}
+	
+	@Override
+	int lastIndexOf(Object o, int start, int end) {
+		if (!(o instanceof Double)) {
+			return -1;
+		}
+		
+		// Double.equals compares the bits, so NaN is found and 0.0 differs from -0.0
+		long bits = Double.doubleToLongBits((Double) o);
+		for (int i = end - 1; i >= start; i--) {
+			if (Double.doubleToLongBits(array[i]) == bits) {
+				return i;
+			}
+		}
+		
+		return -1;
+	}
+	
+	@Override
+	void sort(int start, int end, Comparator<? super Double> c) {
+		// the natural order of the boxes is the order of the primitive values (including -0.0 and NaN)
+		if (c == null) {
+			Arrays.sort(array, start, end);
+		}else {
+			super.sort(start, end, c);
+		}
+	}
+}
@@ -0,0 +1,147 @@
+package main;
+
+import java.io.IOException;
+import java.io.ObjectInputStream;
+import java.io.ObjectOutputStream;
+import java.nio.ByteBuffer;
+import java.util.Arrays;
+import java.util.Comparator;
+
+/**
+ * Stores the elements of a list with gaps in a primitive int array. The elements are not boxed,
+ * which saves the memory of the boxes and a pointer chase for every read. Null is not supported.
+ * @author RalfK
+ *
+ */
+final class CustomIntArray extends AbstractCustomArray<Integer, int[]> implements IntArrayInterface {
+	
+	public CustomIntArray(GapInterface gaps, int size, byte multiplier) {
+		super(gaps, size, multiplier);
+	}
+	
+	@Override
+	public Integer getElement(int arrayIndex) {
+		return array[arrayIndex];
+	}
+	
+	@Override
+	public int getInt(int arrayIndex) {
+		return array[arrayIndex];
+	}
+	
+	@Override
+	public int setInt(int arrayIndex, int element) {
+		if (arrayIndex >= length()) {
+			throw new IndexOutOfBoundsException();
+		}
+		
+		int old = array[arrayIndex];
+		array[arrayIndex] = element;
+		
+		return old;
+	}
+	
+	@Override
+	public void addInt(int listIndex, int gaps, int element) {
+		// moving the gap may replace the array, so it must be done before accessing the array
+		int arrayIndex = moveGapTo(listIndex, gaps);
+		array[arrayIndex] = element;
+	}
+	
+	@Override
+	public int removeInt(int arrayIndex) {
+		int old = array[arrayIndex];
+		removeSlot(arrayIndex);
+		
+		return old;
+	}
+	
+	@Override
+	public int[] toIntArray() {
+		return copyElements();
+	}
+	
+	@Override
+	int[] allocate(int length) {
+		return new int[length];
+	}
+	
+	@Override
+	int capacity() {
+		return array.length;
+	}
+	
+	@Override
+	void put(int arrayIndex, Integer element) {
+		array[arrayIndex] = element;
+	}
+	
+	@Override
+	void writeElement(ObjectOutputStream out, int arrayIndex) throws IOException {
+		out.writeInt(array[arrayIndex]);
+	}
+	
+	@Override
+	void readElement(ObjectInputStream in, int arrayIndex) throws IOException {
+		array[arrayIndex] = in.readInt();
+	}
+	
+	@Override
+	public int elementBytes() {
+		return Integer.BYTES;
+	}
+	
+	@Override
+	public void getBytes(int start, int end, ByteBuffer bytes) {
+		bytes.asIntBuffer().put(array, start, end - start);
+		bytes.position(bytes.position() + (end - start) * Integer.BYTES);
+	}
+	
+	@Override
+	public void putBytes(int start, int end, ByteBuffer bytes) {
+		bytes.asIntBuffer().get(array, start, end - start);
+		bytes.position(bytes.position() + (end - start) * Integer.BYTES);
+	}
+	
+	@Override
+	int indexOf(Object o, int start, int end) {
+		if (!(o instanceof Integer)) {
+			return -1;
+		}
+		
+		int value = (Integer) o;
+		for (int i = start; i < end; i++) {
+			if (array[i] == value) {
+				return i;
+			}
+		}
+		
+		return -1;
+	}
+	
+	@Override
+	int lastIndexOf(Object o, int start, int end) {
+		if (!(o instanceof Integer)) {
+			return -1;
+		}
+		
+		int value = (Integer) o;
+		for (int i = end - 1; i >= start; i--) {
+			if (array[i] == value) {
+				return i;
+			}
+		}
+		
+		return -1;
+	}
+	
+	@Override
+	void sort(int start, int end, Comparator<? super Integer> c) {
+		// the natural order of the boxes is the order of the primitive values
+		if (c == null) {
+			Arrays.sort(array, start, end);
+		}else {
+			super.sort(start, end, c);
+		}
+	}
+}
@@ -149,6 +149,14 @@ final class CustomLinkedList implements Iterable<Integer>{
 
 		@Override
 		public Integer next() {
+			return nextValue();
+		}
+		
+		/**
+		 * Same as next(), but returns the primitive value to avoid boxing
+		 * @return The value (Element) at the new cursor position
+		 */
+		public int nextValue() {
 			checkNode(this.node.next);
 			index++;
 			
@@ -162,6 +170,14 @@ final class CustomLinkedList implements Iterable<Integer>{
 
 		@Override
 		public Integer previous() {
+			return previousValue();
+		}
+		
+		/**
+		 * Same as previous(), but returns the primitive value to avoid boxing
+		 * @return The value (Element) at the new cursor position
+		 */
+		public int previousValue() {
 			checkNode(this.node.prev);
 			index--;
 			
@@ -183,6 +199,7 @@ final class CustomLinkedList implements Iterable<Integer>{
 			if (node != root) {
 				node.removeThis();
 				node = node.prev;
+				index--;
 			}
 		}
 
@@ -214,6 +231,7 @@ final class CustomLinkedList implements Iterable<Integer>{
 		
 		public void toRoot() {
 			node = root;
+			index = -1;
 		}
 		
 		public void clear() {
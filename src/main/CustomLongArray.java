@@ -0,0 +1,147 @@
+package main;
+
+import java.io.IOException;
+import java.io.ObjectInputStream;
+import java.io.ObjectOutputStream;
+import java.nio.ByteBuffer;
+import java.util.Arrays;
+import java.util.Comparator;
+
+/**
+ * Stores the elements of a list with gaps in a primitive long array. The elements are not boxed,
+ * which saves the memory of the boxes and a pointer chase for every read. Null is not supported.
+ * @author RalfK
+ *
+ */
+final class CustomLongArray extends AbstractCustomArray<Long, long[]> implements LongArrayInterface {
+	
+	public CustomLongArray(GapInterface gaps, int size, byte multiplier) {
+		super(gaps, size, multiplier);
+	}
+	
+	@Override
+	public Long getElement(int arrayIndex) {
+		return array[arrayIndex];
+	}
+	
+	@Override
+	public long getLong(int arrayIndex) {
+		return array[arrayIndex];
+	}
+	
+	@Override
+	public long setLong(int arrayIndex, long element) {
+		if (arrayIndex >= length()) {
+			throw new IndexOutOfBoundsException();
+		}
+		
+		long old = array[arrayIndex];
+		array[arrayIndex] = element;
+		
+		return old;
+	}
+	
+	@Override
+	public void addLong(int listIndex, int gaps, long element) {
+		// moving the gap may replace the array, so it must be done before accessing the array
+		int arrayIndex = moveGapTo(listIndex, gaps);
+		array[arrayIndex] = element;
+	}
+	
+	@Override
+	public long removeLong(int arrayIndex) {
+		long old = array[arrayIndex];
+		removeSlot(arrayIndex);
+		
+		return old;
+	}
+	
+	@Override
+	public long[] toLongArray() {
+		return copyElements();
+	}
+	
+	@Override
+	long[] allocate(int length) {
+		return new long[length];
+	}
+	
+	@Override
+	int capacity() {
+		return array.length;
+	}
+	
+	@Override
+	void put(int arrayIndex, Long element) {
+		array[arrayIndex] = element;
+	}
+	
+	@Override
+	void writeElement(ObjectOutputStream out, int arrayIndex) throws IOException {
+		out.writeLong(array[arrayIndex]);
+	}
+	
+	@Override
+	void readElement(ObjectInputStream in, int arrayIndex) throws IOException {
+		array[arrayIndex] = in.readLong();
+	}
+	
+	@Override
+	public int elementBytes() {
+		return Long.BYTES;
+	}
+	
+	@Override
+	public void getBytes(int start, int end, ByteBuffer bytes) {
+		bytes.asLongBuffer().put(array, start, end - start);
+		bytes.position(bytes.position() + (end - start) * Long.BYTES);
+	}
+	
+	@Override
+	public void putBytes(int start, int end, ByteBuffer bytes) {
+		bytes.asLongBuffer().get(array, start, end - start);
+		bytes.position(bytes.position() + (end - start) * Long.BYTES);
+	}
+	
+	@Override
+	int indexOf(Object o, int start, int end) {
+		if (!(o instanceof Long)) {
+			return -1;
+		}
+		
+		long value = (Long) o;
+		for (int i = start; i < end; i++) {
+			if (array[i] == value) {
+				return i;
+			}
+		}
+		
+		return -1;
+	}
+	
+	@Override
+	int lastIndexOf(Object o, int start, int end) {
+		if (!(o instanceof Long)) {
+			return -1;
+		}
+		
+		long value = (Long) o;
+		for (int i = end - 1; i >= start; i--) {
+			if (array[i] == value) {
+				return i;
+			}
+		}
+		
+		return -1;
+	}
+	
+	@Override
+	void sort(int start, int end, Comparator<? super Long> c) {
+		// the natural order of the boxes is the order of the primitive values
+		if (c == null) {
+			Arrays.sort(array, start, end);
+		}else {
+			super.sort(start, end, c);
+		}
+	}
+}
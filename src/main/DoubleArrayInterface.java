@@ -0,0 +1,45 @@
+package main;
+
+/**
+ * This array should store the elements of a list of double values with gaps, without boxing them
+ * @author RalfK
+ *
+ */
+interface DoubleArrayInterface extends ArrayInterface<Double>, ChannelArray {
+	
+	/**
+	 * gets an Element for the given Position without boxing it
+	 * @param arrayIndex The index in this Array (not the List)
+	 * @return the Element
+	 */
+	double getDouble(int arrayIndex);
+	
+	/**
+	 * sets an Element to the given position without boxing it
+	 * @param arrayIndex The index in this Array (not the List)
+	 * @param element the Element
+	 * @return the Element stored before
+	 */
+	double setDouble(int arrayIndex, double element);
+	
+	/**
+	 * adds an Element to the given Position without boxing it
+	 * @param listIndex The index in the List (not the array)
+	 * @param gaps The amount of gaps before the element
+	 * @param element the Element
+	 */
+	void addDouble(int listIndex, int gaps, double element);
+	
+	/**
+	 * removes an element from the given Position without boxing it
+	 * @param arrayIndex The index in this Array (not the List)
+	 * @return the Element
+	 */
+	double removeDouble(int arrayIndex);
+	
+	/**
+	 * 
+	 * @return all elements without gaps in a new array
+	 */
+	double[] toDoubleArray();
+}
@@ -6,6 +6,30 @@ package main;
  *
  */
 interface GapInterface {
+	/**
+	 * calculates the index in the array out of the listIndex. (arrayIndex = listIndex + gapsTilArrayIndex)
+	 * The cursor may be moved, as implementations are allowed to start the search at the cursor.
+	 * @param listIndex The ListIndex (The index requested by a user)
+	 * @return The ArrayIndex (The index the element is at in the array)
+	 */
+	public int getArrayIndex(int listIndex);
+	
+	/**
+	 * calculates the index in the array out of the listIndex like getArrayIndex, but without moving the cursor
+	 * or changing anything else. Therefore multiple threads may call it at once, as long as the gaps are not modified.
+	 * If they are modified at the same time, the result is undefined, but the call terminates.
+	 * @param listIndex The ListIndex (The index requested by a user)
+	 * @return The ArrayIndex (The index the element is at in the array)
+	 */
+	public int peekArrayIndex(int listIndex);
+	
+	/**
+	 * returns the amount of gaps from the beginning to the element at the given listIndex
+	 * @param listIndex The ListIndex (The index requested by a user)
+	 * @return the amount of gaps
+	 */
+	public int getGapCount(int listIndex);
+	
 	/**
 	 * moves the cursor to the position of the gap.
 	 * If the gap does not exists, moves the cursor 
@@ -36,6 +60,14 @@ interface GapInterface {
 	 */
 	public void add(int gap);
 
+	/**
+	 * adds all gaps of an interval at once, gaps already contained are skipped.
+	 * Therefore the cursor is moved and the list is informed only once.
+	 * @param start the first gap (inclusive)
+	 * @param end the last gap (exclusive)
+	 */
+	public void addRange(int start, int end);
+
 	/**
 	 * removes a gap, if it exists
 	 * @param gap the gap to be removed
@@ -0,0 +1,40 @@
+package main;
+
+/**
+ * Resorts the list, when it contains more than a fixed amount of gaps.
+ * @author RalfK
+ *
+ */
+final class GapLimitPolicy implements ResortPolicy {
+	private static final long serialVersionUID = -567743345824317013L;
+	
+	/**
+	 * This value stores the maximum number of gaps supported.
+	 */
+	private final int supportedGaps;
+	
+	/**
+	 * 
+	 * @param supportedGaps The maximum amount of gaps or NO_GAP_LIMIT. Only accepts positive values.
+	 */
+	GapLimitPolicy(int supportedGaps) {
+		if (supportedGaps < 0) {
+			throw new IllegalArgumentException("The Gap Limit can only be positive or NO_GAP_LIMIT");
+		}
+		
+		this.supportedGaps = supportedGaps;
+	}
+	
+	@Override
+	public boolean isResortRequired(int size, int gaps) {
+		return supportedGaps != NO_GAP_LIMIT && gaps > supportedGaps;
+	}
+	
+	/**
+	 * 
+	 * @return the amount of supported gaps
+	 */
+	public int getSupportedGaps() {
+		return supportedGaps;
+	}
+}
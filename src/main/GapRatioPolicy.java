@@ -0,0 +1,32 @@
+package main;
+
+/**
+ * Resorts the list, when the amount of gaps exceeds a fraction of its size.
+ * @author RalfK
+ *
+ */
+final class GapRatioPolicy implements ResortPolicy {
+	private static final long serialVersionUID = -1531953561255975467L;
+	
+	/**
+	 * The maximum amount of gaps per element
+	 */
+	private final double ratio;
+	
+	/**
+	 * 
+	 * @param ratio The maximum amount of gaps per element. Only accepts positive values.
+	 */
+	GapRatioPolicy(double ratio) {
+		if (!(ratio > 0)) {
+			throw new IllegalArgumentException("The ratio must be positive, actual: " + ratio);
+		}
+		
+		this.ratio = ratio;
+	}
+	
+	@Override
+	public boolean isResortRequired(int size, int gaps) {
+		return gaps > size * ratio;
+	}
+}
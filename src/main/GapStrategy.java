@@ -0,0 +1,99 @@
+package main;
+
+/**
+ * Defines how a MultiGappedList keeps track of its gaps. Every strategy offers the same
+ * functionality, but the costs of the operations differ:
+ * 
+ * strategy   translation    add/remove gap    memory
+ * LINKED     O(gaps)        O(1) near cursor  one Node per gap
+ * ARRAY      O(log gaps)    O(gaps)           one int per gap
+ * BITMAP     O(log length)  O(log length)     one bit per slot of the array
+ * TREE       O(log gaps)    O(log gaps)       one Node per gap
+ * RUNS       O(log runs)    O(runs)           three ints per run of consecutive gaps
+ * 
+ * A removed range of elements is recorded at once by every strategy, but only RUNS stores it
+ * as a single interval. The other strategies store one gap per removed slot, so a range still
+ * counts as that many gaps for the resort policy and for later translations.
+ * 
+ * @author RalfK
+ *
+ */
+public enum GapStrategy {
+	/**
+	 * Stores the gaps in a linked list with a cursor. Suitable for sequential editing,
+	 * when the positions of consecutive operations are close to each other. This is the default strategy.
+	 */
+	LINKED {
+		@Override
+		AbstractGaps create(Resortable onGapAdded) {
+			return new Gaps(onGapAdded);
+		}
+		
+		@Override
+		int translationCost(int gaps) {
+			// the cursor may need to pass every gap
+			return gaps;
+		}
+	},
+	
+	/**
+	 * Stores the gaps in a sorted int array. Does not allocate memory while working
+	 * and is fast for small and medium gap limits.
+	 */
+	ARRAY {
+		@Override
+		AbstractGaps create(Resortable onGapAdded) {
+			return new ArrayGaps(onGapAdded);
+		}
+	},
+	
+	/**
+	 * Stores the gaps in a bitmap over the array. The costs do not depend on the amount
+	 * of gaps, therefore it is suitable for lists with a lot of removals.
+	 */
+	BITMAP {
+		@Override
+		AbstractGaps create(Resortable onGapAdded) {
+			return new BitmapGaps(onGapAdded);
+		}
+	},
+	
+	/**
+	 * Stores the gaps in a balanced tree. Suitable for random access at high gap limits.
+	 */
+	TREE {
+		@Override
+		AbstractGaps create(Resortable onGapAdded) {
+			return new TreeGaps(onGapAdded);
+		}
+	},
+	
+	/**
+	 * Stores runs of consecutive gaps as intervals. Removing a range of elements only records
+	 * a single interval, therefore it is suitable for lists, which are cleared in ranges.
+	 * This is the only strategy, where a cleared range costs as much as a single gap.
+	 */
+	RUNS {
+		@Override
+		AbstractGaps create(Resortable onGapAdded) {
+			return new RunGaps(onGapAdded);
+		}
+	};
+	
+	/**
+	 * creates the gaps of this strategy
+	 * @param onGapAdded Informed when a gap was added, to test if a resort is required
+	 * @return the gaps
+	 */
+	abstract AbstractGaps create(Resortable onGapAdded);
+	
+	/**
+	 * estimates the costs to translate a listIndex into an arrayIndex
+	 * @param gaps the amount of gaps
+	 * @return the estimated costs (the amount of steps)
+	 */
+	int translationCost(int gaps) {
+		// a search in a sorted structure (the default)
+		return 32 - Integer.numberOfLeadingZeros(gaps);
+	}
+}
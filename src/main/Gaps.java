@@ -7,28 +7,12 @@ import main.CustomLinkedList.CustomLinkedIterator;
  * @author RalfK
  *
  */
-final class Gaps implements GapInterface {
-	/**
-	 * There is no maximum limit of gaps stored in this list, before a resort is triggered. This is not recommended, unless the list will be sorted manually.
-	 * If the list will never be sorted, it will get slower and lose performance.
-	 */
-	public static final int NO_GAP_LIMIT = 0;
-	
-	/**
-	 * This value stores the maximum number of gaps supported.
-	 */
-	private int supportedGaps;
-	
+final class Gaps extends AbstractGaps {
 	/**
 	 * The Linked List will save all the gaps. We use a LinkedList, because the list needs to support fast insertions. An index-based get will not be required, but fast iterating.
 	 */
 	private CustomLinkedList gaps;
 	
-	/**
-	 * The list (or Resortable) to be resorted when the gap limit get exceeded.
-	 */
-	private Resortable onGapLimitExceeded;
-	
 	/**
 	 * The Iterator of the CustomLinkedList
 	 */
@@ -37,75 +21,52 @@ final class Gaps implements GapInterface {
 	
 	/**
 	 * Creates an Object of Gaps to store the indexes of gaps
-	 * @param supportedGaps The Limit of gaps supported as integer or NO_GAP_LIMIT
-	 * @param onGapLimitExceeded 
+	 * @param onGapAdded Informed when a gap was added, to test if a resort is required
 	 */
-	public Gaps(int supportedGaps, Resortable onGapLimitExceeded) {
-		this.supportedGaps = supportedGaps;
-		this.onGapLimitExceeded = onGapLimitExceeded;
+	public Gaps(Resortable onGapAdded) {
+		super(onGapAdded);
 		this.gaps = new CustomLinkedList();
 		this.iterator = gaps.iterator();
 	}
 	
-	/**
-	 * changes the amount of supported gaps. Triggers a resort if required by the new rule
-	 * @param supportedGaps the gaps to be supported or NO_GAP_LIMIT. Only accepts positive values.
-	 */
-	public void setSupportedGaps(int supportedGaps) {
-		if (supportedGaps < 0) {
-			throw new IllegalArgumentException("The Gap Limit can only be positive or NO_GAP_LIMIT");
-		}
-		
-		this.supportedGaps = supportedGaps;
-		
-		testResort();
-	}
-	
-	/**
-	 * 
-	 * @return the amount of supported gaps
-	 */
-	public int getSupportedGaps() {
-		return supportedGaps;
-	}
-	
-	/**
-	 * tests if the gap limit is exceeded and triggers a resort if required
-	 */
-	private void testResort() {
-		if (supportedGaps != NO_GAP_LIMIT && gaps.size() > supportedGaps) {
-			onGapLimitExceeded.resort();
-		}
-	}
-	
-	/**
-	 * returns the amount of gaps from the beginning to the given gap
-	 * @param listIndex
-	 * @return the amount of gaps
-	 */
-	public int getGapCount(int listIndex) {
-		return getArrayIndex(listIndex) - listIndex;
-	}
-	
 	/**
 	 * calculates the index in the array out of the listIndex. (arrayIndex = listIndex + gapsTilArrayIndex)
 	 * @param listIndex The ListIndex (The index requested by a user)
 	 * @return The ArrayIndex (The index the element is at in the array)
 	 */
+	@Override
 	public int getArrayIndex(int listIndex) {
-		int arrayIndex = listIndex;
-		
-		for (int gap: gaps) {
-			if (gap <= arrayIndex) {
-				arrayIndex++;
-			}else {
-				break;
+		// we start at the cursor, which is the position of the last translation or modification.
+		// gap - index is the amount of elements in front of the gap at the cursor (0 for the root)
+		if (iterator.value() - iterator.index() <= listIndex) {
+			// the element is behind the cursor, we move forward as long as the next gap is in front of the element
+			while (iterator.hasNext() && iterator.previewNext() - (iterator.index() + 1) <= listIndex) {
+				iterator.nextValue();
+			}
+		}else {
+			// the element is in front of the cursor, we move backwards until the gap is in front of the element
+			while (iterator.value() - iterator.index() > listIndex) {
+				iterator.previousValue();
 			}
 		}
 		
-		return arrayIndex;
+		// the cursor is at the last gap in front of the element
+		return listIndex + iterator.index() + 1;
 	}
 
+	@Override
+	public int peekArrayIndex(int listIndex) {
+		// a new iterator starts at the root, so the cursor does not move. The walk is limited to the
+		// amount of gaps, as the links may be inconsistent, if the gaps are modified at the same time
+		CustomLinkedIterator walk = gaps.iterator();
+		
+		for (int steps = gaps.size(); steps > 0 && walk.hasNext() && walk.previewNext() - (walk.index() + 1) <= listIndex; steps--) {
+			walk.nextValue();
+		}
+		
+		return listIndex + walk.index() + 1;
+	}
+	
 	public void toGapPosition(int gap) {
 		if (gaps.size() == 0) {
 			return;
@@ -113,14 +74,14 @@ final class Gaps implements GapInterface {
 
 		if (gap > iterator.value()) {
 			while (iterator.hasNext() && iterator.previewNext() <= gap) {
-				iterator.next();
+				iterator.nextValue();
 			}
 		}else if (gap < iterator.value()) {
 			while (iterator.hasPrevious() && iterator.previewPrevious() > gap) {
-				iterator.previous();
+				iterator.previousValue();
 			}
 			
-			iterator.previous();
+			iterator.previousValue();
 		}
 	}
 	
@@ -140,10 +101,31 @@ final class Gaps implements GapInterface {
 		// add the gap
 		iterator.add(gap);
 		
-		// if the limit is exceeded, trigger a resort
+		// inform the list, it may trigger a resort
 		testResort();
 	}
 	
+	@Override
+	public void addRange(int start, int end) {
+		boolean added = false;
+		
+		// the gaps are added one after another behind the cursor
+		toGapPosition(start - 1);
+		for (int gap = start; gap < end; gap++) {
+			if (!iterator.hasNext() || iterator.previewNext() != gap) {
+				iterator.add(gap);
+				added = true;
+			}
+			
+			iterator.nextValue();
+		}
+		
+		// inform the list once, it may trigger a resort
+		if (added) {
+			testResort();
+		}
+	}
+	
 	public void remove(int gap) {
 		toGapPosition(gap);
 		if (getElement() == gap) {
@@ -167,7 +149,7 @@ final class Gaps implements GapInterface {
 
 	@Override
 	public int next() {
-		return iterator.next();
+		return iterator.nextValue();
 	}
 
 	@Override
@@ -198,7 +180,7 @@ final class Gaps implements GapInterface {
 
 	@Override
 	public int previous() {
-		return iterator.previous();
+		return iterator.previousValue();
 	}
 
 	@Override
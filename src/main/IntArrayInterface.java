@@ -0,0 +1,45 @@
+package main;
+
+/**
+ * This array should store the elements of a list of int values with gaps, without boxing them
+ * @author RalfK
+ *
+ */
+interface IntArrayInterface extends ArrayInterface<Integer>, ChannelArray {
+	
+	/**
+	 * gets an Element for the given Position without boxing it
+	 * @param arrayIndex The index in this Array (not the List)
+	 * @return the Element
+	 */
+	int getInt(int arrayIndex);
+	
+	/**
+	 * sets an Element to the given position without boxing it
+	 * @param arrayIndex The index in this Array (not the List)
+	 * @param element the Element
+	 * @return the Element stored before
+	 */
+	int setInt(int arrayIndex, int element);
+	
+	/**
+	 * adds an Element to the given Position without boxing it
+	 * @param listIndex The index in the List (not the array)
+	 * @param gaps The amount of gaps before the element
+	 * @param element the Element
+	 */
+	void addInt(int listIndex, int gaps, int element);
+	
+	/**
+	 * removes an element from the given Position without boxing it
+	 * @param arrayIndex The index in this Array (not the List)
+	 * @return the Element
+	 */
+	int removeInt(int arrayIndex);
+	
+	/**
+	 * 
+	 * @return all elements without gaps in a new array
+	 */
+	int[] toIntArray();
+}
@@ -0,0 +1,45 @@
+package main;
+
+/**
+ * This array should store the elements of a list of long values with gaps, without boxing them
+ * @author RalfK
+ *
+ */
+interface LongArrayInterface extends ArrayInterface<Long>, ChannelArray {
+	
+	/**
+	 * gets an Element for the given Position without boxing it
+	 * @param arrayIndex The index in this Array (not the List)
+	 * @return the Element
+	 */
+	long getLong(int arrayIndex);
+	
+	/**
+	 * sets an Element to the given position without boxing it
+	 * @param arrayIndex The index in this Array (not the List)
+	 * @param element the Element
+	 * @return the Element stored before
+	 */
+	long setLong(int arrayIndex, long element);
+	
+	/**
+	 * adds an Element to the given Position without boxing it
+	 * @param listIndex The index in the List (not the array)
+	 * @param gaps The amount of gaps before the element
+	 * @param element the Element
+	 */
+	void addLong(int listIndex, int gaps, long element);
+	
+	/**
+	 * removes an element from the given Position without boxing it
+	 * @param arrayIndex The index in this Array (not the List)
+	 * @return the Element
+	 */
+	long removeLong(int arrayIndex);
+	
+	/**
+	 * 
+	 * @return all elements without gaps in a new array
+	 */
+	long[] toLongArray();
+}
@@ -0,0 +1,344 @@
+package main;
+
+import java.io.Closeable;
+import java.io.EOFException;
+import java.io.IOException;
+import java.io.UncheckedIOException;
+import java.nio.ByteBuffer;
+import java.nio.ByteOrder;
+import java.nio.MappedByteBuffer;
+import java.nio.channels.FileChannel;
+import java.nio.channels.FileChannel.MapMode;
+import java.util.Arrays;
+
+/**
+ * Stores the elements of a list with gaps in a memory-mapped file, so the list survives the process and
+ * can be reopened without loading it. All modifications are done in the mapping, a resort compacts the
+ * elements in place in the file.
+ *
+ * The file consists of a header, the storage (including the gaps) and the gaps as intervals of arrayIndexes.
+ * The header and the gaps are only written by force(), therefore the file is only consistent after it.
+ * The first modification after force() marks the file as modified, so a file, which was not forced after
+ * its last modification (for example because the process crashed), is rejected by open(). There is no
+ * checkpoint to recover: the elements are modified in place, so the state of the last force() is not kept.
+ * After a crash the whole list is lost, not only the modifications since the last force().
+ * @author RalfK
+ *
+ */
+final class MappedLongArray extends BufferLongArray implements Closeable {
+	/**
+	 * Identifies a file storing a MultiGappedList ("MGLLongs")
+	 */
+	static final long MAGIC = 0x4D474C4C6F6E6773L;
+	
+	/**
+	 * The version of the file format
+	 */
+	static final int VERSION = 2;
+	
+	/**
+	 * The state of a file, which was forced after its last modification
+	 */
+	static final int CLEAN = 0;
+	
+	/**
+	 * The state of a file, which was modified after the last force()
+	 */
+	static final int MODIFIED = 1;
+	
+	/**
+	 * The size of the header in bytes. It contains the magic, the version, the length, the capacity,
+	 * the amount of intervals of gaps and the state. The remaining bytes are reserved.
+	 */
+	static final int HEADER_SIZE = 32;
+	
+	/**
+	 * The position of the state in the header
+	 */
+	private static final int STATE_POSITION = 24;
+	
+	/**
+	 * The file. The storage is mapped behind the header
+	 */
+	private final FileChannel channel;
+	
+	/**
+	 * The capacity of a new file
+	 */
+	private final int initialCapacity;
+	
+	/**
+	 * The length read from the file, until it is restored
+	 */
+	private int storedLength;
+	
+	/**
+	 * The intervals of gaps read from the file (the first gap and the gap behind the last one), until they are restored
+	 */
+	private int[] storedRanges;
+	
+	/**
+	 * If the file is marked as modified
+	 */
+	private boolean modified;
+	
+	/**
+	 * If the file was closed
+	 */
+	private boolean closed;
+	
+	/**
+	 * Creates the array without accessing the file. It must be opened before it is used
+	 * @param gaps the gaps of the array
+	 * @param channel the file, which must be readable and writable
+	 * @param size the capacity, if the file is new
+	 * @param multiplier the multiplier used to extend the storage
+	 */
+	public MappedLongArray(GapInterface gaps, FileChannel channel, int size, byte multiplier) {
+		super(gaps, 0, multiplier, SEGMENT_SHIFT);
+		this.channel = channel;
+		this.initialCapacity = size;
+	}
+	
+	/**
+	 * maps the storage of the file and reads the header and the gaps. A new file gets an empty storage
+	 * @throws IOException if the file can not be read, does not contain a valid list or was modified after the last force()
+	 */
+	void open() throws IOException {
+		long fileSize = channel.size();
+		
+		if (fileSize == 0) {
+			array = map(initialCapacity);
+			storedLength = 0;
+			storedRanges = new int[0];
+			
+			// the header of the empty list, so the first modification can mark it
+			force();
+			return;
+		}
+		
+		ByteBuffer header = read(0, HEADER_SIZE);
+		if (header.getLong(0) != MAGIC) {
+			throw new IOException("The file does not contain a MultiGappedList");
+		}
+		if (header.getInt(8) != VERSION) {
+			throw new IOException("Unsupported version: " + header.getInt(8));
+		}
+		if (header.getInt(STATE_POSITION) != CLEAN) {
+			throw new IOException("The file was modified after the last force(), its contents may be lost");
+		}
+		
+		int length = header.getInt(12);
+		int capacity = header.getInt(16);
+		int ranges = header.getInt(20);
+		
+		// every interval of gaps contains at least one gap in front of the last element
+		if (capacity < 0 || length < 0 || length > capacity || ranges < 0 || ranges > length
+				|| fileSize < HEADER_SIZE + bytes(capacity) + (long) ranges * 2 * Integer.BYTES) {
+			throw new IOException("The file is corrupted");
+		}
+		
+		int[] stored = new int[ranges * 2];
+		read(HEADER_SIZE + bytes(capacity), stored.length * Integer.BYTES).asIntBuffer().get(stored);
+		
+		for (int i = 0; i < stored.length; i += 2) {
+			int previousEnd = i == 0 ? 0 : stored[i - 1];
+			
+			if (stored[i] < previousEnd || stored[i] >= stored[i + 1] || stored[i + 1] >= length) {
+				throw new IOException("The file is corrupted");
+			}
+		}
+		
+		array = map(capacity);
+		storedLength = length;
+		storedRanges = stored;
+	}
+	
+	/**
+	 * restores the length and the gaps read by open(). Adding the gaps informs the list
+	 */
+	void restore() {
+		setLength(storedLength);
+		
+		for (int i = 0; i < storedRanges.length; i += 2) {
+			gaps().addRange(storedRanges[i], storedRanges[i + 1]);
+		}
+		
+		storedRanges = null;
+	}
+	
+	/**
+	 * writes all modifications, the header and the gaps to the file. Afterwards the file is consistent
+	 * @throws IOException if the file can not be written
+	 */
+	void force() throws IOException {
+		if (closed) {
+			throw new IllegalStateException("The array is closed");
+		}
+		
+		for (ByteBuffer segment : array) {
+			((MappedByteBuffer) segment).force();
+		}
+		
+		// the gaps are stored behind the storage, the file ends behind them
+		int[] ranges = ranges();
+		long end = HEADER_SIZE + bytes(capacity());
+		ByteBuffer tail = ByteBuffer.allocate(ranges.length * Integer.BYTES).order(ByteOrder.LITTLE_ENDIAN);
+		tail.asIntBuffer().put(ranges);
+		write(tail, end);
+		channel.truncate(end + tail.capacity());
+		
+		// the header is written last, so it describes the storage and the gaps written before
+		ByteBuffer header = ByteBuffer.allocate(HEADER_SIZE).order(ByteOrder.LITTLE_ENDIAN);
+		header.putLong(0, MAGIC);
+		header.putInt(8, VERSION);
+		header.putInt(12, length());
+		header.putInt(16, capacity());
+		header.putInt(20, ranges.length / 2);
+		header.putInt(STATE_POSITION, CLEAN);
+		write(header, 0);
+		
+		channel.force(true);
+		modified = false;
+	}
+	
+	/**
+	 * marks the file as modified, before it is modified the first time after force(). The mark is written
+	 * to the disk immediately, so open() rejects the file, if it is not forced again
+	 */
+	void modifying() {
+		// restoring the list does not modify the file
+		if (modified || closed || storedRanges != null) {
+			return;
+		}
+		
+		try {
+			ByteBuffer state = ByteBuffer.allocate(Integer.BYTES).order(ByteOrder.LITTLE_ENDIAN);
+			state.putInt(0, MODIFIED);
+			write(state, STATE_POSITION);
+			channel.force(false);
+		}catch (IOException e) {
+			throw new UncheckedIOException(e);
+		}
+		
+		modified = true;
+	}
+	
+	/**
+	 *
+	 * @return the intervals of consecutive gaps (the first gap and the gap behind the last one)
+	 */
+	private int[] ranges() {
+		GapInterface gaps = gaps();
+		int[] ranges = new int[gaps.size() * 2];
+		int n = 0;
+		
+		gaps.toRoot();
+		while (gaps.hasNext()) {
+			int gap = gaps.next();
+			
+			if (n > 0 && ranges[n - 1] == gap) {
+				ranges[n - 1]++;
+			}else {
+				ranges[n++] = gap;
+				ranges[n++] = gap + 1;
+			}
+		}
+		
+		return Arrays.copyOf(ranges, n);
+	}
+	
+	/**
+	 * maps the storage of the file, every segment separately. The file grows, if it is too small
+	 * @param length the capacity of the storage
+	 * @return the mappings
+	 * @throws IOException if the file can not be mapped
+	 */
+	private ByteBuffer[] map(int length) throws IOException {
+		int[] lengths = segmentLengths(length);
+		ByteBuffer[] storage = new ByteBuffer[lengths.length];
+		
+		for (int i = 0; i < storage.length; i++) {
+			long position = HEADER_SIZE + bytes(i << segmentShift);
+			storage[i] = channel.map(MapMode.READ_WRITE, position, bytes(lengths[i])).order(ByteOrder.LITTLE_ENDIAN);
+		}
+		
+		return storage;
+	}
+	
+	private ByteBuffer read(long position, int size) throws IOException {
+		ByteBuffer buffer = ByteBuffer.allocate(size).order(ByteOrder.LITTLE_ENDIAN);
+		
+		while (buffer.hasRemaining()) {
+			if (channel.read(buffer, position + buffer.position()) < 0) {
+				throw new EOFException();
+			}
+		}
+		
+		buffer.flip();
+		return buffer;
+	}
+	
+	private void write(ByteBuffer buffer, long position) throws IOException {
+		while (buffer.hasRemaining()) {
+			channel.write(buffer, position + buffer.position());
+		}
+	}
+	
+	@Override
+	ByteBuffer[] allocate(int length) {
+		if (closed) {
+			throw new IllegalStateException("The array is closed");
+		}
+		
+		// the superclass allocates a storage before the file is known, it is replaced when the file is opened
+		if (channel == null) {
+			return new ByteBuffer[0];
+		}
+		
+		try {
+			return map(length);
+		}catch (IOException e) {
+			throw new UncheckedIOException(e);
+		}
+	}
+	
+	@Override
+	public boolean merge(int[] removed, int[] insertAt, Object[] inserted) {
+		// a new storage would map the same part of the file, so the elements would overwrite each other
+		return false;
+	}
+	
+	@Override
+	boolean mayOverlap(ByteBuffer[] src, ByteBuffer[] dst) {
+		// all storages map the same part of the file
+		return true;
+	}
+	
+	@Override
+	void free(ByteBuffer[] storage) {
+		freeDirect(storage);
+	}
+	
+	/**
+	 * writes all modifications to the file and closes it. Afterwards the array must not be used anymore
+	 * @throws IOException if the file can not be written
+	 */
+	@Override
+	public void close() throws IOException {
+		if (closed) {
+			return;
+		}
+		
+		try {
+			force();
+		}finally {
+			free(array);
+			closed = true;
+			
+			// the unmapped memory must never be accessed, an empty storage rejects all accesses instead
+			array = new ByteBuffer[0];
+			channel.close();
+		}
+	}
+}
@@ -0,0 +1,100 @@
+package main;
+
+/**
+ * A MultiGappedList storing its elements in a primitive double array. It behaves like a
+ * {@code MultiGappedList<Double>} with the same gaps and resorts, but the elements are not boxed.
+ * Use the methods getDouble, setDouble, addDouble and removeDouble to avoid boxing completely.
+ * Null is not supported.
+ * @author RalfK
+ *
+ */
+public class MultiGappedDoubleList extends AbstractMultiGappedPrimitiveList<Double, DoubleArrayInterface> {
+	private static final long serialVersionUID = -1642731654064502363L;
+	
+	public MultiGappedDoubleList() {
+		this(DEFAULT_LENGTH);
+	}
+	
+	public MultiGappedDoubleList(int length) {
+		this(length, ResortPolicy.gapLimit(DEFAULT_GAPS_SUPPORTED), DEFAULT_GAP_STRATEGY);
+	}
+	
+	public MultiGappedDoubleList(int length, ResortPolicy resortPolicy, GapStrategy gapStrategy) {
+		super(resortPolicy, gapStrategy, gaps -> new CustomDoubleArray(gaps, length, AbstractCustomArray.DEFAULT_MULTIPLIER));
+	}
+	
+	@Override
+	ArrayInterface<Double> createArray(GapInterface gaps, int length, byte multiplier) {
+		return new CustomDoubleArray(gaps, length, multiplier);
+	}
+	
+	@Override
+	int channelType() {
+		return ChannelFormat.DOUBLE;
+	}
+	
+	/**
+	 * 
+	 * @param index the listIndex
+	 * @return the element at the given index
+	 */
+	public double getDouble(int index) {
+		double element = elements().getDouble(arrayIndex(index));
+		countReads(1);
+		afterRead();
+		
+		return element;
+	}
+	
+	/**
+	 * replaces the element at the given index
+	 * @param index the listIndex
+	 * @param element the new element
+	 * @return the element stored before
+	 */
+	public double setDouble(int index, double element) {
+		double old = mutableElements().setDouble(arrayIndex(index), element);
+		afterRead();
+		
+		return old;
+	}
+	
+	/**
+	 * adds an element to the end of the list
+	 * @param element the element
+	 */
+	public void addDouble(double element) {
+		addDouble(size(), element);
+	}
+	
+	/**
+	 * adds an element at the given index
+	 * @param index the listIndex
+	 * @param element the element
+	 */
+	public void addDouble(int index, double element) {
+		mutableElements().addDouble(index, arrayIndex(index) - index, element);
+		resized(1);
+	}
+	
+	/**
+	 * removes the element at the given index
+	 * @param index the listIndex
+	 * @return the removed element
+	 */
+	public double removeDouble(int index) {
+		double removed = mutableElements().removeDouble(arrayIndex(index));
+		resized(-1);
+		
+		return removed;
+	}
+	
+	/**
+	 * 
+	 * @return all elements in a new array
+	 */
+	public double[] toDoubleArray() {
+		countReads(size());
+		return elements().toDoubleArray();
+	}
+}
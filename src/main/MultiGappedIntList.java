@@ -0,0 +1,100 @@
+package main;
+
+/**
+ * A MultiGappedList storing its elements in a primitive int array. It behaves like a
+ * {@code MultiGappedList<Integer>} with the same gaps and resorts, but the elements are not boxed.
+ * Use the methods getInt, setInt, addInt and removeInt to avoid boxing completely.
+ * Null is not supported.
+ * @author RalfK
+ *
+ */
+public class MultiGappedIntList extends AbstractMultiGappedPrimitiveList<Integer, IntArrayInterface> {
+	private static final long serialVersionUID = 8568708958991338443L;
+	
+	public MultiGappedIntList() {
+		this(DEFAULT_LENGTH);
+	}
+	
+	public MultiGappedIntList(int length) {
+		this(length, ResortPolicy.gapLimit(DEFAULT_GAPS_SUPPORTED), DEFAULT_GAP_STRATEGY);
+	}
+	
+	public MultiGappedIntList(int length, ResortPolicy resortPolicy, GapStrategy gapStrategy) {
+		super(resortPolicy, gapStrategy, gaps -> new CustomIntArray(gaps, length, AbstractCustomArray.DEFAULT_MULTIPLIER));
+	}
+	
+	@Override
+	ArrayInterface<Integer> createArray(GapInterface gaps, int length, byte multiplier) {
+		return new CustomIntArray(gaps, length, multiplier);
+	}
+	
+	@Override
+	int channelType() {
+		return ChannelFormat.INT;
+	}
+	
+	/**
+	 * 
+	 * @param index the listIndex
+	 * @return the element at the given index
+	 */
+	public int getInt(int index) {
+		int element = elements().getInt(arrayIndex(index));
+		countReads(1);
+		afterRead();
+		
+		return element;
+	}
+	
+	/**
+	 * replaces the element at the given index
+	 * @param index the listIndex
+	 * @param element the new element
+	 * @return the element stored before
+	 */
+	public int setInt(int index, int element) {
+		int old = mutableElements().setInt(arrayIndex(index), element);
+		afterRead();
+		
+		return old;
+	}
+	
+	/**
+	 * adds an element to the end of the list
+	 * @param element the element
+	 */
+	public void addInt(int element) {
+		addInt(size(), element);
+	}
+	
+	/**
+	 * adds an element at the given index
+	 * @param index the listIndex
+	 * @param element the element
+	 */
+	public void addInt(int index, int element) {
+		mutableElements().addInt(index, arrayIndex(index) - index, element);
+		resized(1);
+	}
+	
+	/**
+	 * removes the element at the given index
+	 * @param index the listIndex
+	 * @return the removed element
+	 */
+	public int removeInt(int index) {
+		int removed = mutableElements().removeInt(arrayIndex(index));
+		resized(-1);
+		
+		return removed;
+	}
+	
+	/**
+	 * 
+	 * @return all elements in a new array
+	 */
+	public int[] toIntArray() {
+		countReads(size());
+		return elements().toIntArray();
+	}
+}
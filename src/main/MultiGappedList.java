@@ -1,23 +1,90 @@
 package main;
 
+import java.io.IOException;
+import java.io.InvalidObjectException;
+import java.io.ObjectInputStream;
+import java.io.ObjectOutputStream;
+import java.lang.reflect.Array;
 import java.util.AbstractList;
+import java.util.Arrays;
 import java.util.Collection;
+import java.util.Comparator;
+import java.util.ConcurrentModificationException;
 import java.util.Iterator;
 import java.util.List;
 import java.util.ListIterator;
 import java.util.NoSuchElementException;
+import java.util.Objects;
 import java.util.RandomAccess;
+import java.util.Spliterator;
+import java.util.function.Consumer;
+import java.util.function.Function;
+import java.util.function.Predicate;
+import java.util.function.UnaryOperator;
 
 public class MultiGappedList<E> extends AbstractList<E> implements List<E>, RandomAccess, Cloneable, java.io.Serializable, Resortable{
-	private static final long serialVersionUID = -7683808877465290651L;
+	private static final long serialVersionUID = 6591481448438487407L;
 	public static final int DEFAULT_GAPS_SUPPORTED = 10;
-	public static final int NO_GAP_LIMIT = Gaps.NO_GAP_LIMIT;
+	public static final int NO_GAP_LIMIT = ResortPolicy.NO_GAP_LIMIT;
 	public static final int DEFAULT_LENGTH = 100;
+	public static final GapStrategy DEFAULT_GAP_STRATEGY = GapStrategy.LINKED;
+	public static final int NO_INCREMENTAL_RESORT = 0;
 	
-	private ArrayInterface<E> array;
-	private int size;
+	/**
+	 * A batch is merged in a single pass, if it contains at least one edit per MERGE_RATIO elements.
+	 * Smaller batches are applied edit by edit
+	 */
+	static final int MERGE_RATIO = 32;
+	
+	/**
+	 * Reading asks the resort policy only once per READS_PER_RESORT_TEST reads, as asking it may be expensive
+	 * (for example reading the clock)
+	 */
+	static final int READS_PER_RESORT_TEST = 64;
+	
+	/**
+	 * The array and the gaps are not serialized, only the elements are written (see writeObject)
+	 */
+	private transient ArrayInterface<E> array;
+	private transient int size;
+	
+	/**
+	 * The amount of resorts. Iterators use it to detect changes of the arrangement of the array
+	 */
+	private transient int resorts;
 	
-	private Gaps gaps;
+	/**
+	 * The maximum amount of elements moved by the incremental resort per modification or NO_INCREMENTAL_RESORT
+	 */
+	private int incrementalResort;
+	
+	/**
+	 * if a resort was required and the incremental resort is not finished yet
+	 */
+	private transient boolean resortPending;
+	
+	/**
+	 * The reads since the resort policy was asked the last time by a read
+	 */
+	private transient int readsSinceResortTest;
+	
+	/**
+	 * if the array and the gaps are shared with a snapshot. They are copied before the next modification
+	 */
+	private transient boolean shared;
+	
+	/**
+	 * if removeIf tests the elements. Reading the list must not resort it meanwhile
+	 */
+	private transient boolean filtering;
+	
+	/**
+	 * Decides when the list gets resorted
+	 */
+	private ResortPolicy resortPolicy;
+	
+	private transient AbstractGaps gaps;
+	private GapStrategy gapStrategy;
 	
 	public MultiGappedList() {
 		this(DEFAULT_LENGTH);
@@ -31,23 +98,226 @@ public class MultiGappedList<E> extends AbstractList<E> implements List<E>, Rand
 		this(length, gapsSupported, CustomArray.DEFAULT_MULTIPLIER);
 	}
 	
+	public MultiGappedList(GapStrategy gapStrategy) {
+		this(DEFAULT_LENGTH, DEFAULT_GAPS_SUPPORTED, gapStrategy);
+	}
+	
+	public MultiGappedList(int length, int gapsSupported, GapStrategy gapStrategy) {
+		this(length, gapsSupported, CustomArray.DEFAULT_MULTIPLIER, gapStrategy);
+	}
+	
 	public MultiGappedList(int length, int gapsSupported, byte lengthMultiplier) {
-		this.gaps = new Gaps(gapsSupported, this);
+		this(length, gapsSupported, lengthMultiplier, DEFAULT_GAP_STRATEGY);
+	}
+	
+	public MultiGappedList(int length, int gapsSupported, byte lengthMultiplier, GapStrategy gapStrategy) {
+		this(length, ResortPolicy.gapLimit(gapsSupported), lengthMultiplier, gapStrategy);
+	}
+	
+	public MultiGappedList(int length, ResortPolicy resortPolicy, GapStrategy gapStrategy) {
+		this(length, resortPolicy, CustomArray.DEFAULT_MULTIPLIER, gapStrategy);
+	}
+	
+	public MultiGappedList(int length, ResortPolicy resortPolicy, byte lengthMultiplier, GapStrategy gapStrategy) {
+		this(resortPolicy, gapStrategy, gaps -> new CustomArray<E>(gaps, length, lengthMultiplier));
+	}
+	
+	/**
+	 * Creates a list storing its elements in the array created by the given factory
+	 * @param resortPolicy Decides when the list gets resorted
+	 * @param gapStrategy Defines how the gaps are stored
+	 * @param arrayFactory creates the array using the given gaps
+	 */
+	MultiGappedList(ResortPolicy resortPolicy, GapStrategy gapStrategy, Function<GapInterface, ArrayInterface<E>> arrayFactory) {
+		this.gapStrategy = gapStrategy;
+		this.gaps = gapStrategy.create(this::testResort);
 		
-		this.array = new CustomArray<E>(gaps, length, lengthMultiplier);
+		this.array = arrayFactory.apply(gaps);
 		this.size = 0;
+		this.incrementalResort = NO_INCREMENTAL_RESORT;
+		this.resortPolicy = resortPolicy;
+	}
+	
+	/**
+	 * creates an empty array for a deserialized list. Subclasses storing their elements differently must override it
+	 * @param gaps the gaps of the array
+	 * @param length the length of the array
+	 * @param multiplier the multiplier used to extend the array
+	 * @return the array
+	 */
+	ArrayInterface<E> createArray(GapInterface gaps, int length, byte multiplier) {
+		return new CustomArray<E>(gaps, length, multiplier);
+	}
+	
+	/**
+	 * writes the settings of the list and its elements without the gaps. Therefore the size of the
+	 * stream only depends on the size of the list, not on the capacity of the array or the gaps
+	 * @param out the stream
+	 * @throws IOException if the stream can not be written
+	 */
+	private void writeObject(ObjectOutputStream out) throws IOException {
+		out.defaultWriteObject();
+		out.writeInt(size);
+		out.writeByte(array.getMultiplier());
+		array.writeElements(out);
+	}
+	
+	/**
+	 * reads a list written by writeObject into a new array without gaps
+	 * @param in the stream
+	 * @throws IOException if the stream can not be read
+	 * @throws ClassNotFoundException if the class of an element is not found
+	 */
+	private void readObject(ObjectInputStream in) throws IOException, ClassNotFoundException {
+		in.defaultReadObject();
+		int size = in.readInt();
+		byte multiplier = in.readByte();
+		
+		if (size < 0 || multiplier < 2 || gapStrategy == null || resortPolicy == null) {
+			throw new InvalidObjectException("The list is corrupted");
+		}
+		
+		this.gaps = gapStrategy.create(this::testResort);
+		// like a new list, the array leaves room for adding elements
+		this.array = createArray(gaps, Math.max(size, DEFAULT_LENGTH), multiplier);
+		this.array.readElements(in, size);
+		this.size = size;
+		
+		// the list does not contain gaps
+		resortPolicy.onResort();
+	}
+	
+	/**
+	 * An immutable view of the list at the time it was created. It shares the array and the gaps with the list,
+	 * until the list is modified. Reading does not change anything, therefore multiple threads may read it at once.
+	 * @author RalfK
+	 *
+	 * @param <E> the type of the elements
+	 */
+	static final class Snapshot<E> extends AbstractList<E> implements RandomAccess {
+		private final ArrayInterface<E> array;
+		private final GapInterface gaps;
+		private final int size;
+		
+		Snapshot(ArrayInterface<E> array, GapInterface gaps, int size) {
+			this.array = array;
+			this.gaps = gaps;
+			this.size = size;
+		}
+		
+		@Override
+		public E get(int index) {
+			return peek(array, gaps, size, index);
+		}
+		
+		@Override
+		public int size() {
+			return size;
+		}
 	}
 	
+	/**
+	 * Iterates over the list by walking the array and the gaps together. The arrayIndex of
+	 * the current element is kept, therefore a step only needs to skip the gaps reached instead
+	 * of translating the listIndex again. A full iteration needs O(size + gaps).
+	 * @author RalfK
+	 *
+	 */
 	public class GappedIterator implements Iterator<E> {
-		private int listIndex;
+		/**
+		 * The listIndex of the element returned by the next call of next()
+		 */
+		private int cursor;
+		
+		/**
+		 * The listIndex of the element returned last or -1, if it was removed or there is none
+		 */
+		private int lastReturned;
+		
+		/**
+		 * The arrayIndex of the element returned last
+		 */
+		private int lastArrayIndex;
+		
+		/**
+		 * The arrayIndex of the element in front of the cursor (-1 if the cursor is at the beginning)
+		 */
+		private int position;
+		
+		/**
+		 * The smallest gap behind the position
+		 */
+		private int nextGap;
+		
+		/**
+		 * The greatest gap in front of the position (-1 if there is none)
+		 */
+		private int previousGap;
+		
+		/**
+		 * if the position and the gaps are up to date
+		 */
+		private boolean resolved;
+		
+		/**
+		 * The modCount of the list, which this iterator expects
+		 */
+		private int expectedModCount;
+		
+		/**
+		 * The amount of resorts of the list, at the time the position was calculated
+		 */
+		private int expectedResorts;
 		
 		public GappedIterator(int listIndex) {
-			this.listIndex = listIndex - 1;
+			if (listIndex < 0 || listIndex > size) {
+				throw new IndexOutOfBoundsException("Index: " + listIndex + ", Size: " + size);
+			}
+			
+			this.cursor = listIndex;
+			this.lastReturned = -1;
+			this.resolved = false;
+			this.expectedModCount = modCount;
+		}
+		
+		final void checkForComodification() {
+			if (modCount != expectedModCount) {
+				throw new ConcurrentModificationException();
+			}
+		}
+		
+		/**
+		 * calculates the position and the surrounding gaps, if they are not up to date.
+		 * This is only required after the iterator was created or the arrangement of the array changed.
+		 */
+		private void resolve() {
+			checkForComodification();
+			
+			if (resolved && expectedResorts == resorts) {
+				return;
+			}
+			
+			position = cursor == 0 ? -1 : arrayIndex(cursor - 1);
+			nextGap = gaps.nextGap(position + 1);
+			previousGap = gaps.previousGap(position - 1);
+			
+			expectedResorts = resorts;
+			resolved = true;
+		}
+		
+		/**
+		 * the list was modified by this iterator. The position needs to be calculated again
+		 */
+		private void modified() {
+			afterModification();
+			expectedModCount = ++modCount;
+			lastReturned = -1;
+			resolved = false;
 		}
 
 		@Override
 		public boolean hasNext() {
-			return listIndex + 1 < size();
+			return cursor < size;
 		}
 
 		@Override
@@ -56,14 +326,106 @@ public class MultiGappedList<E> extends AbstractList<E> implements List<E>, Rand
 				throw new NoSuchElementException();
 			}
 			
-			return array.getElement(gaps.getArrayIndex(++listIndex));
+			resolve();
+			
+			// the next element is behind the position, but we need to skip the gaps
+			int arrayIndex = position + 1;
+			while (arrayIndex == nextGap) {
+				previousGap = arrayIndex;
+				nextGap = gaps.nextGap(++arrayIndex);
+			}
+			
+			position = arrayIndex;
+			lastArrayIndex = arrayIndex;
+			lastReturned = cursor++;
+			countReads(1);
+			
+			return array.getElement(arrayIndex);
+		}
+		
+		public boolean hasPrevious() {
+			return cursor > 0;
+		}
+		
+		public E previous() {
+			if (!hasPrevious()) {
+				throw new NoSuchElementException();
+			}
+			
+			resolve();
+			
+			// the previous element is at the position, the position moves to the element in front of it
+			lastArrayIndex = position;
+			lastReturned = --cursor;
+			
+			int arrayIndex = position - 1;
+			while (arrayIndex >= 0 && arrayIndex == previousGap) {
+				nextGap = arrayIndex;
+				previousGap = gaps.previousGap(--arrayIndex);
+			}
+			position = arrayIndex;
+			countReads(1);
+			
+			return array.getElement(lastArrayIndex);
+		}
+		
+		public int nextIndex() {
+			return cursor;
+		}
+
+		public int previousIndex() {
+			return cursor - 1;
 		}
 		
 		@Override
 		public void remove() {
-			array.removeElement(gaps.getArrayIndex(listIndex));
+			if (lastReturned < 0) {
+				throw new IllegalStateException();
+			}
+			checkForComodification();
+			
+			// copying a shared array or a resort moves the element
+			unshare();
+			if (expectedResorts != resorts) {
+				lastArrayIndex = arrayIndex(lastReturned);
+			}
+			
+			array.removeElement(lastArrayIndex);
 			size--;
-			listIndex--;
+			
+			// if the element was returned by next(), the cursor moves back
+			if (lastReturned < cursor) {
+				cursor--;
+			}
+			
+			modified();
+		}
+		
+		public void set(E e) {
+			if (lastReturned < 0) {
+				throw new IllegalStateException();
+			}
+			checkForComodification();
+			checkElement(e);
+			
+			unshare();
+			if (expectedResorts != resorts) {
+				lastArrayIndex = arrayIndex(lastReturned);
+			}
+			
+			array.setElement(lastArrayIndex, e);
+		}
+		
+		public void add(E e) {
+			checkForComodification();
+			checkElement(e);
+			unshare();
+			
+			array.addElement(cursor, gaps.getGapCount(cursor), e);
+			size++;
+			cursor++;
+			
+			modified();
 		}
 	}
 	
@@ -71,41 +433,571 @@ public class MultiGappedList<E> extends AbstractList<E> implements List<E>, Rand
 		public GappedListIterator(int index) {
 			super(index);
 		}
+	}
+	
+	/**
+	 * Splits the list into halves of listIndexes and walks the array of each half without translating the indexes.
+	 * The gaps are copied once, when the spliterator is used the first time. This allocates an int for every gap
+	 * and moves the cursor of the gaps behind the last one, like any other walk over the gaps. Every split point
+	 * is found by a binary search in the copy, afterwards the gaps in front of the next element are known.
+	 * After the first use traversing does not change anything (not even the cursor of the gaps), so the halves
+	 * can be traversed by different threads. The list must not be modified or resorted meanwhile.
+	 * @author RalfK
+	 *
+	 */
+	final class GappedSpliterator implements Spliterator<E> {
+		/**
+		 * The listIndex of the next element
+		 */
+		private int index;
+		
+		/**
+		 * The listIndex behind the last element or -1, until the spliterator is used the first time
+		 */
+		private int fence;
+		
+		/**
+		 * The arrayIndex of the next element or of a gap in front of it
+		 */
+		private int arrayIndex;
+		
+		/**
+		 * The index of the first gap behind arrayIndex - 1 in gapIndexes
+		 */
+		private int gap;
+		
+		/**
+		 * All gaps of the array in ascending order (shared by all halves)
+		 */
+		private int[] gapIndexes;
+		private ArrayInterface<E> elements;
+		private int expectedModCount;
+		private int expectedResorts;
+		
+		GappedSpliterator() {
+			this.fence = -1;
+		}
+		
+		private GappedSpliterator(GappedSpliterator parent, int index, int fence, int arrayIndex, int gap) {
+			this.index = index;
+			this.fence = fence;
+			this.arrayIndex = arrayIndex;
+			this.gap = gap;
+			this.gapIndexes = parent.gapIndexes;
+			this.elements = parent.elements;
+			this.expectedModCount = parent.expectedModCount;
+			this.expectedResorts = parent.expectedResorts;
+		}
+		
+		/**
+		 * binds the spliterator to the current state of the list, when it is used the first time. The gaps are
+		 * copied in O(gaps) and the cursor of the gaps is moved, so the first use must not run concurrently with
+		 * other reads of the list. The copy is shared by all halves, so it is only made once
+		 * @return the listIndex behind the last element
+		 */
+		private int getFence() {
+			if (fence < 0) {
+				gapIndexes = new int[gaps.size()];
+				
+				gaps.toRoot();
+				for (int i = 0; gaps.hasNext(); i++) {
+					gapIndexes[i] = gaps.next();
+				}
+				
+				elements = array;
+				expectedModCount = modCount;
+				expectedResorts = resorts;
+				fence = size;
+				
+				// the traversal may continue in other threads, so all reads are counted here
+				countReads(size);
+			}
+			
+			return fence;
+		}
+		
+		private void checkForComodification() {
+			if (modCount != expectedModCount || resorts != expectedResorts) {
+				throw new ConcurrentModificationException();
+			}
+		}
 		
 		@Override
-		public boolean hasPrevious() {
-			return super.listIndex >= 0;
+		public Spliterator<E> trySplit() {
+			int hi = getFence();
+			int mid = (index + hi) >>> 1;
+			if (index >= mid) {
+				return null;
+			}
+			
+			// the gap j is in front of the listIndex, if less than listIndex elements are in front of it.
+			// This is true for all gaps up to the split point, so it is found by a binary search
+			int low = gap;
+			int high = gapIndexes.length;
+			while (low < high) {
+				int m = (low + high) >>> 1;
+				
+				if (gapIndexes[m] - m <= mid) {
+					low = m + 1;
+				}else {
+					high = m;
+				}
+			}
+			
+			GappedSpliterator prefix = new GappedSpliterator(this, index, mid, arrayIndex, gap);
+			index = mid;
+			arrayIndex = mid + low;
+			gap = low;
+			
+			return prefix;
 		}
-
+		
 		@Override
-		public E previous() {
-			return array.getElement(gaps.getArrayIndex(super.listIndex--));
+		public boolean tryAdvance(Consumer<? super E> action) {
+			Objects.requireNonNull(action);
+			if (index >= getFence()) {
+				return false;
+			}
+			
+			while (gap < gapIndexes.length && gapIndexes[gap] == arrayIndex) {
+				gap++;
+				arrayIndex++;
+			}
+			
+			E element = elements.getElement(arrayIndex++);
+			index++;
+			action.accept(element);
+			checkForComodification();
+			
+			return true;
 		}
-
+		
 		@Override
-		public int nextIndex() {
-			return super.listIndex + 1;
+		public void forEachRemaining(Consumer<? super E> action) {
+			Objects.requireNonNull(action);
+			int hi = getFence();
+			
+			// the intervals between the gaps are walked without looking at the gaps
+			while (index < hi) {
+				while (gap < gapIndexes.length && gapIndexes[gap] == arrayIndex) {
+					gap++;
+					arrayIndex++;
+				}
+				
+				int end = gap < gapIndexes.length ? Math.min(gapIndexes[gap], arrayIndex + hi - index) : arrayIndex + hi - index;
+				index += end - arrayIndex;
+				
+				for (; arrayIndex < end; arrayIndex++) {
+					action.accept(elements.getElement(arrayIndex));
+				}
+			}
+			
+			checkForComodification();
 		}
-
+		
+		@Override
+		public long estimateSize() {
+			return getFence() - index;
+		}
+		
+		@Override
+		public int characteristics() {
+			return Spliterator.ORDERED | Spliterator.SIZED | Spliterator.SUBSIZED;
+		}
+	}
+	
+	/**
+	 * Collects edits of the list and applies them at once. All indexes refer to the list as it was, when
+	 * the batch was created. Elements inserted at the same index keep the order they were added in.
+	 * Each element can be removed or replaced once.
+	 * 
+	 * The edits are sorted by their index. Large batches are merged with the array in a single pass, which
+	 * moves every element at most once and removes all gaps. Small batches are applied from the back to
+	 * the front, so the indexes of the edits not applied yet stay valid.
+	 * The list must not be modified, until the batch is applied.
+	 * @author RalfK
+	 *
+	 */
+	public final class Batch {
+		/**
+		 * The maximum amount of edits of a batch (the sequence number of an edit has 30 bits)
+		 */
+		private static final int MAX_EDITS = 1 << 30;
+		
+		/**
+		 * The kinds of the edits. Edits at the same index are applied in this order
+		 */
+		private static final int INSERT = 0;
+		private static final int SET = 1;
+		private static final int REMOVE = 2;
+		
+		/**
+		 * The edits as index (32 bits), kind (2 bits) and sequence number (30 bits), so sorting them
+		 * sorts them by their index and kind, without changing the order of the inserts
+		 */
+		private long[] edits;
+		
+		/**
+		 * The elements of the edits by their sequence number
+		 */
+		private Object[] elements;
+		private int count;
+		
+		private final int expectedModCount;
+		private final int expectedSize;
+		private boolean applied;
+		
+		private Batch() {
+			this.edits = new long[16];
+			this.elements = new Object[16];
+			this.expectedModCount = modCount;
+			this.expectedSize = size;
+		}
+		
+		/**
+		 * inserts an element in front of the element at the given index
+		 * @param index the listIndex (the size of the list to append it)
+		 * @param element the element
+		 * @return this batch
+		 */
+		public Batch add(int index, E element) {
+			checkElement(element);
+			return edit(Objects.checkIndex(index, expectedSize + 1), INSERT, element);
+		}
+		
+		/**
+		 * replaces the element at the given index
+		 * @param index the listIndex
+		 * @param element the new element
+		 * @return this batch
+		 */
+		public Batch set(int index, E element) {
+			checkElement(element);
+			return edit(Objects.checkIndex(index, expectedSize), SET, element);
+		}
+		
+		/**
+		 * removes the element at the given index
+		 * @param index the listIndex
+		 * @return this batch
+		 */
+		public Batch remove(int index) {
+			return edit(Objects.checkIndex(index, expectedSize), REMOVE, null);
+		}
+		
+		private Batch edit(int index, int kind, E element) {
+			if (applied) {
+				throw new IllegalStateException("The batch was already applied");
+			}
+			if (count == MAX_EDITS) {
+				throw new IllegalStateException("A batch supports at most " + MAX_EDITS + " edits");
+			}
+			
+			if (count == edits.length) {
+				int length = (int) Math.min(MAX_EDITS, (long) count * 2);
+				edits = Arrays.copyOf(edits, length);
+				elements = Arrays.copyOf(elements, length);
+			}
+			
+			edits[count] = (long) index << 32 | (long) kind << 30 | count;
+			elements[count++] = element;
+			return this;
+		}
+		
+		/**
+		 * applies all edits to the list. A batch can only be applied once
+		 * @throws ConcurrentModificationException if the list was modified since the batch was created
+		 * @throws IllegalArgumentException if an element is removed or replaced more than once
+		 */
+		public void apply() {
+			if (applied) {
+				throw new IllegalStateException("The batch was already applied");
+			}
+			if (modCount != expectedModCount) {
+				throw new ConcurrentModificationException();
+			}
+			
+			long[] sorted = Arrays.copyOf(edits, count);
+			Arrays.sort(sorted);
+			
+			int changes = 0;
+			for (int e = 0; e < sorted.length; e++) {
+				if (kind(sorted[e]) == INSERT) {
+					continue;
+				}
+				
+				if (e > 0 && kind(sorted[e - 1]) != INSERT && index(sorted[e - 1]) == index(sorted[e])) {
+					throw new IllegalArgumentException("The element at " + index(sorted[e]) + " is removed or replaced more than once");
+				}
+				changes++;
+			}
+			
+			// a rejected batch did not change the list, so it is only marked as applied after the validation
+			applied = true;
+			if (sorted.length == 0) {
+				return;
+			}
+			
+			if ((long) sorted.length * MERGE_RATIO >= size && merge(sorted, changes)) {
+				return;
+			}
+			
+			// applying the edits from the back to the front does not move the elements in front of them
+			for (int e = sorted.length - 1; e >= 0; e--) {
+				long edit = sorted[e];
+				@SuppressWarnings("unchecked")
+				E element = (E) elements[sequence(edit)];
+				
+				switch (kind(edit)) {
+				case INSERT:
+					MultiGappedList.this.add(index(edit), element);
+					break;
+				case SET:
+					MultiGappedList.this.set(index(edit), element);
+					break;
+				default:
+					MultiGappedList.this.remove(index(edit));
+				}
+			}
+		}
+		
+		/**
+		 * merges the sorted edits with the array
+		 * @param sorted the edits
+		 * @param changes the amount of replaced or removed elements
+		 * @return false, if the array can not be merged
+		 */
+		private boolean merge(long[] sorted, int changes) {
+			int[] removed = new int[changes];
+			int[] insertAt = new int[sorted.length - changes + countSets(sorted)];
+			Object[] inserted = new Object[insertAt.length];
+			int r = 0;
+			int i = 0;
+			
+			// a replaced element is removed, the new element is inserted behind the inserts in front of it
+			for (long edit : sorted) {
+				int kind = kind(edit);
+				
+				if (kind != REMOVE) {
+					insertAt[i] = index(edit);
+					inserted[i++] = elements[sequence(edit)];
+				}
+				if (kind != INSERT) {
+					removed[r++] = index(edit);
+				}
+			}
+			
+			unshare();
+			if (!array.merge(removed, insertAt, inserted)) {
+				return false;
+			}
+			
+			resorted();
+			resized(inserted.length - removed.length);
+			return true;
+		}
+		
+		private int countSets(long[] sorted) {
+			int sets = 0;
+			for (long edit : sorted) {
+				if (kind(edit) == SET) {
+					sets++;
+				}
+			}
+			
+			return sets;
+		}
+		
+		private int index(long edit) {
+			return (int) (edit >>> 32);
+		}
+		
+		private int kind(long edit) {
+			return (int) (edit >>> 30) & 3;
+		}
+		
+		private int sequence(long edit) {
+			return (int) edit & (MAX_EDITS - 1);
+		}
+	}
+	
+	/**
+	 * A view of a window of the list. It caches the arrayIndex of its first element and the first gap behind it,
+	 * so the elements in front of this gap are accessed directly, without translating their listIndex.
+	 * The cache is valid, until the arrangement of the array changes. Other elements are accessed by the list.
+	 * Removing a range or clearing the view removes the window as a single interval.
+	 * @author RalfK
+	 *
+	 * @param <E> the type of the elements
+	 */
+	private static final class GappedSubList<E> extends AbstractList<E> implements RandomAccess {
+		private final MultiGappedList<E> root;
+		
+		/**
+		 * The view this view was created from or null, if it was created from the list
+		 */
+		private final GappedSubList<E> parent;
+		
+		/**
+		 * The listIndex of the first element in the list
+		 */
+		private final int offset;
+		private int size;
+		private int expectedModCount;
+		
+		/**
+		 * The arrayIndex of the first element and the first gap behind it
+		 */
+		private int startArrayIndex;
+		private int nextGap;
+		
+		/**
+		 * If the cached position is valid and the resorts of the list, for which it was calculated
+		 */
+		private boolean resolved;
+		private int expectedResorts;
+		
+		GappedSubList(MultiGappedList<E> root, GappedSubList<E> parent, int fromIndex, int toIndex) {
+			this.root = root;
+			this.parent = parent;
+			this.offset = fromIndex;
+			this.size = toIndex - fromIndex;
+			this.expectedModCount = root.modCount;
+		}
+		
+		private void checkForComodification() {
+			if (root.modCount != expectedModCount) {
+				throw new ConcurrentModificationException();
+			}
+		}
+		
+		/**
+		 * calculates the position of the first element, if it is not up to date
+		 */
+		private void resolve() {
+			if (resolved && expectedResorts == root.resorts) {
+				return;
+			}
+			
+			startArrayIndex = root.arrayIndex(offset);
+			nextGap = root.gaps.nextGap(startArrayIndex);
+			expectedResorts = root.resorts;
+			resolved = true;
+		}
+		
+		/**
+		 * 
+		 * @param index the index in this view
+		 * @return the arrayIndex of the element or -1, if it is not in front of the first gap
+		 */
+		private int directArrayIndex(int index) {
+			resolve();
+			
+			int arrayIndex = startArrayIndex + index;
+			return arrayIndex < nextGap ? arrayIndex : -1;
+		}
+		
+		/**
+		 * the size of the list was changed by this view. The views in front of it and the list changed as well
+		 * @param delta the change of the size
+		 */
+		private void updateSizeAndModCount(int delta) {
+			for (GappedSubList<E> view = this; view != null; view = view.parent) {
+				view.size += delta;
+				view.expectedModCount = root.modCount;
+				view.modCount++;
+				view.resolved = false;
+			}
+		}
+		
+		@Override
+		public E get(int index) {
+			Objects.checkIndex(index, size);
+			checkForComodification();
+			
+			int arrayIndex = directArrayIndex(index);
+			if (arrayIndex < 0) {
+				return root.get(offset + index);
+			}
+			
+			root.countReads(1);
+			return root.array.getElement(arrayIndex);
+		}
+		
+		@Override
+		public E set(int index, E element) {
+			Objects.checkIndex(index, size);
+			checkForComodification();
+			root.checkElement(element);
+			
+			// copying a shared array changes the arrangement, so it is done before the position is calculated
+			root.unshare();
+			int arrayIndex = directArrayIndex(index);
+			return arrayIndex < 0 ? root.set(offset + index, element) : root.array.setElement(arrayIndex, element);
+		}
+		
+		@Override
+		public int size() {
+			checkForComodification();
+			return size;
+		}
+		
+		@Override
+		public void add(int index, E element) {
+			Objects.checkIndex(index, size + 1);
+			checkForComodification();
+			
+			root.add(offset + index, element);
+			updateSizeAndModCount(1);
+		}
+		
+		@Override
+		public boolean addAll(Collection<? extends E> c) {
+			return addAll(size, c);
+		}
+		
 		@Override
-		public int previousIndex() {
-			return super.listIndex;
+		public boolean addAll(int index, Collection<? extends E> c) {
+			Objects.checkIndex(index, size + 1);
+			checkForComodification();
+			
+			int oldSize = root.size;
+			boolean modified = root.addAll(offset + index, c);
+			if (modified) {
+				updateSizeAndModCount(root.size - oldSize);
+			}
+			
+			return modified;
 		}
-
+		
 		@Override
-		public void set(E e) {
-			array.setElement(gaps.getArrayIndex(super.listIndex), e);
+		public E remove(int index) {
+			Objects.checkIndex(index, size);
+			checkForComodification();
+			
+			E removed = root.remove(offset + index);
+			updateSizeAndModCount(-1);
+			
+			return removed;
 		}
-
+		
 		@Override
-		public void add(E e) {
-			array.addElement(super.listIndex, gaps.getGapCount(super.listIndex), e);
+		protected void removeRange(int fromIndex, int toIndex) {
+			Objects.checkFromToIndex(fromIndex, toIndex, size);
+			checkForComodification();
+			
+			if (fromIndex < toIndex) {
+				root.removeRange(offset + fromIndex, offset + toIndex);
+				updateSizeAndModCount(fromIndex - toIndex);
+			}
 		}
 		
 		@Override
-		public void remove() {
-			super.remove();
-			super.listIndex--;
+		public List<E> subList(int fromIndex, int toIndex) {
+			Objects.checkFromToIndex(fromIndex, toIndex, size);
+			checkForComodification();
+			
+			return new GappedSubList<>(root, this, offset + fromIndex, offset + toIndex);
 		}
 	}
 
@@ -118,87 +1010,640 @@ public class MultiGappedList<E> extends AbstractList<E> implements List<E>, Rand
 	public Iterator<E> iterator() {
 		return new GappedIterator(0);
 	}
+	
+	@Override
+	public Spliterator<E> spliterator() {
+		return new GappedSpliterator();
+	}
 
 	@Override
 	public void clear() {
-		array.clear();
-		gaps.clear();
+		if (shared) {
+			// the snapshot keeps the array, the list continues with a new one
+			gaps = gapStrategy.create(this::testResort);
+			array = createArray(gaps, DEFAULT_LENGTH, array.getMultiplier());
+			shared = false;
+		}else {
+			array.clear();
+			gaps.clear();
+		}
+		
 		size = 0;
+		modCount++;
+		resortPending = false;
+		resortPolicy.onResort();
+	}
+
+	/**
+	 * translates a listIndex into an arrayIndex and informs the resort policy about the costs
+	 * @param listIndex the listIndex
+	 * @return the arrayIndex
+	 */
+	int arrayIndex(int listIndex) {
+		if (gaps.size() == 0) {
+			return listIndex;
+		}
+		
+		resortPolicy.onTranslation(gapStrategy.translationCost(gaps.size()));
+		return gaps.getArrayIndex(listIndex);
+	}
+	
+	/**
+	 * reads an element without changing anything, neither the cursor of the gaps nor the statistics of the
+	 * resort policy. Therefore multiple threads may read at once, as long as the list is not modified
+	 * @param index the listIndex
+	 * @return the element at the given index
+	 */
+	E peek(int index) {
+		return peek(array, gaps, size, index);
+	}
+	
+	/**
+	 * searches an element without changing anything, the resort policy is not informed
+	 * @param o the element
+	 * @return the index of the first appearance or -1
+	 */
+	int peekIndexOf(Object o) {
+		return array.peekIndexOf(o);
+	}
+	
+	/**
+	 * searches an element from the end without changing anything, the resort policy is not informed
+	 * @param o the element
+	 * @return the index of the last appearance or -1
+	 */
+	int peekLastIndexOf(Object o) {
+		return array.peekLastIndexOf(o);
+	}
+	
+	/**
+	 * copies the elements like toArray without changing anything, the resort policy is not informed
+	 * @param a the array to copy to, if it is large enough
+	 * @return the array containing the elements
+	 */
+	<T> T[] peekToArray(T[] a) {
+		@SuppressWarnings("unchecked")
+		T[] result = a.length >= size ? a : (T[]) Array.newInstance(a.getClass().getComponentType(), size);
+		array.peekCopy(result, 0);
+		
+		if (result.length > size) {
+			result[size] = null;
+		}
+		
+		return result;
+	}
+	
+	/**
+	 * reads an element without changing anything
+	 * @param array the array
+	 * @param gaps the gaps of the array
+	 * @param size the size of the list
+	 * @param index the listIndex
+	 * @return the element at the given index
+	 */
+	private static <E> E peek(ArrayInterface<E> array, GapInterface gaps, int size, int index) {
+		if (index < 0 || index >= size) {
+			throw new IndexOutOfBoundsException("Index: " + index + ", Size: " + size);
+		}
+		
+		return array.getElement(gaps.size() == 0 ? index : gaps.peekArrayIndex(index));
+	}
+	
+	/**
+	 * Returns an immutable view of the current state of the list in O(1). The list and the snapshot share
+	 * the array, until the list is modified the next time. Then the list copies the array once (without the gaps),
+	 * while the snapshot never changes. Reading the snapshot does not change anything, so it may be read by
+	 * multiple threads, while this list is used by another one.
+	 * @return the snapshot
+	 */
+	public List<E> snapshot() {
+		shared = true;
+		return new Snapshot<>(array, gaps, size);
+	}
+	
+	/**
+	 * copies the array and the gaps, if they are shared with a snapshot, so the snapshot does not change.
+	 * The copy does not contain gaps, therefore it counts as a resort
+	 * @return if the array was copied
+	 */
+	boolean unshare() {
+		if (!shared) {
+			return false;
+		}
+		
+		// the copy leaves room for the following modifications
+		AbstractGaps gaps = gapStrategy.create(this::testResort);
+		ArrayInterface<E> copy = createArray(gaps, (int) Math.min(Integer.MAX_VALUE, (long) size + Math.max(DEFAULT_LENGTH, size >> 1)), array.getMultiplier());
+		copy.copyFrom(array);
+		
+		this.gaps = gaps;
+		this.array = copy;
+		this.shared = false;
+		resorted();
+		
+		return true;
+	}
+	
+	/**
+	 * informs the resort policy about elements read without translating their listIndexes
+	 * @param count the amount of elements read
+	 */
+	void countReads(int count) {
+		resortPolicy.onRead(count);
+	}
+	
+	/**
+	 * tests if a resort is required after every READS_PER_RESORT_TEST reads. Reading may pay for the gaps
+	 */
+	void afterRead() {
+		if (gaps.size() != 0 && !filtering) {
+			if (++readsSinceResortTest >= READS_PER_RESORT_TEST) {
+				readsSinceResortTest = 0;
+				testResort();
+			}
+			
+			resortIncrementally();
+		}
+	}
+	
+	/**
+	 * informs the resort policy about a modification and continues the incremental resort
+	 */
+	private void afterModification() {
+		resortPolicy.onModification();
+		resortIncrementally();
+	}
+	
+	/**
+	 * elements were added or removed by the list (not by an iterator)
+	 * @param delta the change of the size
+	 */
+	void resized(int delta) {
+		size += delta;
+		modCount++;
+		afterModification();
+	}
+	
+	/**
+	 * 
+	 * @return the array storing the elements
+	 */
+	ArrayInterface<E> getArray() {
+		return array;
+	}
+	
+	/**
+	 * 
+	 * @return the array storing the elements, which is not shared with a snapshot and can be modified
+	 */
+	ArrayInterface<E> getMutableArray() {
+		unshare();
+		return array;
+	}
+	
+	/**
+	 * tests if the element can be stored, before the array or the gaps are changed. Every element is accepted by default
+	 * @param element the element
+	 */
+	void checkElement(Object element) {
+	}
+	
+	/**
+	 * fills the array without the list, for example by loading it from a file. No resort is triggered
+	 * while the array is filled, afterwards the size of the list is adapted to it
+	 * @param loader fills the array and its gaps
+	 */
+	void load(Runnable loader) {
+		unshare();
+		boolean pending = resortPending;
+		resortPending = true;
+		
+		try {
+			loader.run();
+		}finally {
+			resortPending = pending;
+			size = array.length() - gaps.size();
+			modCount++;
+		}
 	}
 
 	@Override
 	public E get(int index) {
-		return array.getElement(gaps.getArrayIndex(index));
+		E element = array.getElement(arrayIndex(index));
+		countReads(1);
+		afterRead();
+		
+		return element;
 	}
 
 	@Override
 	public E set(int index, E element) {
-		return array.setElement(gaps.getArrayIndex(index), element);
+		checkElement(element);
+		unshare();
+		E old = array.setElement(arrayIndex(index), element);
+		afterRead();
+		
+		return old;
 	}
 
+	@Override
+	public boolean addAll(Collection<? extends E> c) {
+		return addAll(size, c);
+	}
+	
+	@Override
+	public boolean addAll(int index, Collection<? extends E> c) {
+		if (index < 0 || index > size) {
+			throw new IndexOutOfBoundsException("Index: " + index + ", Size: " + size);
+		}
+		
+		Object[] elements = c.toArray();
+		if (elements.length == 0) {
+			return false;
+		}
+		for (Object element : elements) {
+			checkElement(element);
+		}
+		unshare();
+		
+		// the elements are added directly behind the element in front of the index,
+		// so all gaps behind it can be used
+		array.addElements(index == 0 ? 0 : arrayIndex(index - 1) + 1, elements);
+		resized(elements.length);
+		
+		return true;
+	}
+	
 	@Override
 	public void add(int index, E element) {
-		array.addElement(index, gaps.getGapCount(index), element);
-		size++;
+		checkElement(element);
+		unshare();
+		array.addElement(index, arrayIndex(index) - index, element);
+		resized(1);
+	}
+
+	@Override
+	protected void removeRange(int fromIndex, int toIndex) {
+		if (fromIndex >= toIndex) {
+			return;
+		}
+		
+		// the elements and the gaps between them are removed as a single interval.
+		// Only the RUNS strategy stores it as one gap, the others store every slot of it
+		unshare();
+		int startArrayIndex = arrayIndex(fromIndex);
+		int endArrayIndex = arrayIndex(toIndex - 1) + 1;
+		array.removeElements(startArrayIndex, endArrayIndex);
+		resized(fromIndex - toIndex);
 	}
 
 	@Override
 	public E remove(int index) {
-		size--;
-		return array.removeElement(gaps.getArrayIndex(index));
+		unshare();
+		E removed = array.removeElement(arrayIndex(index));
+		resized(-1);
+		
+		return removed;
 	}
 
 	@Override
 	public ListIterator<E> listIterator(int index) {
 		return new GappedListIterator(index);
 	}
+	
+	@Override
+	public List<E> subList(int fromIndex, int toIndex) {
+		Objects.checkFromToIndex(fromIndex, toIndex, size);
+		return new GappedSubList<>(this, null, fromIndex, toIndex);
+	}
+	
+	/**
+	 * Starts a batch of edits, which are applied at once. The indexes of all edits refer to the list
+	 * as it is now, so they do not depend on the order of the edits.
+	 * @return the batch
+	 */
+	public Batch batch() {
+		return new Batch();
+	}
 
 	@Override
 	public void resort() {
-		array.resort();
+		// the copy of a shared array is already resorted
+		if (!unshare()) {
+			array.resort();
+			resorted();
+		}
+	}
+	
+	/**
+	 * the array does not contain gaps anymore. Iterators need to calculate their position again
+	 */
+	private void resorted() {
+		resorts++;
+		resortPending = false;
+		resortPolicy.onResort();
+	}
+	
+	/**
+	 * Asks the resort policy, if a resort is required. Called by the gaps, when a gap was added.
+	 * Either resorts the whole array at once or starts the incremental resort.
+	 */
+	private void testResort() {
+		// an incremental resort is already running
+		if (resortPending || !resortPolicy.isResortRequired(size, gaps.size())) {
+			return;
+		}
+		
+		if (incrementalResort == NO_INCREMENTAL_RESORT) {
+			resort();
+		}else {
+			resortPending = true;
+		}
+	}
+	
+	/**
+	 * continues the incremental resort after a modification, if it was started
+	 */
+	private void resortIncrementally() {
+		if (resortPending) {
+			resortStep(incrementalResort);
+		}
+	}
+	
+	/**
+	 * Does a part of a resort, moving at most the given amount of elements. The list can be used
+	 * normally between the steps. Use this method to resort the list in idle times, without the
+	 * pause of a full resort.
+	 * @param budget the maximum amount of elements to be moved
+	 * @return if the resort is finished (the list does not contain gaps anymore)
+	 */
+	public boolean resortStep(int budget) {
+		if (budget <= 0) {
+			throw new IllegalArgumentException("The budget must be positive, actual: " + budget);
+		}
+		
+		if (unshare()) {
+			return true;
+		}
+		
+		// the gaps moved by the step must not trigger another resort
+		boolean pending = resortPending;
+		resortPending = true;
+		
+		boolean finished = array.resortStep(budget);
+		resorts++;
+		resortPending = pending && !finished;
+		
+		if (finished) {
+			resortPolicy.onResort();
+		}
+		
+		return finished;
+	}
+	
+	/**
+	 * Enables the incremental resort. Instead of resorting the whole list at once, when the resort policy
+	 * requires it, every following access moves at most the given amount of elements, until the list
+	 * does not contain gaps anymore. This avoids long pauses for big lists. However, the gap limit may be
+	 * exceeded while the incremental resort is running.
+	 * @param budget the maximum amount of elements moved per access or NO_INCREMENTAL_RESORT
+	 */
+	public void setIncrementalResort(int budget) {
+		if (budget < 0) {
+			throw new IllegalArgumentException("The budget can only be positive or NO_INCREMENTAL_RESORT");
+		}
+		
+		this.incrementalResort = budget;
+		
+		// a pending incremental resort needs to be finished at once
+		if (budget == NO_INCREMENTAL_RESORT && resortPending) {
+			resort();
+		}
+	}
+	
+	/**
+	 * 
+	 * @return the maximum amount of elements moved per modification or NO_INCREMENTAL_RESORT
+	 */
+	public int getIncrementalResort() {
+		return incrementalResort;
+	}
+
+	@Override
+	public int indexOf(Object o) {
+		int index = array.indexOf(o);
+		countReads(index < 0 ? size : index + 1);
+		
+		return index;
+	}
+
+	@Override
+	public int lastIndexOf(Object o) {
+		int index = array.lastIndexOf(o);
+		countReads(index < 0 ? size : size - index);
+		
+		return index;
+	}
+
+	@Override
+	public boolean contains(Object o) {
+		return indexOf(o) >= 0;
 	}
 
 	@Override
 	public Object[] toArray() {
-		return toArray(new Object[size()]);
+		Object[] a = new Object[size];
+		array.copy(a, 0);
+		countReads(size);
+		
+		return a;
 	}
 
 	@Override
 	public <T> T[] toArray(T[] a) {
-		// we can use the moment to resort the array
+		// the elements between the gaps are copied, the arrangement of the array does not change
+		@SuppressWarnings("unchecked")
+		T[] result = a.length >= size ? a : (T[]) Array.newInstance(a.getClass().getComponentType(), size);
+		array.copy(result, 0);
+		countReads(size);
+		
+		if (result.length > size) {
+			result[size] = null;
+		}
+		
+		return result;
+	}
+	
+	/**
+	 * copies all elements into the given array. Like toArray, the arrangement of the array does not change,
+	 * a resort stays the decision of the resort policy or of resort()
+	 * @param dest the array to copy to
+	 * @param destPos the index the first element is copied to
+	 * @throws IndexOutOfBoundsException if the elements do not fit into the array behind destPos
+	 * @throws ArrayStoreException if an element can not be stored in the array
+	 */
+	public void copyInto(Object[] dest, int destPos) {
+		array.copy(dest, destPos);
+		countReads(size);
+	}
+	
+	@Override
+	public void forEach(Consumer<? super E> action) {
+		Objects.requireNonNull(action);
+		int expectedModCount = modCount;
+		int expectedResorts = resorts;
+		
+		// the array is walked like by an iterator, without changing its arrangement
+		int arrayIndex = 0;
+		int nextGap = gaps.nextGap(0);
+		
+		for (int listIndex = 0; listIndex < size && modCount == expectedModCount; listIndex++) {
+			// the action may cause a resort, for example by reading the list
+			if (resorts != expectedResorts) {
+				arrayIndex = gaps.size() == 0 ? listIndex : gaps.peekArrayIndex(listIndex);
+				nextGap = gaps.nextGap(arrayIndex);
+				expectedResorts = resorts;
+			}
+			
+			while (arrayIndex == nextGap) {
+				nextGap = gaps.nextGap(++arrayIndex);
+			}
+			
+			countReads(1);
+			action.accept(array.getElement(arrayIndex++));
+		}
+		
+		if (modCount != expectedModCount) {
+			throw new ConcurrentModificationException();
+		}
+	}
+	
+	@Override
+	public void replaceAll(UnaryOperator<E> operator) {
+		Objects.requireNonNull(operator);
+		unshare();
+		int expectedModCount = modCount;
+		int expectedResorts = resorts;
+		
+		// the array is walked like by forEach, the elements are replaced in place
+		int arrayIndex = 0;
+		int nextGap = gaps.nextGap(0);
+		
+		for (int listIndex = 0; listIndex < size && modCount == expectedModCount; listIndex++) {
+			while (arrayIndex == nextGap) {
+				nextGap = gaps.nextGap(++arrayIndex);
+			}
+			
+			E element = operator.apply(array.getElement(arrayIndex));
+			if (modCount != expectedModCount) {
+				break;
+			}
+			checkElement(element);
+			
+			// the operator may cause a resort or take a snapshot, so the position is calculated again
+			unshare();
+			if (resorts != expectedResorts) {
+				arrayIndex = gaps.size() == 0 ? listIndex : gaps.peekArrayIndex(listIndex);
+				nextGap = gaps.nextGap(arrayIndex);
+				expectedResorts = resorts;
+			}
+			
+			array.setElement(arrayIndex++, element);
+		}
+		
+		if (modCount != expectedModCount) {
+			throw new ConcurrentModificationException();
+		}
+	}
+	
+	/**
+	 * Sorts the list in place. The gaps are removed first (by a resort), afterwards the array is sorted
+	 * directly, without copying the elements out of the list and back.
+	 */
+	@Override
+	public void sort(Comparator<? super E> c) {
 		resort();
-		// copying the array using the internal copy method
-		array.copy(a);
-		// giving back the filled array
-		return a;
+		array.sortElements(c);
+		modCount++;
 	}
 
 	@Override
 	public boolean removeAll(Collection<?> c) {
-		// it is not necessary to trigger multiple resorts for this method
-		// so we set the limit for gaps to no gap limit
-		// in order to undo the change, we need to save the old value
-		int supportedGaps = gaps.getSupportedGaps();
+		Objects.requireNonNull(c);
+		return removeIf(c::contains);
+	}
+	
+	@Override
+	public boolean retainAll(Collection<?> c) {
+		Objects.requireNonNull(c);
+		return removeIf(e -> !c.contains(e));
+	}
+	
+	@Override
+	public boolean removeIf(Predicate<? super E> filter) {
+		Objects.requireNonNull(filter);
+		unshare();
+		int expectedModCount = modCount;
 		
+		// all elements are tested before the array is changed, so the filter may read the list.
+		// Reading must not resort the list meanwhile, the gaps are removed afterwards anyway
+		boolean wasFiltering = filtering;
+		filtering = true;
+		long[] marked;
 		try {
-			gaps.setSupportedGaps(NO_GAP_LIMIT);
-			
-			// in order to delete every given item, we use the super method
-	        boolean modified = super.removeAll(c);
-
-	        // undo the changes to the amount of supported gaps
-	        // may trigger a single resort
-			gaps.setSupportedGaps(supportedGaps);
-			
-			// was this list modified
-			return modified;
-		}catch (Exception e) {
-			// in case any exception occurs, we need to undo the changes to the amount of gaps as the Exception may get catched
-			gaps.setSupportedGaps(supportedGaps);
-			
-			// the exception may get handled by the user of this list
-			throw e;
-		}		
+			marked = array.markElements(filter);
+		}finally {
+			filtering = wasFiltering;
+		}
+		
+		if (modCount != expectedModCount) {
+			throw new ConcurrentModificationException();
+		}
+		if (marked == null) {
+			return false;
+		}
+		
+		// a single pass over the array removes the elements and the gaps together,
+		// so no gap is added and no resort is triggered
+		array.removeMarked(marked);
+		size = array.length();
+		resorted();
+		modCount++;
+		
+		return true;
+	}
+	
+	/**
+	 * Changes the policy, which decides when the list gets resorted. Triggers a resort if required by the new policy.
+	 * The policy may keep statistics, therefore it must not be used by other lists.
+	 * @param resortPolicy the policy
+	 */
+	public void setResortPolicy(ResortPolicy resortPolicy) {
+		if (resortPolicy == null) {
+			throw new NullPointerException();
+		}
+		
+		this.resortPolicy = resortPolicy;
+		
+		if (gaps.size() != 0) {
+			testResort();
+		}
+	}
+	
+	/**
+	 * 
+	 * @return the policy, which decides when the list gets resorted
+	 */
+	public ResortPolicy getResortPolicy() {
+		return resortPolicy;
+	}
+	
+	/**
+	 * 
+	 * @return the strategy used to keep track of the gaps
+	 */
+	public GapStrategy getGapStrategy() {
+		return gapStrategy;
 	}
 	
 	/**
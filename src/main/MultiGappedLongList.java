@@ -0,0 +1,106 @@
+package main;
+
+import java.util.function.Function;
+
+/**
+ * A MultiGappedList storing its elements in a primitive long array. It behaves like a
+ * {@code MultiGappedList<Long>} with the same gaps and resorts, but the elements are not boxed.
+ * Use the methods getLong, setLong, addLong and removeLong to avoid boxing completely.
+ * Null is not supported.
+ * @author RalfK
+ *
+ */
+public class MultiGappedLongList extends AbstractMultiGappedPrimitiveList<Long, LongArrayInterface> {
+	private static final long serialVersionUID = -4598752316127526726L;
+	
+	public MultiGappedLongList() {
+		this(DEFAULT_LENGTH);
+	}
+	
+	public MultiGappedLongList(int length) {
+		this(length, ResortPolicy.gapLimit(DEFAULT_GAPS_SUPPORTED), DEFAULT_GAP_STRATEGY);
+	}
+	
+	public MultiGappedLongList(int length, ResortPolicy resortPolicy, GapStrategy gapStrategy) {
+		this(resortPolicy, gapStrategy, gaps -> new CustomLongArray(gaps, length, AbstractCustomArray.DEFAULT_MULTIPLIER));
+	}
+	
+	MultiGappedLongList(ResortPolicy resortPolicy, GapStrategy gapStrategy, Function<GapInterface, ? extends LongArrayInterface> arrayFactory) {
+		super(resortPolicy, gapStrategy, arrayFactory);
+	}
+	
+	@Override
+	ArrayInterface<Long> createArray(GapInterface gaps, int length, byte multiplier) {
+		return new CustomLongArray(gaps, length, multiplier);
+	}
+	
+	@Override
+	int channelType() {
+		return ChannelFormat.LONG;
+	}
+	
+	/**
+	 * 
+	 * @param index the listIndex
+	 * @return the element at the given index
+	 */
+	public long getLong(int index) {
+		long element = elements().getLong(arrayIndex(index));
+		countReads(1);
+		afterRead();
+		
+		return element;
+	}
+	
+	/**
+	 * replaces the element at the given index
+	 * @param index the listIndex
+	 * @param element the new element
+	 * @return the element stored before
+	 */
+	public long setLong(int index, long element) {
+		long old = mutableElements().setLong(arrayIndex(index), element);
+		afterRead();
+		
+		return old;
+	}
+	
+	/**
+	 * adds an element to the end of the list
+	 * @param element the element
+	 */
+	public void addLong(long element) {
+		addLong(size(), element);
+	}
+	
+	/**
+	 * adds an element at the given index
+	 * @param index the listIndex
+	 * @param element the element
+	 */
+	public void addLong(int index, long element) {
+		mutableElements().addLong(index, arrayIndex(index) - index, element);
+		resized(1);
+	}
+	
+	/**
+	 * removes the element at the given index
+	 * @param index the listIndex
+	 * @return the removed element
+	 */
+	public long removeLong(int index) {
+		long removed = mutableElements().removeLong(arrayIndex(index));
+		resized(-1);
+		
+		return removed;
+	}
+	
+	/**
+	 * 
+	 * @return all elements in a new array
+	 */
+	public long[] toLongArray() {
+		countReads(size());
+		return elements().toLongArray();
+	}
+}
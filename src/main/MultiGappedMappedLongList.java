@@ -0,0 +1,135 @@
+package main;
+
+import java.io.Closeable;
+import java.io.IOException;
+import java.io.NotSerializableException;
+import java.io.ObjectInputStream;
+import java.io.ObjectOutputStream;
+import java.nio.channels.FileChannel;
+import java.nio.file.Path;
+import java.nio.file.StandardOpenOption;
+import java.util.Arrays;
+import java.util.Collections;
+import java.util.List;
+
+/**
+ * A MultiGappedLongList storing its elements and gaps in a memory-mapped file. Reopening the file restores
+ * the list instantly, without reading the elements. All modifications are done in the mapping and resort()
+ * compacts the elements in place in the file. The file is mapped in segments of 1 GiB, so up to Integer.MAX_VALUE
+ * elements can be stored.
+ *
+ * force() writes all modifications to the file, afterwards the file is consistent. The file is marked before
+ * its first modification after force(), so open() rejects a file, which was not forced again, instead of
+ * restoring wrong elements. As the elements are modified in place, no earlier state is kept: if the process
+ * crashes between a modification and the next force(), the whole list is lost, not only the last modifications.
+ * Lists, which must survive a crash, need a copy of the file made after force(). Closing the list forces it
+ * and closes the file, afterwards the list is empty and nothing can be added anymore. As the file can not be
+ * shared, a snapshot is a copy of the elements on the heap.
+ * @author RalfK
+ *
+ */
+public class MultiGappedMappedLongList extends MultiGappedLongList implements Closeable {
+	private static final long serialVersionUID = -2206741394858271036L;
+	
+	/**
+	 * The array storing the elements (the same as the one of the list)
+	 */
+	private final transient MappedLongArray mapped;
+	
+	private MultiGappedMappedLongList(FileChannel channel, int length, ResortPolicy resortPolicy, GapStrategy gapStrategy) {
+		super(resortPolicy, gapStrategy, gaps -> new MappedLongArray(gaps, channel, length, AbstractCustomArray.DEFAULT_MULTIPLIER));
+		this.mapped = (MappedLongArray) getArray();
+	}
+	
+	/**
+	 * opens the list stored in the given file or creates a new one, if the file does not exist or is empty
+	 * @param file the file
+	 * @return the list
+	 * @throws IOException if the file can not be opened or does not contain a list
+	 */
+	public static MultiGappedMappedLongList open(Path file) throws IOException {
+		return open(file, DEFAULT_LENGTH, ResortPolicy.gapLimit(DEFAULT_GAPS_SUPPORTED), DEFAULT_GAP_STRATEGY);
+	}
+	
+	/**
+	 * opens the list stored in the given file or creates a new one, if the file does not exist or is empty
+	 * @param file the file
+	 * @param length the capacity of a new list
+	 * @param resortPolicy Decides when the list gets resorted
+	 * @param gapStrategy Defines how the gaps are stored
+	 * @return the list
+	 * @throws IOException if the file can not be opened or does not contain a list
+	 */
+	public static MultiGappedMappedLongList open(Path file, int length, ResortPolicy resortPolicy, GapStrategy gapStrategy) throws IOException {
+		FileChannel channel = FileChannel.open(file, StandardOpenOption.CREATE, StandardOpenOption.READ, StandardOpenOption.WRITE);
+		
+		try {
+			MultiGappedMappedLongList list = new MultiGappedMappedLongList(channel, length, resortPolicy, gapStrategy);
+			list.mapped.open();
+			list.load(list.mapped::restore);
+			
+			return list;
+		}catch (IOException | RuntimeException e) {
+			channel.close();
+			throw e;
+		}
+	}
+	
+	/**
+	 * A mapped list is persisted by its file, it can not be serialized
+	 * @param out the stream
+	 * @throws IOException always
+	 */
+	private void writeObject(ObjectOutputStream out) throws IOException {
+		throw new NotSerializableException("A mapped list is persisted by its file, use force()");
+	}
+	
+	private void readObject(ObjectInputStream in) throws IOException, ClassNotFoundException {
+		throw new NotSerializableException("A mapped list is persisted by its file, use open()");
+	}
+	
+	/**
+	 * Returns an immutable copy of the elements in O(n). The file can only store a single version of the list,
+	 * therefore it can not be shared with a snapshot
+	 * @return the snapshot
+	 */
+	@Override
+	public List<Long> snapshot() {
+		return Collections.unmodifiableList(Arrays.asList(toArray(new Long[size()])));
+	}
+	
+	/**
+	 * every modification unshares the array first, so the file is marked as modified before it changes
+	 */
+	@Override
+	boolean unshare() {
+		mapped.modifying();
+		return super.unshare();
+	}
+	
+	@Override
+	public void clear() {
+		mapped.modifying();
+		super.clear();
+	}
+	
+	/**
+	 * writes all modifications to the file. Afterwards the file is consistent and can be reopened
+	 * @throws IOException if the file can not be written
+	 */
+	public void force() throws IOException {
+		mapped.force();
+	}
+	
+	/**
+	 * writes all modifications to the file and closes it
+	 */
+	@Override
+	public void close() throws IOException {
+		try {
+			mapped.close();
+		}finally {
+			clear();
+		}
+	}
+}
@@ -0,0 +1,44 @@
+package main;
+
+/**
+ * A MultiGappedLongList storing its elements outside of the heap in a direct buffer. It is meant for
+ * lists of hundreds of millions of elements, which would put a lot of pressure on the garbage collector.
+ * As a buffer is addressed by an int, the elements are stored in segments of 1 GiB. So the list stores as many
+ * elements as a MultiGappedLongList on the heap, up to Integer.MAX_VALUE.
+ * Null is not supported.
+ * 
+ * The memory is freed, when the list is closed. Afterwards the list is empty and nothing can be added anymore.
+ * The memory of a snapshot is not freed by closing the list, but when the snapshot is collected.
+ * @author RalfK
+ *
+ */
+public class MultiGappedOffHeapLongList extends MultiGappedLongList implements AutoCloseable {
+	private static final long serialVersionUID = 2452995386005166314L;
+	
+	public MultiGappedOffHeapLongList() {
+		this(DEFAULT_LENGTH);
+	}
+	
+	public MultiGappedOffHeapLongList(int length) {
+		this(length, ResortPolicy.gapLimit(DEFAULT_GAPS_SUPPORTED), DEFAULT_GAP_STRATEGY);
+	}
+	
+	public MultiGappedOffHeapLongList(int length, ResortPolicy resortPolicy, GapStrategy gapStrategy) {
+		super(resortPolicy, gapStrategy, gaps -> new OffHeapLongArray(gaps, length, AbstractCustomArray.DEFAULT_MULTIPLIER));
+	}
+	
+	@Override
+	ArrayInterface<Long> createArray(GapInterface gaps, int length, byte multiplier) {
+		return new OffHeapLongArray(gaps, length, multiplier);
+	}
+	
+	/**
+	 * removes all elements and frees the memory
+	 */
+	@Override
+	public void close() {
+		// clearing a list shared with a snapshot replaces its array, so only the memory of the list is freed
+		clear();
+		((OffHeapLongArray) getArray()).close();
+	}
+}
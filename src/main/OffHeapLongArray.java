@@ -0,0 +1,76 @@
+package main;
+
+import java.nio.ByteBuffer;
+import java.nio.ByteOrder;
+
+/**
+ * Stores the elements of a list with gaps in direct ByteBuffers outside of the heap. The elements
+ * are neither boxed nor scanned by the garbage collector, so even hundreds of millions of elements
+ * do not create any pressure on it. A buffer is limited to Integer.MAX_VALUE bytes, therefore the
+ * storage consists of segments of at most 1 GiB. Like a long[] it stores up to Integer.MAX_VALUE elements.
+ *
+ * The memory is freed explicitly, when the storage is replaced or the array is closed. Afterwards
+ * the array must not be used anymore.
+ * @author RalfK
+ *
+ */
+final class OffHeapLongArray extends BufferLongArray implements AutoCloseable {
+	/**
+	 * If the memory was freed
+	 */
+	private boolean closed;
+	
+	public OffHeapLongArray(GapInterface gaps, int size, byte multiplier) {
+		this(gaps, size, multiplier, SEGMENT_SHIFT);
+	}
+	
+	/**
+	 * 
+	 * @param gaps the gaps of the array
+	 * @param size the initial capacity
+	 * @param multiplier the multiplier used to extend the storage
+	 * @param segmentShift the amount of elements of a segment as a power of two, at most SEGMENT_SHIFT
+	 */
+	OffHeapLongArray(GapInterface gaps, int size, byte multiplier, int segmentShift) {
+		super(gaps, size, multiplier, segmentShift);
+	}
+	
+	@Override
+	ByteBuffer[] allocate(int length) {
+		if (closed) {
+			throw new IllegalStateException("The array is closed");
+		}
+		
+		int[] lengths = segmentLengths(length);
+		ByteBuffer[] storage = new ByteBuffer[lengths.length];
+		
+		for (int i = 0; i < storage.length; i++) {
+			// the native order allows the buffer to read and write the longs directly
+			storage[i] = ByteBuffer.allocateDirect((int) bytes(lengths[i])).order(ByteOrder.nativeOrder());
+		}
+		
+		return storage;
+	}
+	
+	@Override
+	void free(ByteBuffer[] storage) {
+		freeDirect(storage);
+	}
+	
+	/**
+	 * frees the memory. Afterwards the array must not be used anymore
+	 */
+	@Override
+	public void close() {
+		if (closed) {
+			return;
+		}
+		
+		clear();
+		free(array);
+		closed = true;
+		
+		// the freed memory must never be accessed, an empty storage rejects all accesses instead
+		array = new ByteBuffer[0];
+	}
+}
@@ -0,0 +1,108 @@
+package main;
+
+import java.io.Serializable;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Decides when a MultiGappedList gets resorted. A resort removes all gaps, which makes reading
+ * faster, but costs time proportional to the size of the list. The list informs the policy about
+ * translations (reading by index), modifications and resorts, so a policy is able to base its
+ * decision on the actual workload.
+ * 
+ * A policy may keep statistics, therefore an instance must only be used by a single list.
+ * It is serialized together with the list.
+ * @author RalfK
+ *
+ */
+public interface ResortPolicy extends Serializable {
+	/**
+	 * The gap limit, at which no resort is triggered. The list needs to be resorted manually.
+	 */
+	public static final int NO_GAP_LIMIT = 0;
+	
+	/**
+	 * decides, if the list needs to be resorted
+	 * @param size the size of the list
+	 * @param gaps the amount of gaps
+	 * @return if a resort is required
+	 */
+	public boolean isResortRequired(int size, int gaps);
+	
+	/**
+	 * called after a listIndex was translated into an arrayIndex
+	 * @param cost the estimated costs of the translation (the amount of steps required)
+	 */
+	public default void onTranslation(int cost) {
+	}
+	
+	/**
+	 * called after elements were read, by their index or for example by an iterator. Modifications are not reads
+	 * @param count the amount of elements read
+	 */
+	public default void onRead(int count) {
+	}
+	
+	/**
+	 * called after an element was added or removed
+	 */
+	public default void onModification() {
+	}
+	
+	/**
+	 * called after the list was resorted (it does not contain gaps anymore)
+	 */
+	public default void onResort() {
+	}
+	
+	/**
+	 * Resorts the list, when it contains more than the given amount of gaps
+	 * @param supportedGaps The maximum amount of gaps or NO_GAP_LIMIT
+	 * @return the policy
+	 */
+	public static ResortPolicy gapLimit(int supportedGaps) {
+		return new GapLimitPolicy(supportedGaps);
+	}
+	
+	/**
+	 * Resorts the list, when it contains more than a gap limit, which is adapted to the ratio of
+	 * reads and modifications. Write heavy phases raise the limit, read heavy phases lower it.
+	 * @param minGaps the smallest gap limit chosen
+	 * @param maxGaps the greatest gap limit chosen
+	 * @return the policy, which exposes the current gap limit
+	 */
+	public static AdaptiveGapLimitPolicy adaptiveGapLimit(int minGaps, int maxGaps) {
+		return new AdaptiveGapLimitPolicy(minGaps, maxGaps);
+	}
+
+	/**
+	 * Resorts the list, when the amount of gaps exceeds the given fraction of the size.
+	 * Therefore big lists support more gaps than small ones.
+	 * @param ratio the fraction of the size, for example 0.01 for at most one gap per 100 elements
+	 * @return the policy
+	 */
+	public static ResortPolicy gapRatio(double ratio) {
+		return new GapRatioPolicy(ratio);
+	}
+	
+	/**
+	 * Resorts the list, when the costs of the translations since the last resort exceed the costs
+	 * of a resort. The costs of a resort are estimated by the size of the list multiplied with the given factor.
+	 * Therefore the list only gets resorted, when reading actually pays for the gaps. A list, which is only
+	 * modified, does not get resorted at all.
+	 * @param factor the costs of a resort per element, 1 is a good value to start with
+	 * @return the policy
+	 */
+	public static ResortPolicy translationCost(double factor) {
+		return new TranslationCostPolicy(factor);
+	}
+	
+	/**
+	 * Resorts the list, when the first gap since the last resort is older than the given time.
+	 * @param time the maximum time gaps are kept
+	 * @param unit the unit of the time
+	 * @return the policy
+	 */
+	public static ResortPolicy timeBudget(long time, TimeUnit unit) {
+		return new TimeBudgetPolicy(unit.toNanos(time));
+	}
+}
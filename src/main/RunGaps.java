@@ -0,0 +1,387 @@
+package main;
+
+import java.util.Arrays;
+import java.util.NoSuchElementException;
+
+/**
+ * Stores runs of consecutive gaps as intervals (the first gap and the length of the run).
+ * Removing a range of elements therefore only records a single interval, independent of
+ * the amount of elements removed, and a translation skips whole runs at once.
+ * The runs are stored sorted in primitive int arrays, like in the ArrayGaps, together with
+ * the amount of gaps in front of every run. Translating a listIndex is a binary search
+ * over the runs and needs O(log runs). The cursor is a run and an offset in this run.
+ * @author RalfK
+ *
+ */
+final class RunGaps extends AbstractGaps {
+	/**
+	 * The initial amount of runs, which can be stored
+	 */
+	private static final int DEFAULT_CAPACITY = 16;
+
+	/**
+	 * The first gap of every run in ascending order. Only the first runs values are valid.
+	 */
+	private int[] starts;
+
+	/**
+	 * The amount of gaps of every run
+	 */
+	private int[] lengths;
+
+	/**
+	 * The amount of gaps in front of every run
+	 */
+	private int[] before;
+
+	/**
+	 * The amount of runs stored
+	 */
+	private int runs;
+
+	/**
+	 * The amount of gaps stored
+	 */
+	private int size;
+
+	/**
+	 * The run of the cursor (-1 is the root position, like in the CustomLinkedList)
+	 */
+	private int run;
+
+	/**
+	 * The offset of the cursor in its run
+	 */
+	private int offset;
+
+	/**
+	 * Creates an Object of RunGaps to store the indexes of gaps
+	 * @param onGapAdded Informed when a gap was added, to test if a resort is required
+	 */
+	public RunGaps(Resortable onGapAdded) {
+		super(onGapAdded);
+		this.starts = new int[DEFAULT_CAPACITY];
+		this.lengths = new int[DEFAULT_CAPACITY];
+		this.before = new int[DEFAULT_CAPACITY];
+		this.runs = 0;
+		this.size = 0;
+		toRoot();
+	}
+
+	/**
+	 *
+	 * @param run the run
+	 * @return the gap behind the last gap of the run
+	 */
+	private int end(int run) {
+		return starts[run] + lengths[run];
+	}
+
+	/**
+	 * searches the run of the greatest start smaller or equal to the given gap
+	 * @param gap the gap
+	 * @return the run or -1, if all runs start behind the gap
+	 */
+	private int floorRun(int gap) {
+		int low = 0;
+		int high = runs - 1;
+
+		while (low <= high) {
+			int mid = (low + high) >>> 1;
+
+			if (starts[mid] <= gap) {
+				low = mid + 1;
+			}else {
+				high = mid - 1;
+			}
+		}
+
+		return high;
+	}
+
+	/**
+	 * replaces the runs from first to last (both inclusive) by a single run. If last is smaller than first,
+	 * the run is inserted in front of first.
+	 * @param first the first run replaced
+	 * @param last the last run replaced
+	 * @param start the first gap of the new run
+	 * @param end the gap behind the last gap of the new run
+	 * @return the amount of gaps added
+	 */
+	private int replaceRuns(int first, int last, int start, int end) {
+		int replaced = last - first + 1;
+		int covered = replaced == 0 ? 0 : before[last] + lengths[last] - before[first];
+		int added = end - start - covered;
+
+		if (runs + 1 - replaced > starts.length) {
+			starts = Arrays.copyOf(starts, starts.length * 2);
+			lengths = Arrays.copyOf(lengths, lengths.length * 2);
+			before = Arrays.copyOf(before, before.length * 2);
+		}
+
+		// the runs behind are moved, so there is a single place for the new run
+		System.arraycopy(starts, last + 1, starts, first + 1, runs - last - 1);
+		System.arraycopy(lengths, last + 1, lengths, first + 1, runs - last - 1);
+		System.arraycopy(before, last + 1, before, first + 1, runs - last - 1);
+		runs += 1 - replaced;
+
+		starts[first] = start;
+		lengths[first] = end - start;
+		before[first] = first == 0 ? 0 : before[first - 1] + lengths[first - 1];
+
+		for (int i = first + 1; i < runs; i++) {
+			before[i] += added;
+		}
+
+		size += added;
+		return added;
+	}
+
+	/**
+	 * adds an interval of gaps and merges it with the runs overlapping or touching it
+	 * @param start the first gap (inclusive)
+	 * @param end the last gap (exclusive)
+	 * @return the amount of gaps added
+	 */
+	private int merge(int start, int end) {
+		// the first run ending at or behind the start and the last run starting at or in front of the end
+		int first = floorRun(start - 1);
+		if (first < 0 || end(first) < start) {
+			first++;
+		}
+		int last = floorRun(end);
+
+		if (first <= last) {
+			start = Math.min(start, starts[first]);
+			end = Math.max(end, end(last));
+		}
+
+		return replaceRuns(first, last, start, end);
+	}
+
+	/**
+	 * searches the last run in front of the element
+	 * @param listIndex the listIndex of the element
+	 * @return the run or -1, if all runs are behind the element
+	 */
+	private int runBefore(int listIndex) {
+		// starts[i] - before[i] is the amount of elements in front of the run i. This value never decreases,
+		// therefore we can search the last run in front of the element binary.
+		int low = 0;
+		int high = runs - 1;
+
+		while (low <= high) {
+			int mid = (low + high) >>> 1;
+
+			if (starts[mid] - before[mid] <= listIndex) {
+				low = mid + 1;
+			}else {
+				high = mid - 1;
+			}
+		}
+
+		return high;
+	}
+
+	@Override
+	public int getArrayIndex(int listIndex) {
+		int found = runBefore(listIndex);
+
+		if (found < 0) {
+			toRoot();
+			return listIndex;
+		}
+
+		// the cursor moves to the last gap in front of the element
+		run = found;
+		offset = lengths[found] - 1;
+		return listIndex + before[found] + lengths[found];
+	}
+
+	@Override
+	public int peekArrayIndex(int listIndex) {
+		int found = runBefore(listIndex);
+		return found < 0 ? listIndex : listIndex + before[found] + lengths[found];
+	}
+
+	@Override
+	public void toGapPosition(int gap) {
+		run = floorRun(gap);
+		offset = run < 0 ? 0 : Math.min(gap - starts[run], lengths[run] - 1);
+	}
+
+	@Override
+	public int getElement() {
+		return run < 0 ? -1 : starts[run] + offset;
+	}
+
+	@Override
+	public void add(int gap) {
+		// moves the cursor to the position where the element would be added
+		toGapPosition(gap);
+
+		// if the element is already contained, do nothing
+		if (gap == getElement()) {
+			return;
+		}
+
+		// add the gap. The runs in front of the cursor do not change, therefore the cursor stays at the previous gap
+		merge(gap, gap + 1);
+
+		// inform the list, it may trigger a resort
+		testResort();
+	}
+
+	@Override
+	public void addRange(int start, int end) {
+		if (start >= end) {
+			return;
+		}
+
+		int added = merge(start, end);
+		toGapPosition(end - 1);
+
+		// inform the list once, it may trigger a resort
+		if (added != 0) {
+			testResort();
+		}
+	}
+
+	@Override
+	public void remove(int gap) {
+		toGapPosition(gap);
+		if (getElement() == gap) {
+			remove();
+		}
+	}
+
+	@Override
+	public void remove() {
+		if (run < 0) {
+			return;
+		}
+
+		int gap = getElement();
+		int length = lengths[run];
+
+		if (length == 1) {
+			// the run disappears
+			replaceRuns(run, run, gap, gap);
+			System.arraycopy(starts, run + 1, starts, run, runs - run - 1);
+			System.arraycopy(lengths, run + 1, lengths, run, runs - run - 1);
+			System.arraycopy(before, run + 1, before, run, runs - run - 1);
+			runs--;
+		}else if (offset == 0 || offset == length - 1) {
+			// the run gets shorter
+			replaceRuns(run, run, offset == 0 ? gap + 1 : starts[run], offset == 0 ? end(run) : gap);
+		}else {
+			// the run is split into two runs
+			int end = end(run);
+			replaceRuns(run, run, starts[run], gap);
+			replaceRuns(run + 1, run, gap + 1, end);
+		}
+
+		// the cursor moves to the previous gap
+		if (offset > 0) {
+			offset--;
+		}else if (--run >= 0) {
+			offset = lengths[run] - 1;
+		}else {
+			toRoot();
+		}
+	}
+
+	@Override
+	public int getIndex() {
+		return run < 0 ? -1 : before[run] + offset;
+	}
+
+	@Override
+	public boolean hasNext() {
+		return getIndex() + 1 < size;
+	}
+
+	@Override
+	public int next() {
+		if (!hasNext()) {
+			throw new NoSuchElementException();
+		}
+
+		if (run >= 0 && offset + 1 < lengths[run]) {
+			offset++;
+		}else {
+			run++;
+			offset = 0;
+		}
+
+		return getElement();
+	}
+
+	@Override
+	public boolean hasPrevious() {
+		return run >= 0;
+	}
+
+	@Override
+	public int previous() {
+		if (!hasPrevious()) {
+			throw new NoSuchElementException();
+		}
+
+		if (offset > 0) {
+			offset--;
+		}else if (--run >= 0) {
+			offset = lengths[run] - 1;
+		}else {
+			toRoot();
+		}
+
+		return getElement();
+	}
+
+	@Override
+	public void toRoot() {
+		run = -1;
+		offset = 0;
+	}
+
+	@Override
+	public int size() {
+		return size;
+	}
+
+	@Override
+	public void clear() {
+		runs = 0;
+		size = 0;
+		toRoot();
+	}
+
+	@Override
+	public boolean contains(int gap) {
+		toGapPosition(gap);
+		return getElement() == gap;
+	}
+
+	@Override
+	public int previewNext() {
+		if (!hasNext()) {
+			throw new NoSuchElementException();
+		}
+
+		return run >= 0 && offset + 1 < lengths[run] ? getElement() + 1 : starts[run + 1];
+	}
+
+	@Override
+	public int previewPrevious() {
+		if (!hasPrevious()) {
+			throw new NoSuchElementException();
+		}
+
+		if (offset > 0) {
+			return getElement() - 1;
+		}
+
+		return run == 0 ? -1 : end(run - 1) - 1;
+	}
+}
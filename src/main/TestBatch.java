@@ -0,0 +1,196 @@
+package main;
+
+import static org.junit.Assert.assertEquals;
+import static org.junit.Assert.assertThrows;
+import java.util.ArrayList;
+import java.util.ConcurrentModificationException;
+import java.util.List;
+import java.util.Random;
+import java.util.function.Supplier;
+
+import org.junit.jupiter.api.Test;
+
+/**
+ * Tests, if a batch applies its edits like they were applied to the list as it was, when the batch was created.
+ * @author RalfK
+ *
+ */
+class TestBatch {
+	public static final int ELEMENTS = 1000;
+	public static final int BATCHES = 40;
+	
+	/**
+	 * Small batches are applied one edit after another, large ones are merged with the array.
+	 */
+	@Test
+	void edits() {
+		for (GapStrategy strategy : GapStrategy.values()) {
+			List<Supplier<MultiGappedList<Long>>> lists = new ArrayList<>();
+			lists.add(() -> new MultiGappedList<>(10, ResortPolicy.gapLimit(50), strategy));
+			lists.add(() -> new MultiGappedLongList(10, ResortPolicy.gapLimit(50), strategy));
+			lists.add(() -> new MultiGappedOffHeapLongList(10, ResortPolicy.gapLimit(50), strategy));
+			
+			for (Supplier<MultiGappedList<Long>> supplier : lists) {
+				Random random = new Random(1);
+				MultiGappedList<Long> e = supplier.get();
+				ArrayList<Long> a = new ArrayList<>();
+				for (long i = 0; i < ELEMENTS; i++) {
+					e.add(i);
+					a.add(i);
+				}
+				
+				for (int b = 0; b < BATCHES; b++) {
+					// some gaps in front of the batch
+					for (int i = 0; i < 10; i++) {
+						int index = random.nextInt(a.size());
+						assertEquals(a.remove(index), e.remove(index));
+					}
+					
+					int edits = b % 2 == 0 ? random.nextInt(10) : a.size() / 2 + random.nextInt(a.size());
+					List<Long> snapshot = b % 4 == 1 ? e.snapshot() : null;
+					ArrayList<Long> state = new ArrayList<>(a);
+					
+					a = applyRandom(e.batch(), a, edits, random);
+					assertEquals(strategy + " " + e.getClass().getSimpleName() + " batch " + b, a, e);
+					if (snapshot != null) {
+						assertEquals(state, snapshot);
+					}
+				}
+			}
+		}
+	}
+	
+	/**
+	 * A batch fitting into the capacity is merged within the storage. Elements move to the front behind
+	 * removed elements and to the back behind inserted ones.
+	 */
+	@Test
+	void mergeInPlace() {
+		for (GapStrategy strategy : GapStrategy.values()) {
+			List<Supplier<MultiGappedList<Long>>> lists = new ArrayList<>();
+			lists.add(() -> new MultiGappedList<>(10, ResortPolicy.gapLimit(Integer.MAX_VALUE), strategy));
+			lists.add(() -> new MultiGappedLongList(10, ResortPolicy.gapLimit(Integer.MAX_VALUE), strategy));
+			lists.add(() -> new MultiGappedOffHeapLongList(10, ResortPolicy.gapLimit(Integer.MAX_VALUE), strategy));
+			
+			for (Supplier<MultiGappedList<Long>> supplier : lists) {
+				MultiGappedList<Long> e = supplier.get();
+				ArrayList<Long> a = new ArrayList<>();
+				for (long i = 0; i < ELEMENTS; i++) {
+					e.add(i);
+					a.add(i);
+				}
+				for (int i = 0; i < ELEMENTS / 4; i++) {
+					int index = (i * 7) % a.size();
+					assertEquals(a.remove(index), e.remove(index));
+				}
+				
+				String message = strategy + " " + e.getClass().getSimpleName();
+				int capacity = ((AbstractCustomArray<?, ?>) e.getArray()).capacity();
+				MultiGappedList<Long>.Batch batch = e.batch();
+				ArrayList<Long> expected = new ArrayList<>();
+				for (int i = 0; i < a.size(); i++) {
+					// inserts in the first and the last third, removes in the middle one
+					if (i < a.size() / 3 || i > a.size() * 2 / 3) {
+						batch.add(i, -1L - i);
+						expected.add(-1L - i);
+						expected.add(a.get(i));
+					}else if (i % 4 != 0) {
+						batch.remove(i);
+					}else {
+						batch.set(i, -a.get(i));
+						expected.add(-a.get(i));
+					}
+				}
+				batch.apply();
+				
+				assertEquals(message, expected, e);
+				assertEquals(message, capacity, ((AbstractCustomArray<?, ?>) e.getArray()).capacity());
+				assertEquals(message, expected.size(), e.getArray().length());
+			}
+		}
+	}
+	
+	/**
+	 * A batch rejects invalid edits and can only be applied once to the unmodified list.
+	 */
+	@Test
+	void invalid() {
+		MultiGappedList<Long> e = new MultiGappedList<>();
+		for (long i = 0; i < 10; i++) {
+			e.add(i);
+		}
+		
+		assertThrows(IndexOutOfBoundsException.class, () -> e.batch().add(11, 0L));
+		assertThrows(IndexOutOfBoundsException.class, () -> e.batch().set(10, 0L));
+		assertThrows(IndexOutOfBoundsException.class, () -> e.batch().remove(-1));
+		assertThrows(IllegalArgumentException.class, () -> e.batch().remove(3).remove(3).apply());
+		assertThrows(IllegalArgumentException.class, () -> e.batch().set(3, 0L).remove(3).apply());
+		assertEquals(10, e.size());
+		
+		// a rejected batch is not marked as applied
+		MultiGappedList<Long>.Batch rejected = e.batch().remove(5).set(5, 0L);
+		assertThrows(IllegalArgumentException.class, rejected::apply);
+		assertThrows(IllegalArgumentException.class, rejected.add(0, -1L)::apply);
+		assertEquals(10, e.size());
+		
+		MultiGappedList<Long>.Batch modified = e.batch().remove(0);
+		e.add(10L);
+		assertThrows(ConcurrentModificationException.class, modified::apply);
+		
+		MultiGappedList<Long>.Batch applied = e.batch().add(0, -1L);
+		applied.apply();
+		assertThrows(IllegalStateException.class, applied::apply);
+		assertThrows(IllegalStateException.class, () -> applied.add(0, -1L));
+		assertEquals(-1L, (long) e.get(0));
+		assertEquals(12, e.size());
+	}
+	
+	/**
+	 * adds random edits to the batch and applies it
+	 * @param batch the batch
+	 * @param a the list as it is, when the batch was created
+	 * @param edits the amount of edits
+	 * @param random the source of the edits
+	 * @return the list after applying the edits
+	 */
+	private static ArrayList<Long> applyRandom(MultiGappedList<Long>.Batch batch, List<Long> a, int edits, Random random) {
+		// the edits of every index of the old list and the elements inserted in front of them
+		List<List<Long>> inserted = new ArrayList<>();
+		Long[] replaced = new Long[a.size()];
+		boolean[] removed = new boolean[a.size()];
+		for (int i = 0; i <= a.size(); i++) {
+			inserted.add(new ArrayList<>());
+		}
+		
+		for (int i = 0; i < edits; i++) {
+			int index = random.nextInt(a.size() + 1);
+			long value = random.nextLong();
+			int kind = index == a.size() ? 0 : random.nextInt(3);
+			
+			if (kind == 0) {
+				batch.add(index, value);
+				inserted.get(index).add(value);
+			}else if (replaced[index] == null && !removed[index]) {
+				if (kind == 1) {
+					batch.set(index, value);
+					replaced[index] = value;
+				}else {
+					batch.remove(index);
+					removed[index] = true;
+				}
+			}
+		}
+		batch.apply();
+		
+		ArrayList<Long> result = new ArrayList<>();
+		for (int i = 0; i <= a.size(); i++) {
+			result.addAll(inserted.get(i));
+			
+			if (i < a.size() && !removed[i]) {
+				result.add(replaced[i] != null ? replaced[i] : a.get(i));
+			}
+		}
+		
+		return result;
+	}
+}
@@ -0,0 +1,99 @@
+package main;
+
+import static org.junit.Assert.assertEquals;
+import static org.junit.Assert.assertFalse;
+import static org.junit.Assert.assertThrows;
+import java.util.ArrayList;
+import java.util.Iterator;
+import java.util.List;
+import java.util.Random;
+import java.util.function.Supplier;
+
+import org.junit.jupiter.api.Test;
+
+/**
+ * Tests, if addAll inserts the elements at once like an ArrayList, while the list contains gaps.
+ * @author RalfK
+ *
+ */
+class TestBulkInsert {
+	public static final int ELEMENTS = 500;
+	public static final int OPERATIONS = 400;
+	
+	/**
+	 * Inserts collections of different sizes at random positions. Some of them are larger than the free space of the array.
+	 */
+	@Test
+	void insert() {
+		for (GapStrategy strategy : GapStrategy.values()) {
+			List<Supplier<MultiGappedList<Long>>> lists = new ArrayList<>();
+			lists.add(() -> new MultiGappedList<>(10, ResortPolicy.gapLimit(Integer.MAX_VALUE), strategy));
+			lists.add(() -> new MultiGappedLongList(10, ResortPolicy.gapLimit(Integer.MAX_VALUE), strategy));
+			lists.add(() -> new MultiGappedOffHeapLongList(10, ResortPolicy.gapLimit(Integer.MAX_VALUE), strategy));
+			
+			for (Supplier<MultiGappedList<Long>> supplier : lists) {
+				Random random = new Random(1);
+				MultiGappedList<Long> e = supplier.get();
+				ArrayList<Long> a = new ArrayList<>();
+				
+				for (int i = 0; i < OPERATIONS; i++) {
+					String message = strategy + " " + e.getClass().getSimpleName() + " operation " + i;
+					
+					// some gaps, which are used by the next insert
+					for (int k = 0; k < 5 && !a.isEmpty(); k++) {
+						int index = random.nextInt(a.size());
+						assertEquals(message, a.remove(index), e.remove(index));
+					}
+					
+					int count = i % 50 == 0 ? ELEMENTS + random.nextInt(ELEMENTS) : random.nextInt(20);
+					List<Long> added = new ArrayList<>();
+					for (int k = 0; k < count; k++) {
+						added.add(random.nextLong());
+					}
+					
+					int kind = random.nextInt(4);
+					if (kind == 0) {
+						assertEquals(message, a.addAll(added), e.addAll(added));
+					}else {
+						int index = kind == 1 ? 0 : random.nextInt(a.size() + 1);
+						assertEquals(message, a.addAll(index, added), e.addAll(index, added));
+					}
+					
+					assertEquals(message, a.size(), e.size());
+					if (i % 20 == 0) {
+						assertEquals(message, a, e);
+					}
+				}
+				
+				assertEquals(a, e);
+				
+				// the list inserts a copy of itself
+				a.addAll(a.size() / 2, a);
+				e.addAll(e.size() / 2, e);
+				assertEquals(a, e);
+			}
+		}
+	}
+	
+	/**
+	 * An empty collection does not change the list, an invalid index is rejected before the array is changed.
+	 */
+	@Test
+	void unchanged() {
+		MultiGappedList<Long> e = new MultiGappedList<>();
+		for (long i = 0; i < 20; i++) {
+			e.add(i);
+		}
+		e.remove(3);
+		ArrayList<Long> a = new ArrayList<>(e);
+		
+		Iterator<Long> iterator = e.iterator();
+		assertFalse(e.addAll(List.of()));
+		assertFalse(e.addAll(5, List.of()));
+		iterator.next();
+		
+		assertThrows(IndexOutOfBoundsException.class, () -> e.addAll(-1, List.of(1L)));
+		assertThrows(IndexOutOfBoundsException.class, () -> e.addAll(e.size() + 1, List.of(1L)));
+		assertEquals(a, e);
+	}
+}
@@ -0,0 +1,186 @@
+package main;
+
+import static org.junit.Assert.assertEquals;
+import java.io.ByteArrayInputStream;
+import java.io.ByteArrayOutputStream;
+import java.io.IOException;
+import java.nio.channels.Channels;
+import java.nio.channels.FileChannel;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.nio.file.StandardOpenOption;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.function.Supplier;
+
+import org.junit.jupiter.api.Test;
+
+/**
+ * Tests, if the primitive lists read the elements they wrote to a channel, with and without gaps.
+ * @author RalfK
+ *
+ */
+class TestChannelFormat {
+	public static final int ELEMENTS = 20000;
+	
+	@Test
+	void ints() throws IOException {
+		test(() -> new MultiGappedIntList(10, ResortPolicy.gapLimit(Integer.MAX_VALUE), GapStrategy.ARRAY), Integer.BYTES, i -> (int) i,
+				(list, channel) -> list.writeTo(Channels.newChannel(channel)),
+				(list, channel) -> list.readFrom(Channels.newChannel(channel)));
+	}
+	
+	@Test
+	void longs() throws IOException {
+		test(() -> new MultiGappedLongList(10, ResortPolicy.gapLimit(Integer.MAX_VALUE), GapStrategy.ARRAY), Long.BYTES, i -> i * 31,
+				(list, channel) -> list.writeTo(Channels.newChannel(channel)),
+				(list, channel) -> list.readFrom(Channels.newChannel(channel)));
+	}
+	
+	@Test
+	void doubles() throws IOException {
+		test(() -> new MultiGappedDoubleList(10, ResortPolicy.gapLimit(Integer.MAX_VALUE), GapStrategy.ARRAY), Double.BYTES, i -> i / 3.,
+				(list, channel) -> list.writeTo(Channels.newChannel(channel)),
+				(list, channel) -> list.readFrom(Channels.newChannel(channel)));
+	}
+	
+	@Test
+	void offHeapLongs() throws IOException {
+		test(() -> new MultiGappedOffHeapLongList(10, ResortPolicy.gapLimit(Integer.MAX_VALUE), GapStrategy.ARRAY), Long.BYTES, i -> -i,
+				(list, channel) -> list.writeTo(Channels.newChannel(channel)),
+				(list, channel) -> list.readFrom(Channels.newChannel(channel)));
+	}
+	
+	/**
+	 * a file channel writes multiple buffers at once, the format must be the same
+	 */
+	@Test
+	void gatheringChannel() throws IOException {
+		Path file = Files.createTempFile("list", ".bin");
+		
+		try {
+			MultiGappedOffHeapLongList e = filled(() -> new MultiGappedOffHeapLongList(10, ResortPolicy.gapLimit(Integer.MAX_VALUE), GapStrategy.ARRAY), i -> i);
+			try (FileChannel channel = FileChannel.open(file, StandardOpenOption.WRITE)) {
+				e.writeTo(channel);
+			}
+			
+			MultiGappedLongList read = new MultiGappedLongList();
+			try (FileChannel channel = FileChannel.open(file, StandardOpenOption.READ)) {
+				read.readFrom(channel);
+			}
+			assertEquals(e, read);
+			e.close();
+		}finally {
+			Files.delete(file);
+		}
+	}
+	
+	/**
+	 * a list only reads the elements of its own type
+	 */
+	@Test
+	void wrongType() throws IOException {
+		ByteArrayOutputStream bytes = new ByteArrayOutputStream();
+		MultiGappedIntList ints = new MultiGappedIntList();
+		ints.addInt(1);
+		ints.writeTo(Channels.newChannel(bytes));
+		
+		boolean rejected = false;
+		try {
+			new MultiGappedLongList().readFrom(Channels.newChannel(new ByteArrayInputStream(bytes.toByteArray())));
+		}catch (IOException e) {
+			rejected = true;
+		}
+		assertEquals(true, rejected);
+	}
+	
+	/**
+	 * an amount of elements, which is too large or not contained in the channel, is rejected before the list is changed
+	 */
+	@Test
+	void invalidCount() throws IOException {
+		ByteArrayOutputStream bytes = new ByteArrayOutputStream();
+		ChannelFormat.writeHeader(Channels.newChannel(bytes), ChannelFormat.LONG, ChannelFormat.MAX_COUNT + 1);
+		MultiGappedLongList longs = new MultiGappedLongList();
+		longs.addLong(1);
+		
+		boolean rejected = false;
+		try {
+			longs.readFrom(Channels.newChannel(new ByteArrayInputStream(bytes.toByteArray())));
+		}catch (IOException e) {
+			rejected = true;
+		}
+		assertEquals(true, rejected);
+		assertEquals(List.of(1L), longs);
+		
+		// a file, which ends before the last element
+		Path file = Files.createTempFile("list", ".bin");
+		try {
+			MultiGappedLongList e = filled(() -> new MultiGappedLongList(), i -> i);
+			try (FileChannel channel = FileChannel.open(file, StandardOpenOption.WRITE)) {
+				e.writeTo(channel);
+				channel.truncate(channel.size() - 1);
+			}
+			
+			rejected = false;
+			try (FileChannel channel = FileChannel.open(file, StandardOpenOption.READ)) {
+				longs.readFrom(channel);
+			}catch (IOException ex) {
+				rejected = true;
+			}
+			assertEquals(true, rejected);
+			assertEquals(List.of(1L), longs);
+		}finally {
+			Files.delete(file);
+		}
+	}
+	
+	private <E, L extends MultiGappedList<E>> void test(Supplier<L> lists, int width, Element<E> element, Writer<L> writer, Reader<L> reader) throws IOException {
+		L e = filled(lists, element);
+		List<E> a = new ArrayList<>(e);
+		
+		ByteArrayOutputStream bytes = new ByteArrayOutputStream();
+		writer.write(e, bytes);
+		assertEquals(ChannelFormat.HEADER_SIZE + (long) a.size() * width, bytes.size());
+		
+		// the list read into may contain elements and gaps before
+		L read = filled(lists, element);
+		reader.read(read, new ByteArrayInputStream(bytes.toByteArray()));
+		assertEquals(a, read);
+		
+		// the list read into can still be modified
+		read.add(0, a.get(1));
+		read.remove(read.size() / 2);
+		a.add(0, a.get(1));
+		a.remove(a.size() / 2);
+		assertEquals(a, read);
+	}
+	
+	/**
+	 * 
+	 * @return a list containing elements and gaps
+	 */
+	private <E, L extends MultiGappedList<E>> L filled(Supplier<L> lists, Element<E> element) {
+		L e = lists.get();
+		for (long i = 0; i < ELEMENTS; i++) {
+			e.add(element.of(i));
+		}
+		for (int i = 0; i < ELEMENTS / 10; i++) {
+			e.remove((i * 7919) % e.size());
+		}
+		
+		return e;
+	}
+	
+	private interface Element<E> {
+		E of(long i);
+	}
+	
+	private interface Writer<L> {
+		void write(L list, ByteArrayOutputStream out) throws IOException;
+	}
+	
+	private interface Reader<L> {
+		void read(L list, ByteArrayInputStream in) throws IOException;
+	}
+}
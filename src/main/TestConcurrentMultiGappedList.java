@@ -0,0 +1,185 @@
+package main;
+
+import static org.junit.Assert.assertArrayEquals;
+import static org.junit.Assert.assertEquals;
+import static org.junit.Assert.assertThrows;
+import java.util.ArrayList;
+import java.util.ConcurrentModificationException;
+import java.util.List;
+import java.util.ListIterator;
+import java.util.Random;
+import java.util.concurrent.atomic.AtomicReference;
+
+import org.junit.jupiter.api.Test;
+
+/**
+ * Tests the ConcurrentMultiGappedList against an ArrayList.
+ * @author RalfK
+ *
+ */
+class TestConcurrentMultiGappedList {
+	public static final int ELEMENTS = 2000;
+	public static final int VALUES = 300;
+	public static final int THREADS = 4;
+	
+	/**
+	 * Searching and copying read the list without the cursor of the gaps, so the list must contain gaps.
+	 */
+	@Test
+	void searchAndCopyWithGaps() {
+		for (GapStrategy strategy : GapStrategy.values()) {
+			Random random = new Random(1);
+			ConcurrentMultiGappedList<Integer> list = new ConcurrentMultiGappedList<>(10, ResortPolicy.gapLimit(ELEMENTS), strategy);
+			List<Integer> expected = new ArrayList<>();
+			
+			for (int i = 0; i < ELEMENTS; i++) {
+				int value = random.nextInt(VALUES);
+				list.add(value);
+				expected.add(value);
+			}
+			for (int i = 0; i < ELEMENTS / 2; i++) {
+				int index = random.nextInt(expected.size());
+				assertEquals(expected.remove(index), list.remove(index));
+			}
+			
+			for (int value = -1; value <= VALUES; value++) {
+				assertEquals(strategy + " indexOf " + value, expected.indexOf(value), list.indexOf(value));
+				assertEquals(strategy + " lastIndexOf " + value, expected.lastIndexOf(value), list.lastIndexOf(value));
+				assertEquals(expected.contains(value), list.contains(value));
+			}
+			
+			assertArrayEquals(expected.toArray(), list.toArray());
+			assertArrayEquals(expected.toArray(new Integer[0]), list.toArray(new Integer[0]));
+			
+			Integer[] larger = new Integer[expected.size() + 2];
+			assertEquals(larger, list.toArray(larger));
+			assertEquals(null, larger[expected.size()]);
+		}
+	}
+	
+	/**
+	 * A subList must detect structural modifications of the list.
+	 */
+	@Test
+	void subListFailsFast() {
+		ConcurrentMultiGappedList<Integer> list = new ConcurrentMultiGappedList<>();
+		for (int i = 0; i < 10; i++) {
+			list.add(i);
+		}
+		
+		List<Integer> subList = list.subList(2, 8);
+		subList.remove(0);
+		subList.add(1, 100);
+		assertEquals(6, subList.size());
+		assertEquals(List.of(0, 1, 3, 100, 4, 5, 6, 7, 8, 9), list);
+		
+		list.add(10);
+		assertThrows(ConcurrentModificationException.class, () -> subList.get(0));
+		
+		List<Integer> removed = list.subList(0, 5);
+		list.removeIf(e -> e == 9);
+		assertThrows(ConcurrentModificationException.class, () -> removed.size());
+		
+		// a modification, which does not change anything, is not structural
+		List<Integer> unchanged = list.subList(0, 5);
+		list.removeIf(e -> e < 0);
+		list.set(0, 42);
+		assertEquals(Integer.valueOf(42), unchanged.get(0));
+	}
+	
+	/**
+	 * An iterator works on a copy of the list, which does not change by later modifications.
+	 */
+	@Test
+	void iterators() {
+		ConcurrentMultiGappedList<Integer> list = new ConcurrentMultiGappedList<>(10, ResortPolicy.gapLimit(ELEMENTS), GapStrategy.ARRAY);
+		for (int i = 0; i < 10; i++) {
+			list.add(i);
+		}
+		list.remove(3);
+		
+		ListIterator<Integer> iterator = list.listIterator(4);
+		list.add(0, -1);
+		list.remove(Integer.valueOf(5));
+		
+		assertEquals(Integer.valueOf(5), iterator.next());
+		assertEquals(Integer.valueOf(5), iterator.previous());
+		assertEquals(Integer.valueOf(4), iterator.previous());
+		assertThrows(UnsupportedOperationException.class, () -> iterator.set(0));
+		assertThrows(UnsupportedOperationException.class, () -> iterator.remove());
+		assertThrows(UnsupportedOperationException.class, () -> iterator.add(0));
+		assertThrows(IndexOutOfBoundsException.class, () -> list.listIterator(list.size() + 1));
+		
+		List<Integer> iterated = new ArrayList<>();
+		list.iterator().forEachRemaining(iterated::add);
+		assertEquals(List.of(-1, 0, 1, 2, 4, 6, 7, 8, 9), iterated);
+		assertEquals(List.of(-1, 0, 1, 2, 4, 6, 7, 8, 9), list);
+	}
+	
+	/**
+	 * Threads searching the list, while another one modifies it. Every element appears exactly once,
+	 * so a search finds every value not removed yet at a position containing it.
+	 * @throws InterruptedException if the test is interrupted
+	 */
+	@Test
+	void searchWhileModifying() throws InterruptedException {
+		for (GapStrategy strategy : GapStrategy.values()) {
+			ConcurrentMultiGappedList<Integer> list = new ConcurrentMultiGappedList<>(10, ResortPolicy.gapLimit(50), strategy);
+			for (int i = 0; i < ELEMENTS; i++) {
+				list.add(i);
+			}
+			
+			AtomicReference<Throwable> failure = new AtomicReference<>();
+			List<Thread> readers = new ArrayList<>();
+			
+			for (int t = 0; t < THREADS; t++) {
+				int seed = t;
+				Thread reader = new Thread(() -> {
+					Random random = new Random(seed);
+					try {
+						for (int i = 0; i < ELEMENTS; i++) {
+							int value = random.nextInt(ELEMENTS);
+							int index = random.nextBoolean() ? list.indexOf(value) : list.lastIndexOf(value);
+							
+							// odd values are never removed
+							if (value % 2 == 1 && index < 0) {
+								throw new AssertionError("Value not found: " + value);
+							}
+							if (i % 100 == 0) {
+								Object[] elements = list.toArray();
+								for (int k = 1; k < elements.length; k++) {
+									if ((Integer) elements[k - 1] >= (Integer) elements[k]) {
+										throw new AssertionError("Elements out of order at " + k);
+									}
+								}
+								
+								int previous = -1;
+								for (int element : list) {
+									if (element <= previous) {
+										throw new AssertionError("Iterated out of order: " + element);
+									}
+									previous = element;
+								}
+							}
+						}
+					}catch (Throwable e) {
+						failure.compareAndSet(null, e);
+					}
+				});
+				readers.add(reader);
+				reader.start();
+			}
+			
+			// the writer removes the even values from the end to the front
+			for (int i = ELEMENTS - 2; i >= 0; i -= 2) {
+				list.remove(Integer.valueOf(i));
+			}
+			for (Thread reader : readers) {
+				reader.join();
+			}
+			
+			assertEquals(strategy + " " + failure.get(), null, failure.get());
+			assertEquals(ELEMENTS / 2, list.size());
+		}
+	}
+}
@@ -0,0 +1,112 @@
+package main;
+
+import static org.junit.Assert.assertArrayEquals;
+import static org.junit.Assert.assertEquals;
+import static org.junit.Assert.assertSame;
+import static org.junit.Assert.assertThrows;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.ConcurrentModificationException;
+import java.util.List;
+import java.util.function.Supplier;
+
+import org.junit.jupiter.api.Test;
+
+/**
+ * Tests, if exporting the elements copies them like an ArrayList without resorting the list.
+ * @author RalfK
+ *
+ */
+class TestExport {
+	public static final int ELEMENTS = 1000;
+	
+	/**
+	 * The exports copy the runs between the gaps. The array keeps its gaps and is not copied, if it is shared.
+	 */
+	@Test
+	void withoutResort() {
+		for (GapStrategy strategy : GapStrategy.values()) {
+			List<Supplier<MultiGappedList<Long>>> lists = new ArrayList<>();
+			lists.add(() -> new MultiGappedList<>(10, ResortPolicy.gapLimit(Integer.MAX_VALUE), strategy));
+			lists.add(() -> new MultiGappedLongList(10, ResortPolicy.gapLimit(Integer.MAX_VALUE), strategy));
+			lists.add(() -> new MultiGappedOffHeapLongList(10, ResortPolicy.gapLimit(Integer.MAX_VALUE), strategy));
+			
+			for (Supplier<MultiGappedList<Long>> supplier : lists) {
+				MultiGappedList<Long> e = gapped(supplier.get());
+				ArrayList<Long> a = new ArrayList<>(e);
+				String message = strategy + " " + e.getClass().getSimpleName();
+				
+				e.snapshot();
+				ArrayInterface<Long> array = e.getArray();
+				int length = array.length();
+				
+				assertArrayEquals(message, a.toArray(), e.toArray());
+				assertArrayEquals(message, a.toArray(new Long[0]), e.toArray(new Long[0]));
+				assertArrayEquals(message, a.toArray(new Long[a.size()]), e.toArray(new Long[a.size()]));
+				
+				Long[] larger = new Long[a.size() + 2];
+				Arrays.fill(larger, -1L);
+				assertSame(message, larger, e.toArray(larger));
+				assertEquals(message, null, larger[a.size()]);
+				assertEquals(message, a, Arrays.asList(larger).subList(0, a.size()));
+				
+				Object[] into = new Object[a.size() + 3];
+				e.copyInto(into, 3);
+				assertEquals(message, a, Arrays.asList(into).subList(3, into.length));
+				assertThrows(IndexOutOfBoundsException.class, () -> e.copyInto(into, 4));
+				
+				List<Long> walked = new ArrayList<>();
+				e.forEach(walked::add);
+				assertEquals(message, a, walked);
+				
+				if (e instanceof MultiGappedLongList) {
+					long[] longs = ((MultiGappedLongList) e).toLongArray();
+					assertEquals(message, a, Arrays.asList(Arrays.stream(longs).boxed().toArray(Long[]::new)));
+				}
+				
+				// the array still contains its gaps and is still shared with the snapshot
+				assertSame(message, array, e.getArray());
+				assertEquals(message, length, array.length());
+				assertEquals(message, true, length > a.size());
+			}
+		}
+	}
+	
+	/**
+	 * forEach finds its position again, if the action resorts the list, and fails, if it changes the size.
+	 */
+	@Test
+	void forEachModifications() {
+		for (GapStrategy strategy : GapStrategy.values()) {
+			MultiGappedList<Long> e = gapped(new MultiGappedList<>(10, ResortPolicy.gapLimit(Integer.MAX_VALUE), strategy));
+			ArrayList<Long> a = new ArrayList<>(e);
+			
+			List<Long> walked = new ArrayList<>();
+			e.forEach(element -> {
+				if (walked.size() == a.size() / 2) {
+					e.resort();
+				}
+				walked.add(element);
+			});
+			assertEquals(strategy.toString(), a, walked);
+			
+			assertThrows(ConcurrentModificationException.class, () -> e.forEach(element -> e.add(element)));
+		}
+	}
+	
+	/**
+	 * fills a list and removes some elements, so it contains gaps
+	 * @param e the empty list
+	 * @return the list
+	 */
+	private static MultiGappedList<Long> gapped(MultiGappedList<Long> e) {
+		for (long i = 0; i < ELEMENTS; i++) {
+			e.add(i);
+		}
+		for (int i = 0; i < ELEMENTS / 10; i++) {
+			e.remove((i * 13) % e.size());
+		}
+		
+		return e;
+	}
+}
@@ -0,0 +1,313 @@
+package main;
+
+import static org.junit.Assert.assertEquals;
+import java.lang.management.ManagementFactory;
+import java.util.Arrays;
+import java.util.Random;
+import java.util.TreeSet;
+
+import org.junit.jupiter.api.Test;
+
+import com.sun.management.ThreadMXBean;
+
+/**
+ * Tests the gaps of every GapStrategy by applying random operations on them and comparing them to a
+ * TreeSet of the gaps. All strategies must move their cursor the same way, so they are compared to
+ * each other as well.
+ * @author RalfK
+ *
+ */
+class TestGaps {
+	public static final int OPERATIONS_TO_DO = 200000;
+	public static final int[] RANGES = {40, 3000, 100000};
+	
+	@Test
+	void test() {
+		Random random = new Random(1);
+		
+		for (int range : RANGES) {
+			GapStrategy[] strategies = GapStrategy.values();
+			GapInterface[] gaps = new GapInterface[strategies.length];
+			for (int i = 0; i < gaps.length; i++) {
+				gaps[i] = strategies[i].create(() -> {});
+			}
+			TreeSet<Integer> expected = new TreeSet<>();
+			
+			for (int operation = 0; operation < OPERATIONS_TO_DO; operation++) {
+				int task = random.nextInt(12);
+				int value = random.nextInt(range);
+				int length = random.nextInt(8) == 0 ? random.nextInt(200) : random.nextInt(5);
+				boolean clear = random.nextInt(500) == 0;
+				
+				String first = null;
+				for (int i = 0; i < gaps.length; i++) {
+					String result = apply(gaps[i], task, value, length, clear);
+					String state = result + "|" + gaps[i].getIndex() + ":" + gaps[i].getElement() + ":" + gaps[i].size();
+					
+					if (first == null) {
+						first = state;
+					}
+					assertEquals("GapStrategy: " + strategies[i] + ", range: " + range + ", operation: " + operation, first, state);
+				}
+				
+				update(expected, task, value, length, clear);
+				assertEquals(expected.size(), gaps[0].size());
+				
+				if (operation % 1000 == 0) {
+					check(expected, gaps, strategies);
+				}
+			}
+		}
+	}
+	
+	/**
+	 * Gaps added in ascending or descending order would degenerate an unbalanced tree into a list, so every
+	 * translation would walk all gaps and the recursive insert would overflow the stack.
+	 */
+	@Test
+	void treeGapsStayBalanced() {
+		int count = 200000;
+		GapInterface ascending = GapStrategy.TREE.create(() -> {});
+		GapInterface descending = GapStrategy.TREE.create(() -> {});
+		for (int i = 0; i < count; i++) {
+			ascending.add(i * 2);
+			descending.add((count - 1 - i) * 2);
+		}
+		
+		// every second slot is a gap, so the element at listIndex i is at arrayIndex 2 * i + 1
+		for (int listIndex = 0; listIndex < count; listIndex += 7) {
+			assertEquals(listIndex * 2 + 1, ascending.getArrayIndex(listIndex));
+			assertEquals(listIndex * 2 + 1, descending.peekArrayIndex(listIndex));
+		}
+		
+		for (int i = 0; i < count; i += 2) {
+			ascending.remove(i * 2);
+		}
+		assertEquals(count / 2, ascending.size());
+		
+		// the gaps are at 4k + 2, so the elements are at 4k, 4k + 1 and 4k + 3
+		int[] offsets = {0, 1, 3};
+		for (int listIndex = 0; listIndex < count; listIndex += 5) {
+			assertEquals(listIndex / 3 * 4 + offsets[listIndex % 3], ascending.getArrayIndex(listIndex));
+		}
+	}
+	
+	/**
+	 * Translating indexes and adding or removing gaps must not allocate memory (no Nodes and no boxing),
+	 * once the array of the gaps is large enough.
+	 */
+	@Test
+	void arrayGapsDoNotAllocate() {
+		ThreadMXBean threads = (ThreadMXBean) ManagementFactory.getThreadMXBean();
+		long thread = Thread.currentThread().getId();
+		GapInterface gaps = GapStrategy.ARRAY.create(() -> {});
+		
+		// the array grows to its final capacity and the code is warmed up
+		churn(gaps, 1000);
+		
+		long before = threads.getThreadAllocatedBytes(thread);
+		int sum = churn(gaps, 100000);
+		long allocated = threads.getThreadAllocatedBytes(thread) - before;
+		
+		// boxing a single Integer per operation would allocate megabytes
+		assertEquals("allocated " + allocated + " bytes", true, allocated < 1024);
+		assertEquals(true, sum > 0);
+	}
+	
+	/**
+	 * adds, removes and translates gaps (at most 64)
+	 * @return the sum of the translated indexes
+	 */
+	private int churn(GapInterface gaps, int operations) {
+		int sum = 0;
+		
+		for (int i = 0; i < operations; i++) {
+			int gap = (i * 37) % 64 * 3;
+			if (gaps.contains(gap)) {
+				gaps.remove(gap);
+			}else {
+				gaps.add(gap);
+			}
+			
+			sum += gaps.getArrayIndex(i % 100) + gaps.peekArrayIndex(i % 50) + gaps.getGapCount(i % 30);
+		}
+		
+		return sum;
+	}
+	
+	/**
+	 * Dense gaps at the borders of the words (64 slots) and blocks (512 slots) of the bitmap,
+	 * ranges crossing several blocks and gaps far behind the bitmap, which extend it.
+	 */
+	@Test
+	void bitmapGapsAcrossBlocks() {
+		int length = 1 << 16;
+		GapInterface gaps = GapStrategy.BITMAP.create(() -> {});
+		boolean[] expected = new boolean[length];
+		
+		for (int gap : new int[] {63, 64, 127, 511, 512, 1023, length - 1}) {
+			gaps.add(gap);
+			expected[gap] = true;
+		}
+		gaps.addRange(500, 1100);
+		Arrays.fill(expected, 500, 1100, true);
+		for (int gap = 20000; gap < 50000; gap += 3) {
+			gaps.add(gap);
+			expected[gap] = true;
+		}
+		for (int gap = 510; gap < 1030; gap += 2) {
+			gaps.remove(gap);
+			expected[gap] = false;
+		}
+		
+		int count = 0;
+		gaps.toRoot();
+		for (int gap = 0; gap < length; gap++) {
+			if (expected[gap]) {
+				count++;
+				assertEquals(gap, gaps.next());
+			}
+		}
+		assertEquals(false, gaps.hasNext());
+		assertEquals(count, gaps.size());
+		
+		int listIndex = 0;
+		for (int arrayIndex = 0; arrayIndex < length; arrayIndex++) {
+			if (!expected[arrayIndex]) {
+				assertEquals(arrayIndex, gaps.peekArrayIndex(listIndex));
+				assertEquals(arrayIndex, gaps.getArrayIndex(listIndex));
+				assertEquals(arrayIndex - listIndex, gaps.getGapCount(listIndex));
+				listIndex++;
+			}
+		}
+	}
+	
+	/**
+	 * The linked and the array gaps start a translation at their cursor and leave it at the last gap in front of
+	 * the element. So a sweep only moves the cursor over the gaps between two consecutive elements.
+	 */
+	@Test
+	void translationStartsAtTheCursor() {
+		Random random = new Random(1);
+		
+		for (GapStrategy strategy : new GapStrategy[] {GapStrategy.LINKED, GapStrategy.ARRAY}) {
+			// the gaps are at 3k + 1, so the element at listIndex i has i / 2 + i % 2 gaps in front of it
+			GapInterface gaps = strategy.create(() -> {});
+			for (int gap = 1; gap < 30000; gap += 3) {
+				gaps.add(gap);
+			}
+			int elements = 20000;
+			
+			for (int sweep = 0; sweep < 6; sweep++) {
+				// forward, backward and random sweeps, starting at a random cursor
+				gaps.toGapPosition(random.nextInt(30000));
+				
+				for (int i = 0; i < elements; i++) {
+					int listIndex = sweep % 3 == 0 ? i : sweep % 3 == 1 ? elements - 1 - i : random.nextInt(elements);
+					int gapsBefore = listIndex / 2 + listIndex % 2;
+					
+					assertEquals(strategy + " " + listIndex, listIndex + gapsBefore, gaps.getArrayIndex(listIndex));
+					assertEquals(strategy + " " + listIndex, gapsBefore - 1, gaps.getIndex());
+				}
+			}
+		}
+	}
+	
+	/**
+	 * applies an operation to the gaps
+	 * @return the result of the operation
+	 */
+	private String apply(GapInterface gaps, int task, int value, int length, boolean clear) {
+		switch(task) {
+		case 0:
+		case 1:
+			gaps.add(value);
+			return "";
+		case 2:
+			gaps.remove(value);
+			return "";
+		case 3:
+			gaps.toGapPosition(value);
+			return "";
+		case 4:
+			return gaps.hasNext() ? String.valueOf(gaps.next()) : "none";
+		case 5:
+			return gaps.hasPrevious() ? String.valueOf(gaps.previous()) : "none";
+		case 6:
+			return gaps.hasNext() ? String.valueOf(gaps.previewNext()) : "none";
+		case 7:
+			return gaps.hasPrevious() ? String.valueOf(gaps.previewPrevious()) : "none";
+		case 8:
+			return String.valueOf(gaps.contains(value));
+		case 9:
+			gaps.addRange(value, value + length);
+			gaps.toRoot();
+			return "";
+		case 10:
+			gaps.toRoot();
+			return "";
+		default:
+			if (clear) {
+				gaps.clear();
+			}
+			return "";
+		}
+	}
+	
+	/**
+	 * applies an operation changing the gaps to the expected gaps
+	 */
+	private void update(TreeSet<Integer> expected, int task, int value, int length, boolean clear) {
+		switch(task) {
+		case 0:
+		case 1:
+			expected.add(value);
+			break;
+		case 2:
+			expected.remove(value);
+			break;
+		case 9:
+			for (int gap = value; gap < value + length; gap++) {
+				expected.add(gap);
+			}
+			break;
+		case 11:
+			if (clear) {
+				expected.clear();
+			}
+			break;
+		}
+	}
+	
+	/**
+	 * compares the translation of all listIndexes to the expected gaps. Peeking must not move the cursor
+	 */
+	private void check(TreeSet<Integer> expected, GapInterface[] gaps, GapStrategy[] strategies) {
+		int listIndex = 0;
+		int arrayIndex = 0;
+		
+		for (int i = 0; i < 200; i++) {
+			while (expected.contains(arrayIndex)) {
+				arrayIndex++;
+			}
+			
+			for (int g = 0; g < gaps.length; g++) {
+				int index = gaps[g].getIndex();
+				assertEquals("GapStrategy: " + strategies[g], arrayIndex, gaps[g].peekArrayIndex(listIndex));
+				assertEquals("GapStrategy: " + strategies[g], index, gaps[g].getIndex());
+				assertEquals("GapStrategy: " + strategies[g], arrayIndex, gaps[g].getArrayIndex(listIndex));
+			}
+			
+			listIndex++;
+			arrayIndex++;
+		}
+		
+		for (GapInterface g : gaps) {
+			g.toRoot();
+			for (int gap : expected) {
+				assertEquals(gap, g.next());
+			}
+			assertEquals(false, g.hasNext());
+		}
+	}
+}
@@ -1,13 +1,23 @@
 package main;
 
 import static org.junit.Assert.assertEquals;
+import static org.junit.Assert.assertThrows;
+import static org.junit.Assert.assertTrue;
+import java.io.ByteArrayInputStream;
+import java.io.ByteArrayOutputStream;
+import java.io.IOException;
+import java.io.ObjectInputStream;
+import java.io.ObjectOutputStream;
 import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.Iterator;
 import java.util.List;
+import java.util.ListIterator;
 
 import org.junit.jupiter.api.Test;
 
 class TestList {
-	public static final int OPERATIONS_TO_DO = Integer.MAX_VALUE;
+	public static final int OPERATIONS_TO_DO = 500000;
 	public static final boolean OUTPUT = false;
 	public static final int PERCENTAGE_ACCURACY = 10;
 	
@@ -41,18 +51,192 @@ class TestList {
 	
 
 	/**
-	 * We test the new List by applying random operations on it. If it works correctly, it must do the same as a List that works properly (like the ArrayList)
+	 * We test the new List by applying random operations on it. If it works correctly, it must do the same as a List that works properly (like the ArrayList).
+	 * Every GapStrategy is tested, a failure names the strategy.
 	 */
 	@Test
 	void test() {
+		for (GapStrategy strategy : GapStrategy.values()) {
+			try {
+				test(strategy);
+			}catch (AssertionError e) {
+				throw new AssertionError("GapStrategy: " + strategy, e);
+			}
+		}
+	}
+	
+	/**
+	 * The iterator must still change the element it returned, after the list was resorted.
+	 */
+	@Test
+	void iteratorAfterResort() {
+		for (GapStrategy strategy : GapStrategy.values()) {
+			// the gaps are at 0 and 1, the elements are 2 .. 9
+			MultiGappedList<Long> e = gapped(strategy);
+			Iterator<Long> iterator = e.listIterator();
+			iterator.next();
+			e.resort();
+			((ListIterator<Long>) iterator).set(99L);
+			assertEquals(Arrays.asList(99L, 3L, 4L, 5L, 6L, 7L, 8L, 9L), e);
+			
+			e = gapped(strategy);
+			iterator = e.iterator();
+			iterator.next();
+			iterator.next();
+			e.resort();
+			iterator.remove();
+			assertEquals(Arrays.asList(2L, 4L, 5L, 6L, 7L, 8L, 9L), e);
+		}
+	}
+	
+	/**
+	 * A deserialized list must support the same modifications as a new one, even if it is tiny.
+	 */
+	@Test
+	void serialization() throws IOException, ClassNotFoundException {
+		List<MultiGappedList<Long>> lists = Arrays.asList(new MultiGappedList<>(), new MultiGappedLongList(), new MultiGappedOffHeapLongList());
+		
+		for (MultiGappedList<Long> list : lists) {
+			for (int size = 0; size < 3; size++) {
+				ArrayList<Long> a = new ArrayList<>();
+				list.clear();
+				for (long i = 0; i < size; i++) {
+					list.add(i);
+					a.add(i);
+				}
+				
+				ByteArrayOutputStream bytes = new ByteArrayOutputStream();
+				try (ObjectOutputStream out = new ObjectOutputStream(bytes)) {
+					out.writeObject(list);
+				}
+				
+				@SuppressWarnings("unchecked")
+				MultiGappedList<Long> e = (MultiGappedList<Long>) new ObjectInputStream(new ByteArrayInputStream(bytes.toByteArray())).readObject();
+				assertEquals(list.getClass(), e.getClass());
+				eq(e, a);
+				
+				for (long i = 0; i < 200; i++) {
+					e.add(0, i);
+					a.add(0, i);
+					e.add(e.size() / 2, i);
+					a.add(a.size() / 2, i);
+				}
+				eq(e, a);
+			}
+		}
+	}
+	
+	/**
+	 * The filter of removeIf may read the list, it must see the list unchanged until all elements were tested.
+	 */
+	@Test
+	void removeIfReadingTheList() {
+		for (GapStrategy strategy : GapStrategy.values()) {
+			MultiGappedList<Long> e = new MultiGappedList<>(10, Integer.MAX_VALUE, strategy);
+			ArrayList<Long> a = new ArrayList<>();
+			for (long i = 0; i < 300; i++) {
+				e.add(i);
+				a.add(i);
+			}
+			for (int i = 0; i < 40; i++) {
+				int index = (i * 7) % a.size();
+				e.remove(index);
+				a.remove(index);
+			}
+			
+			int[] tested = {0};
+			e.removeIf(x -> {
+				int index = (tested[0]++ * 13) % a.size();
+				assertEquals(a.get(index), e.get(index));
+				return x % 3 == 0;
+			});
+			assertEquals(a.size(), tested[0]);
+			
+			a.removeIf(x -> x % 3 == 0);
+			eq(e, a);
+			
+			// a failing filter does not change the list
+			boolean thrown = false;
+			try {
+				e.removeIf(x -> {
+					if (x > 100) {
+						throw new IllegalStateException();
+					}
+					return true;
+				});
+			}catch (IllegalStateException ex) {
+				thrown = true;
+			}
+			assertEquals(true, thrown);
+			eq(e, a);
+		}
+	}
+	
+	/**
+	 * The incremental resort moves a few elements per modification. The list must stay correct meanwhile,
+	 * while the gaps may exceed the limit until the resort is finished.
+	 */
+	@Test
+	void incrementalResort() {
+		for (GapStrategy strategy : GapStrategy.values()) {
+			MultiGappedList<Long> e = new MultiGappedList<>(10, ResortPolicy.gapLimit(8), strategy);
+			ArrayList<Long> a = new ArrayList<>();
+			e.setIncrementalResort(1);
+			assertEquals(1, e.getIncrementalResort());
+			for (long i = 0; i < 200; i++) {
+				e.add(i);
+				a.add(i);
+			}
+			
+			for (int i = 0; i < 30; i++) {
+				int index = (i * 37) % a.size();
+				assertEquals(a.remove(index), e.remove(index));
+				eq(e, a);
+			}
+			
+			// a step moving a single element per modification can not keep up with the removes
+			int steps = 0;
+			while (!e.resortStep(3)) {
+				steps++;
+				eq(e, a);
+			}
+			assertTrue(strategy + " " + steps, steps > 0);
+			eq(e, a);
+			assertThrows(IllegalArgumentException.class, () -> e.resortStep(0));
+			
+			// disabling the incremental resort finishes a pending one at once
+			for (int i = 0; i < 20; i++) {
+				int index = (i * 11) % a.size();
+				assertEquals(a.remove(index), e.remove(index));
+			}
+			e.setIncrementalResort(MultiGappedList.NO_INCREMENTAL_RESORT);
+			assertTrue(e.resortStep(1));
+			eq(e, a);
+			assertThrows(IllegalArgumentException.class, () -> e.setIncrementalResort(-1));
+		}
+	}
+	
+	private MultiGappedList<Long> gapped(GapStrategy strategy) {
+		MultiGappedList<Long> e = new MultiGappedList<>(10, Integer.MAX_VALUE, strategy);
+		for (long i = 0; i < 10; i++) {
+			e.add(i);
+		}
+		e.remove(0);
+		e.remove(0);
+		
+		return e;
+	}
+	
+	private void test(GapStrategy strategy) {
 		int pointZeroOne = OPERATIONS_TO_DO / PERCENTAGE_ACCURACY / 100;
 		int decimals = ((int) Math.log10(OPERATIONS_TO_DO));
 		int lastSend = 0;
 		
-		// low resort level
-		MultiGappedList<Long> e = new MultiGappedList<>(10, 3, (byte) 2);
+		// low resort level to keep track of the gaps
+		MultiGappedList<Long> e = new MultiGappedList<>(10, 3, (byte) 2, strategy);
 		ArrayList<Long> a = new ArrayList<>(10);
 		
+		System.out.println("GapStrategy: " + strategy);
 		System.out.println(" elapsed      percent   remaining     Operations");
 		
 		long start = System.currentTimeMillis();
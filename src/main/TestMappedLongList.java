@@ -0,0 +1,136 @@
+package main;
+
+import static org.junit.Assert.assertEquals;
+import java.io.IOException;
+import java.nio.ByteBuffer;
+import java.nio.ByteOrder;
+import java.nio.channels.FileChannel;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.nio.file.StandardOpenOption;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.List;
+import java.util.function.Consumer;
+
+import org.junit.jupiter.api.Test;
+
+/**
+ * Tests, if a list stored in a file can be reopened and if a file, which was not forced, is rejected.
+ * @author RalfK
+ *
+ */
+class TestMappedLongList {
+	
+	/**
+	 * A closed list is restored with its elements and gaps.
+	 */
+	@Test
+	void reopen() throws IOException {
+		Path file = Files.createTempFile("list", ".bin");
+		ArrayList<Long> a = new ArrayList<>();
+		
+		try (MultiGappedMappedLongList e = MultiGappedMappedLongList.open(file, 10, ResortPolicy.gapLimit(Integer.MAX_VALUE), GapStrategy.ARRAY)) {
+			for (long i = 0; i < 1000; i++) {
+				e.add(i);
+				a.add(i);
+			}
+			for (int i = 0; i < 100; i++) {
+				e.remove(i * 7);
+				a.remove(i * 7);
+			}
+			assertEquals(true, e.getArray().length() > e.size());
+		}
+		
+		try (MultiGappedMappedLongList e = MultiGappedMappedLongList.open(file)) {
+			assertEquals(a, e);
+			e.add(0, -1L);
+			a.add(0, -1L);
+		}
+		
+		try (MultiGappedMappedLongList e = MultiGappedMappedLongList.open(file)) {
+			assertEquals(a, e);
+		}finally {
+			Files.delete(file);
+		}
+	}
+	
+	/**
+	 * Every modification after force() marks the file, so it can not be reopened with wrong elements.
+	 */
+	@Test
+	void modifiedAfterForce() throws IOException {
+		List<Consumer<MultiGappedMappedLongList>> modifications = new ArrayList<>();
+		modifications.add(e -> e.add(5L));
+		modifications.add(e -> e.add(0, 5L));
+		modifications.add(e -> e.set(3, 5L));
+		modifications.add(e -> e.setLong(3, 5L));
+		modifications.add(e -> e.remove(3));
+		modifications.add(e -> e.subList(2, 4).clear());
+		modifications.add(e -> e.addAll(2, Arrays.asList(1L, 2L)));
+		modifications.add(e -> e.removeIf(x -> x == 3));
+		modifications.add(e -> e.sort(null));
+		modifications.add(e -> e.resort());
+		modifications.add(e -> e.clear());
+		
+		for (Consumer<MultiGappedMappedLongList> modification : modifications) {
+			Path file = Files.createTempFile("list", ".bin");
+			
+			try (MultiGappedMappedLongList e = MultiGappedMappedLongList.open(file, 10, ResortPolicy.gapLimit(Integer.MAX_VALUE), GapStrategy.ARRAY)) {
+				for (long i = 10; i > 0; i--) {
+					e.add(i);
+				}
+				e.remove(5);
+				e.force();
+				
+				// the forced file can be opened
+				MultiGappedMappedLongList.open(file).close();
+				
+				modification.accept(e);
+				
+				boolean rejected = false;
+				try {
+					MultiGappedMappedLongList.open(file).close();
+				}catch (IOException ex) {
+					rejected = true;
+				}
+				assertEquals(true, rejected);
+			}
+			
+			// closing forces the list
+			MultiGappedMappedLongList.open(file).close();
+			Files.delete(file);
+		}
+	}
+	
+	/**
+	 * Only the current version of the file format is opened, a file of another version is rejected.
+	 */
+	@Test
+	void otherVersion() throws IOException {
+		Path file = Files.createTempFile("list", ".bin");
+		
+		try {
+			try (MultiGappedMappedLongList e = MultiGappedMappedLongList.open(file)) {
+				e.add(1L);
+			}
+			
+			for (int version : new int[] {1, MappedLongArray.VERSION + 1}) {
+				try (FileChannel channel = FileChannel.open(file, StandardOpenOption.WRITE)) {
+					ByteBuffer header = ByteBuffer.allocate(Integer.BYTES).order(ByteOrder.LITTLE_ENDIAN).putInt(0, version);
+					channel.write(header, 8);
+				}
+				
+				boolean rejected = false;
+				try {
+					MultiGappedMappedLongList.open(file).close();
+				}catch (IOException ex) {
+					rejected = true;
+				}
+				assertEquals(true, rejected);
+			}
+		}finally {
+			Files.delete(file);
+		}
+	}
+}
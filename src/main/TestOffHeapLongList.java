@@ -0,0 +1,128 @@
+package main;
+
+import static org.junit.Assert.assertEquals;
+import java.io.ByteArrayInputStream;
+import java.io.ByteArrayOutputStream;
+import java.io.IOException;
+import java.nio.channels.Channels;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Random;
+
+import org.junit.jupiter.api.Test;
+
+/**
+ * Tests the limits of the lists storing their elements in a buffer.
+ * @author RalfK
+ *
+ */
+class TestOffHeapLongList {
+	public static final int OPERATIONS = 20000;
+	
+	/**
+	 * The storage grows beyond the capacity of a single buffer, but not beyond the capacity of a long[].
+	 * This must fail clearly instead of storing less elements.
+	 */
+	@Test
+	void capacityLimit() {
+		try (OffHeapLongArray array = new OffHeapLongArray(GapStrategy.ARRAY.create(() -> {}), 10, (byte) 2)) {
+			int bufferCapacity = Integer.MAX_VALUE / Long.BYTES;
+			assertEquals(bufferCapacity + 1, array.grownCapacity(bufferCapacity + 1L));
+			assertEquals(Integer.MAX_VALUE, array.grownCapacity(Integer.MAX_VALUE));
+			assertEquals(true, throwsOutOfMemoryError(() -> array.grownCapacity(Integer.MAX_VALUE + 1L)));
+			
+			assertEquals(16, array.segmentLengths(Integer.MAX_VALUE).length);
+			assertEquals((1 << BufferLongArray.SEGMENT_SHIFT) - 1, array.segmentLengths(Integer.MAX_VALUE)[15]);
+		}
+	}
+	
+	/**
+	 * Every operation works across the borders of the segments. Tiny segments of 16 elements are used,
+	 * so almost every move and every run between the gaps crosses a border.
+	 */
+	@Test
+	void segments() throws IOException {
+		for (GapStrategy strategy : GapStrategy.values()) {
+			Random random = new Random(1);
+			MultiGappedLongList e = new MultiGappedLongList(ResortPolicy.gapLimit(30), strategy,
+					gaps -> new OffHeapLongArray(gaps, 10, (byte) 2, 4));
+			ArrayList<Long> a = new ArrayList<>();
+			
+			for (int i = 0; i < OPERATIONS; i++) {
+				int index = random.nextInt(a.size() + 1);
+				long value = random.nextLong();
+				
+				switch (a.isEmpty() ? 0 : random.nextInt(8)) {
+				case 0:
+				case 1:
+					e.addLong(index, value);
+					a.add(index, value);
+					break;
+				case 2:
+					List<Long> added = List.of(value, value + 1, value + 2, value + 3, value + 4);
+					e.addAll(index, added);
+					a.addAll(index, added);
+					break;
+				case 3:
+					index = Math.min(index, a.size() - 1);
+					assertEquals(a.remove(index), (Long) e.removeLong(index));
+					break;
+				case 4:
+					int to = Math.min(a.size(), index + random.nextInt(40));
+					e.subList(index, to).clear();
+					a.subList(index, to).clear();
+					break;
+				case 5:
+					index = Math.min(index, a.size() - 1);
+					assertEquals(a.set(index, value), (Long) e.setLong(index, value));
+					break;
+				case 6:
+					index = Math.min(index, a.size() - 1);
+					assertEquals((long) a.get(index), e.getLong(index));
+					assertEquals(a.indexOf(a.get(index)), e.indexOf(a.get(index)));
+					break;
+				default:
+					if (random.nextInt(20) == 0) {
+						e.resort();
+					}
+					break;
+				}
+				
+				if (i % 200 == 0) {
+					assertEquals(strategy + " operation " + i, a, e);
+					assertEquals(strategy + " operation " + i, a, toList(e.toLongArray()));
+					
+					ByteArrayOutputStream bytes = new ByteArrayOutputStream();
+					e.writeTo(Channels.newChannel(bytes));
+					MultiGappedLongList read = new MultiGappedLongList(ResortPolicy.gapLimit(30), strategy,
+							gaps -> new OffHeapLongArray(gaps, 10, (byte) 2, 4));
+					read.readFrom(Channels.newChannel(new ByteArrayInputStream(bytes.toByteArray())));
+					assertEquals(strategy + " operation " + i, a, read);
+				}
+			}
+			
+			e.sort(null);
+			a.sort(null);
+			assertEquals(a, e);
+		}
+	}
+	
+	private static List<Long> toList(long[] elements) {
+		List<Long> list = new ArrayList<>();
+		for (long element : elements) {
+			list.add(element);
+		}
+		
+		return list;
+	}
+	
+	private boolean throwsOutOfMemoryError(Runnable runnable) {
+		try {
+			runnable.run();
+		}catch (OutOfMemoryError e) {
+			return true;
+		}
+		
+		return false;
+	}
+}
@@ -0,0 +1,82 @@
+package main;
+
+import static org.junit.Assert.assertEquals;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Random;
+import java.util.function.Supplier;
+
+import org.junit.jupiter.api.Test;
+
+/**
+ * Tests the removal of the gaps by multiple threads with a small threshold, so it runs on small arrays.
+ * @author RalfK
+ *
+ */
+class TestParallelCompaction {
+	public static final int ELEMENTS = 5000;
+	public static final int ROUNDS = 30;
+	public static final int THRESHOLD = 256;
+	
+	/**
+	 * The array is compacted in place by resort() and into a new storage by an extension and by trim().
+	 * The gaps are placed at the borders of the blocks as well as in long runs.
+	 */
+	@Test
+	void compaction() {
+		for (GapStrategy strategy : GapStrategy.values()) {
+			List<Supplier<MultiGappedList<Long>>> lists = new ArrayList<>();
+			lists.add(() -> new MultiGappedList<>(10, ResortPolicy.gapLimit(Integer.MAX_VALUE), strategy));
+			lists.add(() -> new MultiGappedLongList(10, ResortPolicy.gapLimit(Integer.MAX_VALUE), strategy));
+			
+			for (Supplier<MultiGappedList<Long>> supplier : lists) {
+				Random random = new Random(1);
+				MultiGappedList<Long> e = supplier.get();
+				ArrayList<Long> a = new ArrayList<>();
+				((AbstractCustomArray<?, ?>) e.getArray()).setParallelThreshold(THRESHOLD);
+				
+				for (int round = 0; round < ROUNDS; round++) {
+					String message = strategy + " " + e.getClass().getSimpleName() + " round " + round;
+					while (a.size() < ELEMENTS) {
+						long value = random.nextLong();
+						e.add(value);
+						a.add(value);
+					}
+					
+					// single gaps, gaps in front of the first element and a run over several blocks
+					for (int i = 0; i < ELEMENTS / 20; i++) {
+						int index = random.nextInt(a.size());
+						assertEquals(message, a.remove(index), e.remove(index));
+					}
+					assertEquals(message, a.remove(0), e.remove(0));
+					int from = random.nextInt(a.size() / 2);
+					int to = from + random.nextInt(THRESHOLD);
+					a.subList(from, to).clear();
+					e.subList(from, to).clear();
+					
+					switch (round % 3) {
+					case 0:
+						e.resort();
+						break;
+					case 1:
+						e.getArray().trim();
+						break;
+					default:
+						// the array is extended, which removes the gaps as well
+						int capacity = ((AbstractCustomArray<?, ?>) e.getArray()).capacity();
+						while (e.getArray().length() < capacity) {
+							e.add(0L);
+							a.add(0L);
+						}
+						e.add(1L);
+						a.add(1L);
+						break;
+					}
+					
+					assertEquals(message, a.size(), e.getArray().length());
+					assertEquals(message, a, e);
+				}
+			}
+		}
+	}
+}
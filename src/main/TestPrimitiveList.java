@@ -0,0 +1,87 @@
+package main;
+
+import static org.junit.Assert.assertArrayEquals;
+import static org.junit.Assert.assertEquals;
+import static org.junit.Assert.assertThrows;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.List;
+import java.util.ListIterator;
+import java.util.function.Consumer;
+import java.util.function.Supplier;
+
+import org.junit.jupiter.api.Test;
+
+/**
+ * Tests the lists storing their elements in primitive arrays.
+ * @author RalfK
+ *
+ */
+class TestPrimitiveList {
+	public static final int ELEMENTS = 100;
+	
+	/**
+	 * Null is rejected before the array or the gaps are changed, so the list stays usable.
+	 */
+	@Test
+	void rejectsNull() {
+		List<Consumer<MultiGappedLongList>> modifications = new ArrayList<>();
+		modifications.add(list -> list.add(null));
+		modifications.add(list -> list.add(5, null));
+		modifications.add(list -> list.addAll(Arrays.asList(1L, null, 2L)));
+		modifications.add(list -> list.addAll(5, Arrays.asList(1L, null, 2L)));
+		modifications.add(list -> list.set(5, null));
+		modifications.add(list -> list.subList(3, 10).set(2, null));
+		modifications.add(list -> list.subList(3, 10).add(2, null));
+		modifications.add(list -> list.batch().add(5, null));
+		modifications.add(list -> list.replaceAll(e -> e == 50 ? null : e));
+		modifications.add(list -> {
+			ListIterator<Long> iterator = list.listIterator(5);
+			iterator.next();
+			iterator.set(null);
+		});
+		modifications.add(list -> list.listIterator(5).add(null));
+		
+		for (GapStrategy strategy : GapStrategy.values()) {
+			List<Supplier<MultiGappedLongList>> lists = new ArrayList<>();
+			lists.add(() -> new MultiGappedLongList(10, ResortPolicy.gapLimit(Integer.MAX_VALUE), strategy));
+			lists.add(() -> new MultiGappedOffHeapLongList(10, ResortPolicy.gapLimit(Integer.MAX_VALUE), strategy));
+			
+			for (Supplier<MultiGappedLongList> supplier : lists) {
+				for (int m = 0; m < modifications.size(); m++) {
+					MultiGappedLongList e = supplier.get();
+					for (long i = 0; i < ELEMENTS; i++) {
+						e.addLong(i);
+					}
+					for (int i = 0; i < ELEMENTS / 10; i++) {
+						e.remove(i * 7);
+					}
+					long[] state = e.toLongArray();
+					
+					Consumer<MultiGappedLongList> modification = modifications.get(m);
+					assertThrows(NullPointerException.class, () -> modification.accept(e));
+					
+					String message = strategy + " " + e.getClass().getSimpleName() + " modification " + m;
+					assertEquals(message, state.length, e.size());
+					assertArrayEquals(message, state, e.toLongArray());
+					
+					// the gaps still match the elements
+					e.add(0, -1L);
+					e.resort();
+					assertEquals(message, -1L, e.getLong(0));
+					assertEquals(message, state[state.length - 1], e.getLong(state.length));
+				}
+			}
+		}
+		
+		MultiGappedIntList ints = new MultiGappedIntList();
+		ints.addInt(1);
+		assertThrows(NullPointerException.class, () -> ints.add(0, null));
+		assertArrayEquals(new int[] {1}, ints.toIntArray());
+		
+		MultiGappedDoubleList doubles = new MultiGappedDoubleList();
+		doubles.addDouble(1);
+		assertThrows(NullPointerException.class, () -> doubles.addAll(0, Arrays.asList(2., null)));
+		assertArrayEquals(new double[] {1}, doubles.toDoubleArray(), 0);
+	}
+}
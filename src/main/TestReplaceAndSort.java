@@ -0,0 +1,174 @@
+package main;
+
+import static org.junit.Assert.assertArrayEquals;
+import static org.junit.Assert.assertEquals;
+import static org.junit.Assert.assertThrows;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.Comparator;
+import java.util.ConcurrentModificationException;
+import java.util.List;
+import java.util.Random;
+import java.util.function.Supplier;
+
+import org.junit.jupiter.api.Test;
+
+/**
+ * Tests, if replaceAll and sort, which work on the array directly, behave like the ones of an ArrayList.
+ * @author RalfK
+ *
+ */
+class TestReplaceAndSort {
+	public static final int ELEMENTS = 1000;
+	
+	/**
+	 * replaceAll skips the gaps and finds its position again, if the operator resorts the list or takes a snapshot.
+	 */
+	@Test
+	void replaceAll() {
+		for (GapStrategy strategy : GapStrategy.values()) {
+			for (Supplier<MultiGappedList<Long>> supplier : lists(strategy)) {
+				MultiGappedList<Long> e = gapped(supplier.get());
+				ArrayList<Long> a = new ArrayList<>(e);
+				String message = strategy + " " + e.getClass().getSimpleName();
+				
+				e.replaceAll(element -> element * 3);
+				a.replaceAll(element -> element * 3);
+				assertEquals(message, a, e);
+				
+				// the operator resorts the list in the middle of the walk
+				e.add(ELEMENTS / 2, -1L);
+				e.remove(ELEMENTS / 4);
+				a.add(ELEMENTS / 2, -1L);
+				a.remove(ELEMENTS / 4);
+				int[] calls = new int[1];
+				e.replaceAll(element -> {
+					if (++calls[0] == a.size() / 2) {
+						e.resort();
+					}
+					return element + 1;
+				});
+				a.replaceAll(element -> element + 1);
+				assertEquals(message, a, e);
+				
+				// the operator takes a snapshot, which keeps the elements replaced so far
+				calls[0] = 0;
+				List<List<Long>> snapshots = new ArrayList<>();
+				e.replaceAll(element -> {
+					if (++calls[0] == a.size() / 3) {
+						snapshots.add(e.snapshot());
+					}
+					return -element;
+				});
+				List<Long> expected = new ArrayList<>(a);
+				for (int i = 0; i < a.size() / 3 - 1; i++) {
+					expected.set(i, -expected.get(i));
+				}
+				a.replaceAll(element -> -element);
+				assertEquals(message, a, e);
+				assertEquals(message, expected, snapshots.get(0));
+				
+				// changing the size is detected
+				assertThrows(ConcurrentModificationException.class, () -> e.replaceAll(element -> {
+					e.add(element);
+					return element;
+				}));
+			}
+		}
+	}
+	
+	/**
+	 * sort removes the gaps and sorts the array with the natural order or a comparator.
+	 * The list stays usable afterwards.
+	 */
+	@Test
+	void sort() {
+		List<Comparator<? super Long>> comparators = Arrays.asList(null, Comparator.naturalOrder(),
+				Comparator.reverseOrder(), Comparator.comparing(element -> element % 7));
+		
+		for (GapStrategy strategy : GapStrategy.values()) {
+			for (Supplier<MultiGappedList<Long>> supplier : lists(strategy)) {
+				for (Comparator<? super Long> comparator : comparators) {
+					MultiGappedList<Long> e = gapped(supplier.get());
+					ArrayList<Long> a = new ArrayList<>(e);
+					String message = strategy + " " + e.getClass().getSimpleName() + " " + comparator;
+					
+					e.sort(comparator);
+					a.sort(comparator);
+					assertEquals(message, a, e);
+					assertEquals(message, a.size(), e.getArray().length());
+					
+					e.add(3, -1L);
+					e.remove(a.size() / 2);
+					a.add(3, -1L);
+					a.remove(a.size() / 2);
+					assertEquals(message, a, e);
+				}
+				
+				// an empty list and a list with a single element
+				MultiGappedList<Long> e = supplier.get();
+				e.sort(null);
+				assertEquals(List.of(), e);
+				e.add(5L);
+				e.sort(Comparator.reverseOrder());
+				assertEquals(List.of(5L), e);
+			}
+		}
+		
+		// null is sorted like by an ArrayList
+		MultiGappedList<Long> e = gapped(new MultiGappedList<>());
+		e.set(10, null);
+		e.add(0, null);
+		ArrayList<Long> a = new ArrayList<>(e);
+		e.sort(Comparator.nullsLast(Comparator.reverseOrder()));
+		a.sort(Comparator.nullsLast(Comparator.reverseOrder()));
+		assertEquals(a, e);
+		assertThrows(NullPointerException.class, () -> e.sort(null));
+		
+		MultiGappedIntList ints = new MultiGappedIntList();
+		MultiGappedDoubleList doubles = new MultiGappedDoubleList();
+		Random random = new Random(3);
+		for (int i = 0; i < ELEMENTS; i++) {
+			ints.addInt(random.nextInt());
+			doubles.addDouble(random.nextDouble() - 0.5);
+		}
+		ints.remove(ELEMENTS / 2);
+		doubles.remove(ELEMENTS / 2);
+		
+		int[] sortedInts = ints.toIntArray();
+		Arrays.sort(sortedInts);
+		ints.sort(null);
+		assertArrayEquals(sortedInts, ints.toIntArray());
+		
+		double[] sortedDoubles = doubles.toDoubleArray();
+		Arrays.sort(sortedDoubles);
+		doubles.sort(null);
+		assertArrayEquals(sortedDoubles, doubles.toDoubleArray(), 0);
+	}
+	
+	private static List<Supplier<MultiGappedList<Long>>> lists(GapStrategy strategy) {
+		List<Supplier<MultiGappedList<Long>>> lists = new ArrayList<>();
+		lists.add(() -> new MultiGappedList<>(10, ResortPolicy.gapLimit(Integer.MAX_VALUE), strategy));
+		lists.add(() -> new MultiGappedLongList(10, ResortPolicy.gapLimit(Integer.MAX_VALUE), strategy));
+		lists.add(() -> new MultiGappedOffHeapLongList(10, ResortPolicy.gapLimit(Integer.MAX_VALUE), strategy));
+		
+		return lists;
+	}
+	
+	/**
+	 * fills a list with random elements and removes some of them, so it contains gaps
+	 * @param e the empty list
+	 * @return the list
+	 */
+	private static MultiGappedList<Long> gapped(MultiGappedList<Long> e) {
+		Random random = new Random(7);
+		for (int i = 0; i < ELEMENTS; i++) {
+			e.add((long) random.nextInt(ELEMENTS));
+		}
+		for (int i = 0; i < ELEMENTS / 10; i++) {
+			e.remove((i * 13) % e.size());
+		}
+		
+		return e;
+	}
+}
@@ -0,0 +1,188 @@
+package main;
+
+import static org.junit.Assert.assertEquals;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.TimeUnit;
+import java.util.function.Consumer;
+
+import org.junit.jupiter.api.Test;
+
+/**
+ * Tests, if the resort policies get informed about the usage of the list.
+ * @author RalfK
+ *
+ */
+class TestResortPolicy {
+	public static final int ELEMENTS = 100;
+	public static final int READS = 50;
+	
+	/**
+	 * Every way of reading the list counts as a read, even if the list does not contain gaps.
+	 */
+	@Test
+	void adaptiveGapLimitCountsReads() {
+		List<Consumer<MultiGappedList<Long>>> readers = new ArrayList<>();
+		readers.add(list -> list.get(ELEMENTS / 2));
+		readers.add(list -> list.iterator().forEachRemaining(e -> {}));
+		readers.add(list -> list.forEach(e -> {}));
+		readers.add(list -> list.stream().count());
+		readers.add(list -> list.toArray());
+		readers.add(list -> list.contains(-1L));
+		readers.add(list -> list.subList(0, ELEMENTS).get(0));
+		
+		for (Consumer<MultiGappedList<Long>> reader : readers) {
+			AdaptiveGapLimitPolicy policy = ResortPolicy.adaptiveGapLimit(1, 64);
+			MultiGappedList<Long> list = new MultiGappedList<>(ELEMENTS, policy, GapStrategy.ARRAY);
+			for (long i = 0; i < ELEMENTS; i++) {
+				list.add(i);
+			}
+			int limit = policy.getGapLimit();
+			
+			for (int i = 0; i < READS * ELEMENTS; i++) {
+				reader.accept(list);
+			}
+			
+			assertEquals(true, policy.getGapLimit() < limit);
+		}
+	}
+	
+	/**
+	 * Adding and removing elements at an index translates the index, but only counts as a modification.
+	 * Therefore a write heavy workload raises the limit.
+	 */
+	@Test
+	void adaptiveGapLimitGrowsForWrites() {
+		List<Consumer<MultiGappedList<Long>>> writers = new ArrayList<>();
+		writers.add(list -> list.add(0L));
+		writers.add(list -> {
+			list.add(list.size() / 2, 0L);
+			list.remove(list.size() / 3);
+		});
+		writers.add(list -> ((MultiGappedLongList) list).addLong(list.size() / 2, 0L));
+		
+		for (Consumer<MultiGappedList<Long>> writer : writers) {
+			for (GapStrategy strategy : GapStrategy.values()) {
+				AdaptiveGapLimitPolicy policy = ResortPolicy.adaptiveGapLimit(1, 64);
+				MultiGappedList<Long> list = new MultiGappedLongList(ELEMENTS, policy, strategy);
+				for (long i = 0; i < ELEMENTS; i++) {
+					list.add(i);
+				}
+				int limit = policy.getGapLimit();
+				
+				for (int i = 0; i < READS * ELEMENTS; i++) {
+					writer.accept(list);
+				}
+				
+				assertEquals(strategy.toString(), true, policy.getGapLimit() > limit);
+			}
+		}
+	}
+	
+	/**
+	 * Every built-in policy resorts the list, when its condition is met. Reads ask the policy only once per
+	 * READS_PER_RESORT_TEST reads.
+	 * @throws InterruptedException if the test is interrupted
+	 */
+	@Test
+	void triggers() throws InterruptedException {
+		CountingPolicy limit = new CountingPolicy(ResortPolicy.gapLimit(5));
+		MultiGappedList<Long> list = filled(limit);
+		removeInside(list, 5);
+		assertEquals(0, limit.resorts);
+		removeInside(list, 1);
+		assertEquals(1, limit.resorts);
+		
+		// more than a tenth of the size, 10 gaps for 90 elements
+		CountingPolicy ratio = new CountingPolicy(ResortPolicy.gapRatio(0.1));
+		list = filled(ratio);
+		removeInside(list, 9);
+		assertEquals(0, ratio.resorts);
+		removeInside(list, 1);
+		assertEquals(1, ratio.resorts);
+		
+		// a translation with a single gap costs one step, the resort costs one step per element
+		CountingPolicy cost = new CountingPolicy(ResortPolicy.translationCost(1));
+		list = filled(cost);
+		removeInside(list, 1);
+		read(list, ELEMENTS / 2);
+		assertEquals(0, cost.resorts);
+		read(list, ELEMENTS / 2 + MultiGappedList.READS_PER_RESORT_TEST);
+		assertEquals(1, cost.resorts);
+		
+		CountingPolicy time = new CountingPolicy(ResortPolicy.timeBudget(1, TimeUnit.MILLISECONDS));
+		list = filled(time);
+		removeInside(list, 1);
+		Thread.sleep(5);
+		read(list, MultiGappedList.READS_PER_RESORT_TEST - 1);
+		assertEquals(0, time.resorts);
+		read(list, 1);
+		assertEquals(1, time.resorts);
+	}
+	
+	private static MultiGappedList<Long> filled(ResortPolicy policy) {
+		MultiGappedList<Long> list = new MultiGappedList<>(ELEMENTS, policy, GapStrategy.LINKED);
+		for (long i = 0; i < ELEMENTS; i++) {
+			list.add(i);
+		}
+		
+		return list;
+	}
+	
+	/**
+	 * removes elements in front of the last one, so every removal creates a gap
+	 */
+	private static void removeInside(MultiGappedList<Long> list, int count) {
+		for (int i = 0; i < count; i++) {
+			list.remove(i * 3);
+		}
+	}
+	
+	private static void read(MultiGappedList<Long> list, int count) {
+		for (int i = 0; i < count; i++) {
+			list.get(i % list.size());
+		}
+	}
+	
+	/**
+	 * Counts the resorts decided by another policy
+	 * @author RalfK
+	 *
+	 */
+	private static final class CountingPolicy implements ResortPolicy {
+		private static final long serialVersionUID = 1L;
+		
+		private final ResortPolicy policy;
+		private int resorts;
+		
+		private CountingPolicy(ResortPolicy policy) {
+			this.policy = policy;
+		}
+		
+		@Override
+		public boolean isResortRequired(int size, int gaps) {
+			return policy.isResortRequired(size, gaps);
+		}
+		
+		@Override
+		public void onTranslation(int cost) {
+			policy.onTranslation(cost);
+		}
+		
+		@Override
+		public void onRead(int count) {
+			policy.onRead(count);
+		}
+		
+		@Override
+		public void onModification() {
+			policy.onModification();
+		}
+		
+		@Override
+		public void onResort() {
+			policy.onResort();
+			resorts++;
+		}
+	}
+}
@@ -0,0 +1,136 @@
+package main;
+
+import static org.junit.Assert.assertEquals;
+import static org.junit.Assert.assertThrows;
+import java.util.ArrayList;
+import java.util.Comparator;
+import java.util.List;
+import java.util.ListIterator;
+import java.util.function.Consumer;
+import java.util.function.Supplier;
+
+import org.junit.jupiter.api.Test;
+
+/**
+ * Tests, if a snapshot keeps the state of the list, while the list is modified.
+ * @author RalfK
+ *
+ */
+class TestSnapshot {
+	public static final int ELEMENTS = 300;
+	
+	/**
+	 * Every kind of modification copies the array shared with the snapshot first.
+	 */
+	@Test
+	void modifications() {
+		List<Consumer<List<Long>>> modifications = new ArrayList<>();
+		modifications.add(list -> list.add(-1L));
+		modifications.add(list -> list.add(5, -1L));
+		modifications.add(list -> list.set(5, -1L));
+		modifications.add(list -> list.remove(5));
+		modifications.add(list -> list.remove(Long.valueOf(100)));
+		modifications.add(list -> list.addAll(3, List.of(-1L, -2L)));
+		modifications.add(list -> list.subList(10, 20).clear());
+		modifications.add(list -> list.removeIf(e -> e % 3 == 0));
+		modifications.add(list -> list.replaceAll(e -> -e));
+		modifications.add(list -> list.sort(Comparator.reverseOrder()));
+		modifications.add(list -> {
+			ListIterator<Long> iterator = list.listIterator(4);
+			iterator.next();
+			iterator.set(-1L);
+		});
+		modifications.add(List::clear);
+		
+		for (GapStrategy strategy : GapStrategy.values()) {
+			List<Supplier<MultiGappedList<Long>>> lists = new ArrayList<>();
+			lists.add(() -> new MultiGappedList<>(10, ResortPolicy.gapLimit(Integer.MAX_VALUE), strategy));
+			lists.add(() -> new MultiGappedLongList(10, ResortPolicy.gapLimit(Integer.MAX_VALUE), strategy));
+			lists.add(() -> new MultiGappedOffHeapLongList(10, ResortPolicy.gapLimit(Integer.MAX_VALUE), strategy));
+			
+			for (Supplier<MultiGappedList<Long>> supplier : lists) {
+				for (int m = 0; m < modifications.size(); m++) {
+					MultiGappedList<Long> e = gapped(supplier.get());
+					ArrayList<Long> a = new ArrayList<>(e);
+					
+					List<Long> snapshot = e.snapshot();
+					ArrayList<Long> state = new ArrayList<>(a);
+					modifications.get(m).accept(e);
+					modifications.get(m).accept(a);
+					
+					String message = strategy + " " + e.getClass().getSimpleName() + " modification " + m;
+					assertEquals(message, state, snapshot);
+					assertEquals(message, a, e);
+					
+					// the list continues to work with its own array
+					e.add(0, -3L);
+					a.add(0, -3L);
+					e.resort();
+					assertEquals(message, a, e);
+					assertEquals(message, state, snapshot);
+				}
+			}
+		}
+	}
+	
+	/**
+	 * The primitive modifications and resorts copy the shared array as well.
+	 */
+	@Test
+	void primitives() {
+		for (GapStrategy strategy : GapStrategy.values()) {
+			MultiGappedLongList e = gapped(new MultiGappedLongList(10, ResortPolicy.gapLimit(Integer.MAX_VALUE), strategy));
+			ArrayList<Long> a = new ArrayList<>(e);
+			
+			List<Long> snapshot = e.snapshot();
+			e.setLong(0, -1L);
+			e.addLong(1, -2L);
+			e.removeLong(2);
+			assertEquals(new ArrayList<>(a), snapshot);
+			
+			snapshot = e.snapshot();
+			a = new ArrayList<>(e);
+			e.resort();
+			e.setIncrementalResort(2);
+			e.resortStep(1);
+			assertEquals(a, snapshot);
+			assertEquals(a, e);
+		}
+	}
+	
+	/**
+	 * A snapshot can not be modified and survives closing an off-heap list.
+	 */
+	@Test
+	void immutable() {
+		MultiGappedOffHeapLongList e = gapped(new MultiGappedOffHeapLongList());
+		ArrayList<Long> a = new ArrayList<>(e);
+		List<Long> snapshot = e.snapshot();
+		
+		assertThrows(UnsupportedOperationException.class, () -> snapshot.add(1L));
+		assertThrows(UnsupportedOperationException.class, () -> snapshot.set(0, 1L));
+		assertThrows(UnsupportedOperationException.class, () -> snapshot.remove(0));
+		assertThrows(IndexOutOfBoundsException.class, () -> snapshot.get(a.size()));
+		assertThrows(IndexOutOfBoundsException.class, () -> snapshot.get(-1));
+		
+		e.close();
+		assertEquals(0, e.size());
+		assertEquals(a, snapshot);
+	}
+	
+	/**
+	 * fills a list and removes some elements, so it contains gaps
+	 * @param e the empty list
+	 * @return the list
+	 */
+	private static <L extends MultiGappedList<Long>> L gapped(L e) {
+		for (long i = 0; i < ELEMENTS; i++) {
+			e.add(i);
+		}
+		for (int i = 0; i < ELEMENTS / 10; i++) {
+			e.remove((i * 17) % e.size());
+		}
+		
+		return e;
+	}
+}
@@ -0,0 +1,117 @@
+package main;
+
+import static org.junit.Assert.assertEquals;
+import static org.junit.Assert.assertThrows;
+import static org.junit.Assert.assertTrue;
+import java.util.ArrayList;
+import java.util.ConcurrentModificationException;
+import java.util.List;
+import java.util.Spliterator;
+import java.util.stream.Collectors;
+
+import org.junit.jupiter.api.Test;
+
+/**
+ * Tests, if the spliterator walks the list in order, when it is split and traversed in different ways.
+ * @author RalfK
+ *
+ */
+class TestSpliterator {
+	public static final int ELEMENTS = 1000;
+	
+	/**
+	 * Splitting the spliterator recursively and traversing the parts in order must return all elements.
+	 */
+	@Test
+	void split() {
+		for (GapStrategy strategy : GapStrategy.values()) {
+			MultiGappedList<Long> e = gapped(strategy);
+			ArrayList<Long> a = new ArrayList<>(e);
+			
+			for (int depth = 0; depth < 12; depth++) {
+				List<Long> walked = new ArrayList<>();
+				Spliterator<Long> spliterator = e.spliterator();
+				assertEquals(a.size(), spliterator.estimateSize());
+				walk(spliterator, depth, walked);
+				assertEquals(strategy + " depth " + depth, a, walked);
+			}
+			
+			Spliterator<Long> spliterator = e.spliterator();
+			assertTrue(spliterator.hasCharacteristics(Spliterator.ORDERED | Spliterator.SIZED | Spliterator.SUBSIZED));
+			
+			assertEquals(a, e.stream().collect(Collectors.toList()));
+			assertEquals(a, e.parallelStream().collect(Collectors.toList()));
+			assertEquals(a.stream().mapToLong(Long::longValue).sum(), e.parallelStream().mapToLong(Long::longValue).sum());
+		}
+	}
+	
+	/**
+	 * The spliterator is bound to the list, when it is used the first time, and fails, if the list is modified later.
+	 */
+	@Test
+	void modification() {
+		for (GapStrategy strategy : GapStrategy.values()) {
+			MultiGappedList<Long> e = gapped(strategy);
+			Spliterator<Long> spliterator = e.spliterator();
+			e.add(0, -1L);
+			
+			List<Long> walked = new ArrayList<>();
+			spliterator.forEachRemaining(walked::add);
+			assertEquals(e, walked);
+			
+			Spliterator<Long> modified = e.spliterator();
+			assertThrows(ConcurrentModificationException.class, () -> modified.forEachRemaining(x -> e.add(x)));
+			
+			Spliterator<Long> resorted = e.spliterator();
+			assertThrows(ConcurrentModificationException.class, () -> resorted.tryAdvance(x -> e.resort()));
+		}
+	}
+	
+	/**
+	 * splits the spliterator up to the given depth and traverses the parts in order.
+	 * Every second part is traversed by tryAdvance
+	 * @param spliterator the spliterator
+	 * @param depth the remaining depth
+	 * @param walked the elements traversed
+	 */
+	private static void walk(Spliterator<Long> spliterator, int depth, List<Long> walked) {
+		long size = spliterator.estimateSize();
+		Spliterator<Long> prefix = depth > 0 ? spliterator.trySplit() : null;
+		
+		if (prefix == null) {
+			if (depth % 2 == 0) {
+				spliterator.forEachRemaining(walked::add);
+			}else {
+				// the first elements one by one, the rest at once
+				for (int i = 0; i < 3 && spliterator.tryAdvance(walked::add); i++);
+				spliterator.forEachRemaining(walked::add);
+			}
+			
+			return;
+		}
+		
+		assertEquals(size, prefix.estimateSize() + spliterator.estimateSize());
+		walk(prefix, depth - 1, walked);
+		walk(spliterator, depth - 1, walked);
+	}
+	
+	/**
+	 * creates a list with gaps in front, in the middle and in runs
+	 * @param strategy the strategy of the gaps
+	 * @return the list
+	 */
+	private static MultiGappedList<Long> gapped(GapStrategy strategy) {
+		MultiGappedList<Long> e = new MultiGappedList<>(10, ResortPolicy.gapLimit(Integer.MAX_VALUE), strategy);
+		for (long i = 0; i < ELEMENTS; i++) {
+			e.add(i);
+		}
+		
+		e.remove(0);
+		e.subList(100, 150).clear();
+		for (int i = 0; i < ELEMENTS / 10; i++) {
+			e.remove((i * 31) % e.size());
+		}
+		
+		return e;
+	}
+}
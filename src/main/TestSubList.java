@@ -0,0 +1,138 @@
+package main;
+
+import static org.junit.Assert.assertEquals;
+import static org.junit.Assert.assertThrows;
+import java.util.ArrayList;
+import java.util.ConcurrentModificationException;
+import java.util.List;
+import java.util.Random;
+
+import org.junit.jupiter.api.Test;
+
+/**
+ * Tests the subList views of the list against the ones of an ArrayList.
+ * @author RalfK
+ *
+ */
+class TestSubList {
+	public static final int ELEMENTS = 500;
+	public static final int OPERATIONS = 20000;
+	
+	/**
+	 * Random operations on nested views. A view is replaced by a new one, when it gets too small.
+	 */
+	@Test
+	void nestedViews() {
+		for (GapStrategy strategy : GapStrategy.values()) {
+			Random random = new Random(1);
+			MultiGappedList<Long> e = new MultiGappedList<>(10, ResortPolicy.gapLimit(20), strategy);
+			ArrayList<Long> a = new ArrayList<>();
+			for (long i = 0; i < ELEMENTS; i++) {
+				e.add(i);
+				a.add(i);
+			}
+			
+			List<Long> outerE = null;
+			List<Long> outerA = null;
+			List<Long> innerE = null;
+			List<Long> innerA = null;
+			
+			for (int i = 0; i < OPERATIONS; i++) {
+				if (innerE == null || innerA.size() < 2 || random.nextInt(200) == 0) {
+					if (a.size() < ELEMENTS / 2) {
+						for (long k = 0; k < ELEMENTS; k++) {
+							e.add(k);
+							a.add(k);
+						}
+					}
+					
+					int from = random.nextInt(a.size() / 2);
+					int to = from + random.nextInt(a.size() - from);
+					outerE = e.subList(from, to);
+					outerA = a.subList(from, to);
+					
+					int innerFrom = random.nextInt(outerA.size() / 2 + 1);
+					int innerTo = innerFrom + random.nextInt(outerA.size() - innerFrom + 1);
+					innerE = outerE.subList(innerFrom, innerTo);
+					innerA = outerA.subList(innerFrom, innerTo);
+					continue;
+				}
+				
+				int index = random.nextInt(innerA.size());
+				long value = random.nextLong();
+				switch (random.nextInt(8)) {
+				case 0:
+					assertEquals(innerA.get(index), innerE.get(index));
+					break;
+				case 1:
+					assertEquals(innerA.set(index, value), innerE.set(index, value));
+					break;
+				case 2:
+					innerA.add(index, value);
+					innerE.add(index, value);
+					break;
+				case 3:
+					assertEquals(innerA.remove(index), innerE.remove(index));
+					break;
+				case 4:
+					List<Long> added = List.of(value, value + 1, value + 2);
+					assertEquals(innerA.addAll(index, added), innerE.addAll(index, added));
+					break;
+				case 5:
+					int to = index + random.nextInt(Math.min(5, innerA.size() - index) + 1);
+					innerA.subList(index, to).clear();
+					innerE.subList(index, to).clear();
+					break;
+				case 6:
+					// the cached position of the view must be calculated again
+					e.resort();
+					assertEquals(innerA.get(index), innerE.get(index));
+					break;
+				default:
+					Long element = innerA.get(index);
+					assertEquals(innerA.indexOf(element), innerE.indexOf(element));
+					assertEquals(innerA.lastIndexOf(element), innerE.lastIndexOf(element));
+					break;
+				}
+				
+				assertEquals(innerA.size(), innerE.size());
+				assertEquals(outerA.size(), outerE.size());
+				assertEquals(a.size(), e.size());
+				if (i % 100 == 0) {
+					assertEquals(strategy + " operation " + i, innerA, innerE);
+					assertEquals(strategy + " operation " + i, outerA, outerE);
+					assertEquals(strategy + " operation " + i, a, e);
+				}
+			}
+		}
+	}
+	
+	/**
+	 * A view fails, if the list or another view changed the structure of the list.
+	 */
+	@Test
+	void failFast() {
+		MultiGappedList<Long> e = new MultiGappedList<>();
+		for (long i = 0; i < 20; i++) {
+			e.add(i);
+		}
+		
+		List<Long> view = e.subList(5, 10);
+		List<Long> sibling = e.subList(0, 5);
+		List<Long> nested = view.subList(1, 3);
+		
+		// a set is not structural, changes by a nested view are seen by its parents
+		e.set(0, -2L);
+		assertEquals(-2L, (long) sibling.get(0));
+		nested.add(0, -1L);
+		assertEquals(List.of(5L, -1L, 6L, 7L, 8L, 9L), view);
+		
+		assertThrows(ConcurrentModificationException.class, () -> sibling.get(0));
+		e.add(-3L);
+		assertThrows(ConcurrentModificationException.class, () -> view.get(0));
+		assertThrows(ConcurrentModificationException.class, () -> nested.size());
+		
+		assertThrows(IndexOutOfBoundsException.class, () -> e.subList(5, 30));
+		assertThrows(IndexOutOfBoundsException.class, () -> e.subList(5, 4));
+	}
+}
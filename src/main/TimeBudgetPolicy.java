@@ -0,0 +1,58 @@
+package main;
+
+/**
+ * Resorts the list, when the first gap since the last resort is older than a given time.
+ * @author RalfK
+ *
+ */
+final class TimeBudgetPolicy implements ResortPolicy {
+	private static final long serialVersionUID = -9036536539002098286L;
+	
+	/**
+	 * There was no gap since the last resort
+	 */
+	private static final long NO_GAP = -1;
+	
+	/**
+	 * The maximum time gaps are kept in nanoseconds
+	 */
+	private final long budget;
+	
+	/**
+	 * The time (System.nanoTime()) the first gap since the last resort was detected or NO_GAP
+	 */
+	private long firstGap;
+	
+	/**
+	 * 
+	 * @param budget The maximum time gaps are kept in nanoseconds. Only accepts positive values.
+	 */
+	TimeBudgetPolicy(long budget) {
+		if (budget <= 0) {
+			throw new IllegalArgumentException("The time budget must be positive, actual: " + budget);
+		}
+		
+		this.budget = budget;
+		this.firstGap = NO_GAP;
+	}
+	
+	@Override
+	public boolean isResortRequired(int size, int gaps) {
+		if (gaps == 0) {
+			return false;
+		}
+		
+		long now = System.nanoTime();
+		
+		if (firstGap == NO_GAP) {
+			firstGap = now;
+		}
+		
+		return now - firstGap > budget;
+	}
+	
+	@Override
+	public void onResort() {
+		firstGap = NO_GAP;
+	}
+}
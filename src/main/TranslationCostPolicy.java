@@ -0,0 +1,47 @@
+package main;
+
+/**
+ * Resorts the list, when the translations since the last resort cost more than a resort.
+ * @author RalfK
+ *
+ */
+final class TranslationCostPolicy implements ResortPolicy {
+	private static final long serialVersionUID = -9115392408176111459L;
+	
+	/**
+	 * The costs of a resort per element
+	 */
+	private final double factor;
+	
+	/**
+	 * The costs of all translations since the last resort
+	 */
+	private long cost;
+	
+	/**
+	 * 
+	 * @param factor The costs of a resort per element. Only accepts positive values.
+	 */
+	TranslationCostPolicy(double factor) {
+		if (!(factor > 0)) {
+			throw new IllegalArgumentException("The factor must be positive, actual: " + factor);
+		}
+		
+		this.factor = factor;
+	}
+	
+	@Override
+	public boolean isResortRequired(int size, int gaps) {
+		return cost > size * factor;
+	}
+	
+	@Override
+	public void onTranslation(int cost) {
+		this.cost += cost;
+	}
+	
+	@Override
+	public void onResort() {
+		cost = 0;
+	}
+}
@@ -0,0 +1,382 @@
+package main;
+
+import java.util.NoSuchElementException;
+
+/**
+ * Stores the gaps in a balanced order-statistic tree (a treap). Every Node knows the
+ * amount of gaps in its subtree, therefore the translation from a listIndex to an
+ * arrayIndex, as well as adding and removing gaps, needs O(log gaps) instead of O(gaps).
+ * Use this implementation, if the list should support a high amount of gaps.
+ * @author RalfK
+ *
+ */
+final class TreeGaps extends AbstractGaps {
+	/**
+	 * The root Node of the tree or null, if there are no gaps
+	 */
+	private Node root;
+
+	/**
+	 * The index of the cursor (-1 is the root position, like in the CustomLinkedList)
+	 */
+	private int cursorIndex;
+
+	/**
+	 * The gap the cursor is currently at (-1 is the root position)
+	 */
+	private int cursorValue;
+
+	/**
+	 * The seed used to create the priorities of the Nodes
+	 */
+	private int seed;
+
+	/**
+	 * A Node of the tree. It stores a single gap.
+	 * @author RalfK
+	 *
+	 */
+	private static final class Node {
+		/**
+		 * The gap (the arrayIndex) stored by this Node
+		 */
+		private int value;
+
+		/**
+		 * The random priority of this Node. A parent always has a higher priority than its children
+		 */
+		private int priority;
+
+		/**
+		 * The amount of Nodes in the subtree of this Node (including this Node)
+		 */
+		private int size;
+
+		/**
+		 * The Node containing the smaller gaps
+		 */
+		private Node left;
+
+		/**
+		 * The Node containing the greater gaps
+		 */
+		private Node right;
+
+		private Node(int value, int priority) {
+			this.value = value;
+			this.priority = priority;
+			this.size = 1;
+		}
+
+		/**
+		 * recalculates the size of this subtree after its children changed
+		 */
+		private void update() {
+			size = 1 + size(left) + size(right);
+		}
+	}
+
+	/**
+	 * Creates an Object of TreeGaps to store the indexes of gaps
+	 * @param onGapAdded Informed when a gap was added, to test if a resort is required
+	 */
+	public TreeGaps(Resortable onGapAdded) {
+		super(onGapAdded);
+		this.seed = 0x2545F491;
+		toRoot();
+	}
+
+	private static int size(Node node) {
+		return node == null ? 0 : node.size;
+	}
+
+	/**
+	 * creates the next pseudo random priority (xorshift)
+	 * @return the priority
+	 */
+	private int nextPriority() {
+		seed ^= seed << 13;
+		seed ^= seed >>> 17;
+		seed ^= seed << 5;
+		return seed;
+	}
+
+	private static Node rotateRight(Node node) {
+		Node left = node.left;
+		node.left = left.right;
+		left.right = node;
+		node.update();
+		left.update();
+		return left;
+	}
+
+	private static Node rotateLeft(Node node) {
+		Node right = node.right;
+		node.right = right.left;
+		right.left = node;
+		node.update();
+		right.update();
+		return right;
+	}
+
+	/**
+	 * inserts a gap into the given subtree. The gap must not be contained yet.
+	 * @param node The root of the subtree
+	 * @param inserted The Node to be inserted
+	 * @return The new root of the subtree
+	 */
+	private static Node insert(Node node, Node inserted) {
+		if (node == null) {
+			return inserted;
+		}
+
+		if (inserted.value < node.value) {
+			node.left = insert(node.left, inserted);
+			node.update();
+			return node.left.priority > node.priority ? rotateRight(node) : node;
+		}
+
+		node.right = insert(node.right, inserted);
+		node.update();
+		return node.right.priority > node.priority ? rotateLeft(node) : node;
+	}
+
+	/**
+	 * deletes a gap from the given subtree. The gap must be contained.
+	 * @param node The root of the subtree
+	 * @param value The gap to be deleted
+	 * @return The new root of the subtree
+	 */
+	private static Node delete(Node node, int value) {
+		if (value < node.value) {
+			node.left = delete(node.left, value);
+		}else if (value > node.value) {
+			node.right = delete(node.right, value);
+		}else if (node.left == null) {
+			return node.right;
+		}else if (node.right == null) {
+			return node.left;
+		}else if (node.left.priority > node.right.priority) {
+			node = rotateRight(node);
+			node.right = delete(node.right, value);
+		}else {
+			node = rotateLeft(node);
+			node.left = delete(node.left, value);
+		}
+
+		node.update();
+		return node;
+	}
+
+	/**
+	 * returns the gap with the given index
+	 * @param index the index of the gap (0 is the smallest gap)
+	 * @return the gap
+	 */
+	private int select(int index) {
+		Node node = root;
+
+		while (true) {
+			int leftSize = size(node.left);
+
+			if (index < leftSize) {
+				node = node.left;
+			}else if (index > leftSize) {
+				index -= leftSize + 1;
+				node = node.right;
+			}else {
+				return node.value;
+			}
+		}
+	}
+
+	@Override
+	public int getArrayIndex(int listIndex) {
+		// the translation does not need the cursor
+		return peekArrayIndex(listIndex);
+	}
+
+	@Override
+	public int peekArrayIndex(int listIndex) {
+		// the amount of gaps in front of the current subtree
+		int gapsBefore = 0;
+		Node node = root;
+
+		// the depth is limited, as the links may be inconsistent, if the tree is modified at the same time
+		for (int depth = size(root); node != null && depth >= 0; depth--) {
+			int gapsBeforeNode = gapsBefore + size(node.left);
+
+			// node.value - gapsBeforeNode is the amount of elements in front of the gap
+			if (listIndex >= node.value - gapsBeforeNode) {
+				// the element is behind this gap
+				gapsBefore = gapsBeforeNode + 1;
+				node = node.right;
+			}else {
+				node = node.left;
+			}
+		}
+
+		return listIndex + gapsBefore;
+	}
+
+	@Override
+	public void toGapPosition(int gap) {
+		int index = -1;
+		int value = -1;
+		Node node = root;
+
+		// searching the greatest gap smaller or equal to the given gap
+		while (node != null) {
+			if (node.value <= gap) {
+				index += size(node.left) + 1;
+				value = node.value;
+				node = node.right;
+			}else {
+				node = node.left;
+			}
+		}
+
+		cursorIndex = index;
+		cursorValue = value;
+	}
+
+	@Override
+	public int getElement() {
+		return cursorValue;
+	}
+
+	@Override
+	public void add(int gap) {
+		// moves the cursor to the position where the element would be added
+		toGapPosition(gap);
+
+		// if the element is already contained, do nothing
+		if (gap == cursorValue) {
+			return;
+		}
+
+		// add the gap. The cursor stays at the previous gap
+		root = insert(root, new Node(gap, nextPriority()));
+
+		// inform the list, it may trigger a resort
+		testResort();
+	}
+
+	@Override
+	public void addRange(int start, int end) {
+		boolean added = false;
+		
+		for (int gap = start; gap < end; gap++) {
+			if (!contains(gap)) {
+				root = insert(root, new Node(gap, nextPriority()));
+				added = true;
+			}
+		}
+		
+		// the cursor moves to the last gap of the interval
+		toGapPosition(end - 1);
+		
+		// inform the list once, it may trigger a resort
+		if (added) {
+			testResort();
+		}
+	}
+
+	@Override
+	public void remove(int gap) {
+		toGapPosition(gap);
+		if (cursorValue == gap) {
+			remove();
+		}
+	}
+
+	@Override
+	public void remove() {
+		if (cursorIndex < 0) {
+			return;
+		}
+
+		root = delete(root, cursorValue);
+
+		// the cursor moves to the previous gap
+		cursorIndex--;
+		cursorValue = cursorIndex < 0 ? -1 : select(cursorIndex);
+	}
+
+	@Override
+	public int getIndex() {
+		return cursorIndex;
+	}
+
+	@Override
+	public boolean hasNext() {
+		return cursorIndex + 1 < size();
+	}
+
+	@Override
+	public int next() {
+		if (!hasNext()) {
+			throw new NoSuchElementException();
+		}
+
+		cursorValue = select(++cursorIndex);
+		return cursorValue;
+	}
+
+	@Override
+	public boolean hasPrevious() {
+		return cursorIndex >= 0;
+	}
+
+	@Override
+	public int previous() {
+		if (!hasPrevious()) {
+			throw new NoSuchElementException();
+		}
+
+		cursorIndex--;
+		cursorValue = cursorIndex < 0 ? -1 : select(cursorIndex);
+		return cursorValue;
+	}
+
+	@Override
+	public void toRoot() {
+		cursorIndex = -1;
+		cursorValue = -1;
+	}
+
+	@Override
+	public int size() {
+		return size(root);
+	}
+
+	@Override
+	public void clear() {
+		root = null;
+		toRoot();
+	}
+
+	@Override
+	public boolean contains(int gap) {
+		toGapPosition(gap);
+		return cursorValue == gap;
+	}
+
+	@Override
+	public int previewNext() {
+		if (!hasNext()) {
+			throw new NoSuchElementException();
+		}
+
+		return select(cursorIndex + 1);
+	}
+
+	@Override
+	public int previewPrevious() {
+		if (!hasPrevious()) {
+			throw new NoSuchElementException();
+		}
+
+		return cursorIndex == 0 ? -1 : select(cursorIndex - 1);
+	}
+}